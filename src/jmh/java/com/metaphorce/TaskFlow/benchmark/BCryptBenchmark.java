@@ -0,0 +1,49 @@
+package com.metaphorce.TaskFlow.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// Costo de cada hash que CredencialesServiceImpl calcula en el hashExecutor, según el factor de costo
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptBenchmark {
+
+    @Param({"10", "12"})
+    public int costo;
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        passwordEncoder = new BCryptPasswordEncoder(costo);
+        hash = passwordEncoder.encode("contrasenia-de-prueba");
+    }
+
+    @Benchmark
+    public String codificar() {
+        return passwordEncoder.encode("contrasenia-de-prueba");
+    }
+
+    @Benchmark
+    public boolean verificar() {
+        return passwordEncoder.matches("contrasenia-de-prueba", hash);
+    }
+}
@@ -0,0 +1,104 @@
+package com.metaphorce.TaskFlow.benchmark;
+
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.service.TokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Ráfagas de peticiones concurrentes contra el servidor real, con y sin hilos virtuales
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CargaBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ContextoCarga extends ContextoBenchmark {
+
+        @Param({"false", "true"})
+        public boolean virtuales;
+
+        @Param("2000")
+        public int concurrencia;
+
+        ExecutorService clientes;
+        HttpClient cliente;
+        HttpRequest peticion;
+
+        @Override
+        protected SpringApplicationBuilder configurar(SpringApplicationBuilder aplicacion) {
+            return aplicacion.web(WebApplicationType.SERVLET);
+        }
+
+        // Como argumentos de línea de comandos para que ganen sobre application.properties
+        @Override
+        protected String[] argumentos() {
+            return new String[]{
+                    "--server.port=0",
+                    "--spring.threads.virtual.enabled=" + virtuales
+            };
+        }
+
+        // Se llama cuando el contexto ya está levantado y sembrado; el token se emite una vez y cada
+        // petición lo verifica como en producción, sin pasar por BCrypt
+        @Override
+        protected void alIniciar() {
+            String token = contexto.getBean(TokenService.class).emitir(idUsuario, "usuario0@taskflow.com", Rol.Lider).token();
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            clientes = Executors.newVirtualThreadPerTaskExecutor();
+            cliente = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientes)
+                    .build();
+            peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/TaskFlow/tareas/proyecto/" + idProyecto))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void cerrarCliente() {
+            cliente.close();
+            clientes.close();
+        }
+    }
+
+    // Una operación = una ráfaga completa de peticiones simultáneas a la lista de tareas del proyecto
+    @Benchmark
+    public long rafagaTareasPorProyecto(ContextoCarga contexto) {
+        CompletableFuture<?>[] respuestas = IntStream.range(0, contexto.concurrencia)
+                .mapToObj(i -> contexto.cliente.sendAsync(contexto.peticion, HttpResponse.BodyHandlers.discarding())
+                        .thenAccept(respuesta -> {
+                            if (respuesta.statusCode() != 200) {
+                                throw new IllegalStateException("Respuesta inesperada: " + respuesta.statusCode());
+                            }
+                        }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(respuestas).join();
+        return respuestas.length;
+    }
+}
@@ -0,0 +1,53 @@
+package com.metaphorce.TaskFlow.benchmark;
+
+import com.metaphorce.TaskFlow.dto.ResultadoBusquedaDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.dto.TareaDetalleDTO;
+import com.metaphorce.TaskFlow.enums.ExpansionTarea;
+import com.metaphorce.TaskFlow.enums.TipoDocumento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Rutas de lectura más usadas, medidas de punta a punta contra la base embebida
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsultasBenchmark {
+
+    @Benchmark
+    public List<TareaDTO> tareasPorProyecto(ContextoBenchmark contexto) {
+        return contexto.tareasService.getTareasByProyecto(contexto.idProyecto, null, 50);
+    }
+
+    @Benchmark
+    public List<TareaDetalleDTO> tareasPorProyectoExpandidas(ContextoBenchmark contexto) {
+        return contexto.tareasService.getTareasByProyecto(contexto.idProyecto, ExpansionTarea.Completa, null, 50);
+    }
+
+    // Todas las tareas sembradas coinciden: es el peor caso para ordenar por relevancia
+    @Benchmark
+    public List<ResultadoBusquedaDTO> busquedaDeTexto(ContextoBenchmark contexto) {
+        return contexto.indiceBusquedaService.buscar("descripcion tarea", TipoDocumento.Tarea, 0, 50);
+    }
+
+    @Benchmark
+    public Integer duracionTotalDesdeAcumulado(ContextoBenchmark contexto) {
+        return contexto.gestionTiempoService.getDuracionTotalSesion(contexto.idUsuario, contexto.idTarea);
+    }
+
+    // Referencia: la suma completa sobre gestion_tiempo que el acumulado reemplaza
+    @Benchmark
+    public Integer duracionTotalConSuma(ContextoBenchmark contexto) {
+        return contexto.gestionTiempoRepository.sumDuracionSesionByUsuarioAndTarea(contexto.idUsuario, contexto.idTarea);
+    }
+}
@@ -0,0 +1,144 @@
+package com.metaphorce.TaskFlow.benchmark;
+
+import com.metaphorce.TaskFlow.TaskFlowApplication;
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.GestionTiempo;
+import com.metaphorce.TaskFlow.modelo.Proyecto;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.GestionTiempoRepository;
+import com.metaphorce.TaskFlow.repository.ProyectoRepository;
+import com.metaphorce.TaskFlow.repository.TareasRepository;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import com.metaphorce.TaskFlow.service.GestionTiempoService;
+import com.metaphorce.TaskFlow.service.IndiceBusquedaService;
+import com.metaphorce.TaskFlow.service.TareasService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Levanta la aplicación sobre H2 embebida y siembra un conjunto de datos del tamaño indicado por @Param
+@State(Scope.Benchmark)
+public class ContextoBenchmark {
+
+    private static final int USUARIOS = 20;
+    private static final int PROYECTOS = 20;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @Param("10000")
+    public int tareas;
+
+    @Param("50000")
+    public int registros;
+
+    ConfigurableApplicationContext contexto;
+    TareasService tareasService;
+    GestionTiempoService gestionTiempoService;
+    GestionTiempoRepository gestionTiempoRepository;
+    IndiceBusquedaService indiceBusquedaService;
+
+    Integer idProyecto;
+    Integer idUsuario;
+    Integer idTarea;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = configurar(new SpringApplicationBuilder(TaskFlowApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.mapping-resources=META-INF/acumulados-h2.xml",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN"))
+                .run(argumentos());
+        tareasService = contexto.getBean(TareasService.class);
+        gestionTiempoService = contexto.getBean(GestionTiempoService.class);
+        gestionTiempoRepository = contexto.getBean(GestionTiempoRepository.class);
+        indiceBusquedaService = contexto.getBean(IndiceBusquedaService.class);
+        sembrar();
+        alIniciar();
+    }
+
+    // Puntos de extensión para contextos que necesitan el servidor web o propiedades propias
+    protected SpringApplicationBuilder configurar(SpringApplicationBuilder aplicacion) {
+        return aplicacion;
+    }
+
+    protected String[] argumentos() {
+        return new String[0];
+    }
+
+    protected void alIniciar() {
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    private void sembrar() {
+        UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        ProyectoRepository proyectoRepository = contexto.getBean(ProyectoRepository.class);
+        TareasRepository tareasRepository = contexto.getBean(TareasRepository.class);
+
+        List<Usuario> usuarios = usuarioRepository.saveAll(IntStream.range(0, USUARIOS).mapToObj(i -> {
+            Usuario usuario = new Usuario();
+            usuario.setNombre("Usuario " + i);
+            usuario.setCorreo("usuario" + i + "@taskflow.com");
+            usuario.setContraseniaHash("$2a$10$benchmark");
+            usuario.setRol(i == 0 ? Rol.Lider : Rol.Miembro);
+            return usuario;
+        }).toList());
+
+        List<Proyecto> proyectos = proyectoRepository.saveAll(IntStream.range(0, PROYECTOS).mapToObj(i -> {
+            Proyecto proyecto = new Proyecto();
+            proyecto.setUsuario(usuarios.get(0));
+            proyecto.setTitulo("Proyecto " + i);
+            proyecto.setDescripcion("Proyecto sembrado para benchmarks");
+            proyecto.setFechaInicio(INICIO);
+            return proyecto;
+        }).toList());
+
+        tareasService.createTareas(IntStream.range(0, tareas).mapToObj(i -> {
+            Tareas tarea = new Tareas();
+            tarea.setCreadorTarea(usuarios.get(0));
+            tarea.setUsuarioAsignada(usuarios.get(i % USUARIOS));
+            tarea.setProyecto(proyectos.get(i % PROYECTOS));
+            tarea.setFechaCreacion(INICIO.plusHours(i));
+            tarea.setTitulo("Tarea " + i);
+            tarea.setDescripcion("Descripcion de la tarea " + i);
+            tarea.setPrioridad(Prioridad.values()[i % Prioridad.values().length]);
+            tarea.setEstatus(Estatus.values()[i % Estatus.values().length]);
+            return tarea;
+        }).iterator());
+        List<Integer> idsTareas = new ArrayList<>(tareasRepository.findAll().stream().map(Tareas::getIdTarea).toList());
+
+        gestionTiempoService.createGestionesTiempo(IntStream.range(0, registros).mapToObj(i -> {
+            Tareas tarea = new Tareas();
+            tarea.setIdTarea(idsTareas.get(i % idsTareas.size()));
+            GestionTiempo gestionTiempo = new GestionTiempo();
+            gestionTiempo.setTarea(tarea);
+            gestionTiempo.setUsuario(usuarios.get(i % USUARIOS));
+            gestionTiempo.setFechaInicio(INICIO.plusMinutes(37L * i));
+            gestionTiempo.setFechaFin(INICIO.plusMinutes(37L * i + 5 + i % 90));
+            return gestionTiempo;
+        }).iterator());
+
+        idProyecto = proyectos.get(0).getIdProyecto();
+        idUsuario = usuarios.get(0).getIdUsuario();
+        idTarea = idsTareas.get(0);
+    }
+}
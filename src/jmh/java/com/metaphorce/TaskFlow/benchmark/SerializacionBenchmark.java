@@ -0,0 +1,71 @@
+package com.metaphorce.TaskFlow.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metaphorce.TaskFlow.dto.ProyectoDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.dto.TareaDetalleDTO;
+import com.metaphorce.TaskFlow.dto.UsuarioDTO;
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.enums.Rol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Costo de Jackson al escribir una página de tareas, plana y con sus relaciones expandidas
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionBenchmark {
+
+    @Param({"50", "500"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<TareaDTO> tareas;
+    private List<TareaDetalleDTO> tareasExpandidas;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        // Misma configuración base que el ObjectMapper de Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime ahora = LocalDateTime.of(2025, 1, 1, 8, 0);
+        UsuarioDTO usuario = new UsuarioDTO(1, "Ana", "ana@taskflow.com", Rol.Lider);
+        ProyectoDTO proyecto = new ProyectoDTO(1, 1, "TaskFlow", "Proyecto de benchmark", ahora, null);
+        tareas = IntStream.range(0, size)
+                .mapToObj(i -> new TareaDTO(i, 1, 1, 1, ahora, null, "Tarea " + i, "Descripcion " + i, Prioridad.Media, Estatus.Asignada))
+                .toList();
+        tareasExpandidas = IntStream.range(0, size)
+                .mapToObj(i -> new TareaDetalleDTO(i, usuario, usuario, proyecto, ahora, null, "Tarea " + i, "Descripcion " + i, Prioridad.Media, Estatus.Asignada))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] paginaDeTareas() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tareas);
+    }
+
+    @Benchmark
+    public byte[] paginaDeTareasExpandidas() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tareasExpandidas);
+    }
+}
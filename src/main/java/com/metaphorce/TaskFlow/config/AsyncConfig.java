@@ -0,0 +1,11 @@
+package com.metaphorce.TaskFlow.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Habilita @Scheduled; con spring.threads.virtual.enabled=true el planificador y el applicationTaskExecutor
+// que atiende las respuestas asíncronas de MVC (StreamingResponseBody, CompletableFuture, SseEmitter) usan hilos virtuales
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+}
@@ -0,0 +1,24 @@
+package com.metaphorce.TaskFlow.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Cachés en memoria (Caffeine) para las búsquedas de usuarios y proyectos, los resúmenes de proyecto y los reportes de
+// tiempo; tamaño y TTL en application.properties. Las regiones de la caché de segundo nivel de Hibernate (entidades y
+// consultas) van aparte, en Caffeine JCache, y se dimensionan en application.conf.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USUARIOS = "usuarios";
+    public static final String USUARIOS_POR_CORREO = "usuariosPorCorreo";
+    public static final String PROYECTOS = "proyectos";
+    public static final String PROYECTOS_POR_TITULO = "proyectosPorTitulo";
+    public static final String RESUMENES_PROYECTO = "resumenesProyecto";
+    public static final String REPORTES_TIEMPO = "reportesTiempo";
+
+    public static final String REGION_USUARIO = "taskflow-usuario";
+    public static final String REGION_PROYECTO = "taskflow-proyecto";
+    public static final String REGION_PROYECTOS_GESTIONADOS = "taskflow-proyectos-gestionados";
+    public static final String REGION_CONSULTAS_USUARIO = "taskflow-consultas-usuario";
+}
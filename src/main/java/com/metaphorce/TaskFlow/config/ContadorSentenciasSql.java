@@ -0,0 +1,23 @@
+package com.metaphorce.TaskFlow.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Cuenta las sentencias SQL que Hibernate prepara en el hilo actual; MetricasSqlFilter lo reinicia en cada petición
+public class ContadorSentenciasSql implements StatementInspector {
+
+    private static final ThreadLocal<int[]> SENTENCIAS = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        SENTENCIAS.get()[0]++;
+        return sql;
+    }
+
+    public static void reiniciar() {
+        SENTENCIAS.get()[0] = 0;
+    }
+
+    public static int getSentencias() {
+        return SENTENCIAS.get()[0];
+    }
+}
@@ -0,0 +1,91 @@
+package com.metaphorce.TaskFlow.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Escrituras a la primaria y transacciones readOnly a las réplicas de taskflow.replicas.urls. Sin réplicas el
+// DataSource es directamente el pool de la primaria, como lo configuraría Spring Boot. Lo que se lee de una réplica no
+// llena ninguna caché: las cachés de Spring se llenan con lecturas en la primaria (LecturaPrimaria) y las de Hibernate
+// solo desde transacciones de escritura (TransaccionesReplicas).
+@Configuration
+public class DataSourceConfig {
+
+    // No es candidato a inyección: JPA y Flyway reciben siempre el DataSource enrutado
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaria(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("taskflow-primaria");
+        return pool;
+    }
+
+    // La conexión física se pide con la primera sentencia, cuando la transacción ya quedó marcada como readOnly
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, ObjectProvider<ReplicasLectura> replicas) {
+        HikariDataSource primaria = primaria(properties);
+        ReplicasLectura lectura = replicas.getIfAvailable();
+        if (lectura == null) {
+            return primaria;
+        }
+        return new LazyConnectionDataSourceProxy(new DataSourceEnrutado(primaria, lectura));
+    }
+
+    // Reemplaza al de Spring Boot solo cuando hay réplicas, con los mismos personalizadores
+    @Bean
+    @ConditionalOnProperty("taskflow.replicas.urls")
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new TransaccionesReplicas();
+        customizers.ifAvailable(personalizadores -> personalizadores.customize(transactionManager));
+        return transactionManager;
+    }
+
+    // Cada réplica toma la configuración de Hikari de la primaria; taskflow.replicas.hikari.* la sobrescribe
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("taskflow.replicas.urls")
+    public ReplicasLectura replicasLectura(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${taskflow.replicas.urls}") List<String> urls,
+            @Value("${taskflow.replicas.retraso-maximo:2s}") Duration retrasoMaximo,
+            @Value("${taskflow.replicas.intervalo:5s}") Duration intervalo,
+            @Value("${taskflow.replicas.consulta-retraso:SHOW REPLICA STATUS}") String consultaRetraso) {
+        Binder binder = Binder.get(environment);
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            binder.bind("taskflow.replicas.hikari", Bindable.ofInstance(pool));
+            pool.setJdbcUrl(urls.get(i).trim());
+            pool.setUsername(environment.getProperty("taskflow.replicas.username", properties.determineUsername()));
+            pool.setPassword(environment.getProperty("taskflow.replicas.password", properties.determinePassword()));
+            pool.setReadOnly(true);
+            pool.setPoolName("taskflow-replica-" + (i + 1));
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(pool);
+        }
+        ReplicasLectura replicas = new ReplicasLectura(pools, retrasoMaximo, consultaRetraso, meterRegistry);
+        replicas.iniciar(intervalo);
+        return replicas;
+    }
+}
@@ -0,0 +1,49 @@
+package com.metaphorce.TaskFlow.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Elige el pool al pedir la conexión: una réplica disponible si la transacción actual es readOnly, la primaria en
+// cualquier otro caso o si ninguna réplica está al día. Va detrás de LazyConnectionDataSourceProxy.
+final class DataSourceEnrutado extends AbstractDataSource {
+
+    private final DataSource primaria;
+    private final ReplicasLectura replicas;
+
+    DataSourceEnrutado(DataSource primaria, ReplicasLectura replicas) {
+        this.primaria = primaria;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Connection conexion = replicas.conexion();
+            if (conexion != null) {
+                return conexion;
+            }
+        }
+        return primaria.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primaria.getConnection(username, password);
+    }
+
+    // Métricas y salud de Actuator ven el pool de la primaria
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : primaria.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primaria.isWrapperFor(iface);
+    }
+}
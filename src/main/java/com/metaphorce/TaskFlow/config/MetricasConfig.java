@@ -0,0 +1,54 @@
+package com.metaphorce.TaskFlow.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Controladores, repositorios, Hikari y cachés los instrumenta Actuator; aquí se agregan los servicios, el conteo de SQL
+// y las regiones de la caché de segundo nivel de Hibernate
+@Configuration
+public class MetricasConfig {
+
+    // Habilita @Timed en los servicios
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorSentenciasSql() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorSentenciasSql());
+    }
+
+    // Mismos nombres que las cachés de Spring (cache.gets, cache.puts) con cache.manager=hibernate
+    @Bean
+    public MeterBinder metricasCacheHibernate(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+                if (stats == null) {
+                    continue;
+                }
+                FunctionCounter.builder("cache.gets", stats, CacheRegionStatistics::getHitCount)
+                        .tags("cache", region, "cache.manager", "hibernate", "result", "hit")
+                        .register(registry);
+                FunctionCounter.builder("cache.gets", stats, CacheRegionStatistics::getMissCount)
+                        .tags("cache", region, "cache.manager", "hibernate", "result", "miss")
+                        .register(registry);
+                FunctionCounter.builder("cache.puts", stats, CacheRegionStatistics::getPutCount)
+                        .tags("cache", region, "cache.manager", "hibernate")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.metaphorce.TaskFlow.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Registra cuántas sentencias SQL ejecutó cada petición, etiquetado por el patrón de la URI
+@Component
+public class MetricasSqlFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContadorSentenciasSql.reiniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("taskflow.sql.sentencias")
+                    .description("Sentencias SQL por petición")
+                    .tag("method", request.getMethod())
+                    .tag("uri", patron != null ? patron.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(ContadorSentenciasSql.getSentencias());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.metaphorce.TaskFlow.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pools de las réplicas de lectura. Una réplica recibe lecturas solo si la última revisión midió un retraso de
+// replicación menor o igual a retraso-maximo; si no responde, va atrasada o la replicación está detenida, sus
+// lecturas van a la primaria hasta la siguiente revisión que la encuentre al día. Las revisiones corren en un hilo
+// propio: una réplica que tarda en responder no retrasa las tareas de @Scheduled, que comparten un solo hilo.
+public class ReplicasLectura implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicasLectura.class);
+
+    // Columna de SHOW REPLICA STATUS (MySQL 8.0.22+); null cuando la replicación está detenida
+    static final String COLUMNA_RETRASO = "Seconds_Behind_Source";
+
+    private final List<Replica> replicas;
+    private final long retrasoMaximo;
+    private final String consultaRetraso;
+    private final Counter respaldo;
+    private final AtomicInteger siguiente = new AtomicInteger();
+    private final ThreadPoolTaskScheduler revisiones = new ThreadPoolTaskScheduler();
+
+    ReplicasLectura(List<HikariDataSource> pools, Duration retrasoMaximo, String consultaRetraso, MeterRegistry meterRegistry) {
+        this.replicas = pools.stream().map(pool -> new Replica(pool, meterRegistry)).toList();
+        this.retrasoMaximo = retrasoMaximo.toSeconds();
+        this.consultaRetraso = consultaRetraso;
+        this.respaldo = Counter.builder("taskflow.datasource.lecturas")
+                .description("Conexiones de transacciones readOnly por pool")
+                .tag("pool", "primaria")
+                .register(meterRegistry);
+    }
+
+    // Conexión de la siguiente réplica disponible (round robin) o null si ninguna lo está
+    Connection conexion() {
+        int inicio = Math.floorMod(siguiente.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((inicio + i) % replicas.size());
+            if (!replica.disponible) {
+                continue;
+            }
+            try {
+                Connection conexion = replica.pool.getConnection();
+                replica.lecturas.increment();
+                return conexion;
+            } catch (SQLException e) {
+                log.warn("Réplica {} sin conexión, sus lecturas van a la primaria: {}", replica.pool.getPoolName(), e.getMessage());
+                replica.disponible = false;
+            }
+        }
+        respaldo.increment();
+        return null;
+    }
+
+    // La primera revisión corre de inmediato y las siguientes cada intervalo desde que termina la anterior
+    void iniciar(Duration intervalo) {
+        revisiones.setPoolSize(1);
+        revisiones.setThreadNamePrefix("taskflow-replicas-");
+        revisiones.setDaemon(true);
+        revisiones.initialize();
+        revisiones.scheduleWithFixedDelay(this::revisarRetraso, intervalo);
+    }
+
+    public synchronized void revisarRetraso() {
+        for (Replica replica : replicas) {
+            Long segundos = medirRetraso(replica);
+            boolean disponible = segundos != null && segundos <= retrasoMaximo;
+            if (disponible != replica.disponible) {
+                log.info("Réplica {} {} (retraso: {} s)", replica.pool.getPoolName(),
+                        disponible ? "recibe lecturas" : "deja de recibir lecturas", segundos);
+            }
+            replica.retraso = segundos != null ? segundos : Double.NaN;
+            replica.disponible = disponible;
+        }
+    }
+
+    private Long medirRetraso(Replica replica) {
+        try (Connection conexion = replica.pool.getConnection();
+             Statement sentencia = conexion.createStatement();
+             ResultSet resultado = sentencia.executeQuery(consultaRetraso)) {
+            if (!resultado.next()) {
+                // Sin fila la base no está replicando
+                return null;
+            }
+            long segundos = resultado.getLong(COLUMNA_RETRASO);
+            return resultado.wasNull() ? null : segundos;
+        } catch (SQLException e) {
+            log.warn("No se pudo medir el retraso de la réplica {}: {}", replica.pool.getPoolName(), e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        revisiones.shutdown();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    // Disponible empieza en false: ninguna réplica recibe lecturas antes de su primera revisión
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private final Counter lecturas;
+        private volatile boolean disponible;
+        private volatile double retraso = Double.NaN;
+
+        Replica(HikariDataSource pool, MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.lecturas = Counter.builder("taskflow.datasource.lecturas")
+                    .description("Conexiones de transacciones readOnly por pool")
+                    .tag("pool", pool.getPoolName())
+                    .register(meterRegistry);
+            Gauge.builder("taskflow.datasource.retraso", this, r -> r.retraso)
+                    .description("Retraso de replicación medido en la última revisión")
+                    .tag("pool", pool.getPoolName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("taskflow.datasource.disponible", this, r -> r.disponible ? 1 : 0)
+                    .tag("pool", pool.getPoolName())
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -1,15 +1,56 @@
 package com.metaphorce.TaskFlow.config;
 
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.service.TokenService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
+@EnableWebSecurity
 public class SecurityConfig {
 
+    // Sin sesión HTTP: cada petición se autentica con su token firmado (ver TokenAutenticacionFilter)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService,
+                                                   @Value("${management.server.port:}") Integer puertoGestion) throws Exception {
+        return http
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(sesion -> sesion.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(peticiones -> peticiones
+                        .requestMatchers(HttpMethod.POST, "/TaskFlow/auth/login").permitAll()
+                        // El scrape de Prometheus no lleva token: solo se acepta en el puerto de gestión; si la gestión
+                        // comparte el puerto de la API, las métricas exigen el rol Lider
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers(peticion -> puertoGestion != null && peticion.getLocalPort() == puertoGestion).permitAll()
+                        .requestMatchers("/actuator/**").hasRole(Rol.Lider.name())
+                        .requestMatchers(HttpMethod.POST, "/TaskFlow/usuarios").hasRole(Rol.Lider.name())
+                        .requestMatchers(HttpMethod.DELETE, "/TaskFlow/usuarios/**").hasRole(Rol.Lider.name())
+                        .requestMatchers(HttpMethod.PUT, "/TaskFlow/usuarios/**").hasRole(Rol.Lider.name())
+                        .requestMatchers(HttpMethod.PATCH, "/TaskFlow/usuarios/**").hasRole(Rol.Lider.name())
+                        .requestMatchers("/TaskFlow/*/reconstruir", "/TaskFlow/*/acumulados/reconstruir", "/TaskFlow/cache/**",
+                                "/TaskFlow/importar/**")
+                        .hasRole(Rol.Lider.name())
+                        .anyRequest().authenticated())
+                .exceptionHandling(errores -> errores.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(new TokenAutenticacionFilter(tokenService), UsernamePasswordAuthenticationFilter.class)
+                .build();
+    }
+
+    // Al subir el costo, los hashes anteriores se actualizan en el siguiente inicio de sesión
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${taskflow.credenciales.costo-bcrypt:10}") int costo) {
+        return new BCryptPasswordEncoder(costo);
     }
 }
@@ -0,0 +1,43 @@
+package com.metaphorce.TaskFlow.config;
+
+import com.metaphorce.TaskFlow.dto.SesionDTO;
+import com.metaphorce.TaskFlow.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+// Autentica "Authorization: Bearer <token>" solo con la firma y el contenido del token; no consulta la base de datos.
+// No es @Component para que se registre únicamente dentro de la cadena de Spring Security.
+public class TokenAutenticacionFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public TokenAutenticacionFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String autorizacion = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (autorizacion != null && autorizacion.startsWith(BEARER)) {
+            Optional<SesionDTO> sesion = tokenService.verificar(autorizacion.substring(BEARER.length()));
+            sesion.ifPresent(valida -> SecurityContextHolder.getContext().setAuthentication(
+                    UsernamePasswordAuthenticationToken.authenticated(valida, null,
+                            List.of(new SimpleGrantedAuthority("ROLE_" + valida.rol().name())))));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,39 @@
+package com.metaphorce.TaskFlow.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Con réplicas, una transacción readOnly puede leer filas que la réplica todavía no actualizó. Sus lecturas usan la
+// caché de segundo nivel y la de consultas, pero no las llenan (CacheStoreMode.BYPASS): de lo contrario una fila vieja
+// quedaría en la caché después de que la escritura la invalidó. Las transacciones de escritura las llenan como siempre.
+final class TransaccionesReplicas extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (definition.isReadOnly()) {
+            entityManager().setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        }
+    }
+
+    // Con open-in-view el EntityManager sigue abierto después de la transacción y vuelve a llenar las cachés
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        EntityManager entityManager = entityManager();
+        if (entityManager != null && entityManager.isOpen()
+                && entityManager.getProperties().get(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE) == CacheStoreMode.BYPASS) {
+            entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.USE);
+        }
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    private EntityManager entityManager() {
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        return holder != null ? holder.getEntityManager() : null;
+    }
+}
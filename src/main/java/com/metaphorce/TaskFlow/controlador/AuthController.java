@@ -0,0 +1,39 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.metaphorce.TaskFlow.dto.CredencialesDTO;
+import com.metaphorce.TaskFlow.dto.SesionDTO;
+import com.metaphorce.TaskFlow.service.CredencialesService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/TaskFlow/auth")
+public class AuthController {
+
+    private static final String BEARER = "Bearer ";
+
+    @Autowired
+    private CredencialesService credencialesService;
+
+    // Iniciar sesión; la verificación corre en el executor de BCrypt y el hilo de la petición queda libre mientras tanto
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<SesionDTO>> login(@RequestBody CredencialesDTO credenciales) {
+        return credencialesService.login(credenciales.correo(), credenciales.contrasenia())
+                .thenApply(sesion -> sesion.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                        .orElseGet(() -> new ResponseEntity<>(HttpStatus.UNAUTHORIZED)));
+    }
+
+    // Cerrar la sesión del token enviado en Authorization
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String autorizacion) {
+        if (autorizacion.startsWith(BEARER)) {
+            credencialesService.cerrarSesion(autorizacion.substring(BEARER.length()));
+        }
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -0,0 +1,39 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.metaphorce.TaskFlow.dto.ResultadoBusquedaDTO;
+import com.metaphorce.TaskFlow.enums.TipoDocumento;
+import com.metaphorce.TaskFlow.service.IndiceBusquedaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/TaskFlow/busqueda")
+public class BusquedaController {
+
+    @Autowired
+    private IndiceBusquedaService indiceBusquedaService;
+
+    // Buscar texto en titulo y descripcion de tareas y proyectos, de mayor a menor relevancia (tipo=Tarea|Proyecto filtra)
+    @GetMapping
+    public ResponseEntity<List<ResultadoBusquedaDTO>> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false) TipoDocumento tipo,
+            @RequestParam(defaultValue = "0") int cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size) {
+        int limite = Paginacion.limitar(size);
+        int desde = Math.max(0, cursor);
+        List<ResultadoBusquedaDTO> resultados = indiceBusquedaService.buscar(q, tipo, desde, limite);
+        return Paginacion.paginaPorPosicion(resultados, limite, desde);
+    }
+
+    // Reconstruir el índice de búsqueda desde la base de datos
+    @PostMapping("/reconstruir")
+    public ResponseEntity<Long> reconstruir() {
+        long documentos = indiceBusquedaService.reconstruir();
+        return new ResponseEntity<>(documentos, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,33 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.metaphorce.TaskFlow.dto.EstadisticasCacheDTO;
+import com.metaphorce.TaskFlow.dto.EstadisticasRegionDTO;
+import com.metaphorce.TaskFlow.service.EstadisticasCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/TaskFlow/cache")
+public class CacheController {
+
+    @Autowired
+    private EstadisticasCacheService estadisticasCacheService;
+
+    // Obtener aciertos, fallos y expulsiones de cada caché
+    @GetMapping("/estadisticas")
+    public ResponseEntity<List<EstadisticasCacheDTO>> getEstadisticas() {
+        List<EstadisticasCacheDTO> estadisticas = estadisticasCacheService.getEstadisticas();
+        return new ResponseEntity<>(estadisticas, HttpStatus.OK);
+    }
+
+    // Obtener aciertos, fallos y escrituras de cada región de la caché de segundo nivel de Hibernate
+    @GetMapping("/estadisticas/hibernate")
+    public ResponseEntity<List<EstadisticasRegionDTO>> getEstadisticasRegiones() {
+        List<EstadisticasRegionDTO> estadisticas = estadisticasCacheService.getEstadisticasRegiones();
+        return new ResponseEntity<>(estadisticas, HttpStatus.OK);
+    }
+}
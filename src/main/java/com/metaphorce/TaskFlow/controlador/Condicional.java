@@ -0,0 +1,79 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.metaphorce.TaskFlow.dto.FirmaColeccionDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Peticiones condicionales: ETag fuerte a partir de la columna version de la entidad y ETag débil para colecciones
+final class Condicional {
+
+    static final String MERGE_PATCH = "application/merge-patch+json";
+
+    private Condicional() {
+    }
+
+    static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Con If-None-Match vigente responde 304 sin cargar el cuerpo; si no, lo carga y lo devuelve con su ETag.
+    // checkNotModified deja la respuesta en 304 y el null le indica a Spring que ya está resuelta.
+    static <T> ResponseEntity<T> porVersion(WebRequest request, Optional<Long> version, Supplier<Optional<T>> cuerpo) {
+        if (version.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String etag = etag(version.get());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return cuerpo.get().map(value -> ResponseEntity.ok().eTag(etag).body(value))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // La firma cubre todas las filas del filtro, no solo la página: es conservadora, cualquier cambio la invalida
+    static <T> ResponseEntity<T> porFirma(WebRequest request, FirmaColeccionDTO firma, Supplier<ResponseEntity<T>> respuesta) {
+        String etag = "W/\"" + firma.filas() + "-" + valor(firma.sumaIds()) + "-" + valor(firma.sumaVersiones()) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        ResponseEntity<T> pagina = respuesta.get();
+        return ResponseEntity.status(pagina.getStatusCode()).headers(pagina.getHeaders()).eTag(etag).body(pagina.getBody());
+    }
+
+    // Versión esperada por If-Match ("5", W/"5" o *); null si no se envió o no es una versión
+    static Long versionEsperada(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.startsWith("W/")) {
+            valor = valor.substring(2);
+        }
+        valor = valor.replace("\"", "");
+        try {
+            return Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Respuesta de un PATCH: 204 sin cuerpo (el UPDATE no relee la fila); el ETag nuevo solo se conoce si hubo If-Match
+    static ResponseEntity<Void> parcial(boolean actualizado, Long versionEsperada) {
+        if (!actualizado) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        ResponseEntity.HeadersBuilder<?> respuesta = ResponseEntity.noContent();
+        if (versionEsperada != null) {
+            respuesta.eTag(etag(versionEsperada + 1));
+        }
+        return respuesta.build();
+    }
+
+    private static long valor(Long suma) {
+        return suma != null ? suma : 0;
+    }
+}
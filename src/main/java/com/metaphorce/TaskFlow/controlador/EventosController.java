@@ -0,0 +1,91 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.metaphorce.TaskFlow.dto.EventoCambioDTO;
+import com.metaphorce.TaskFlow.dto.SesionDTO;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.service.EventosCambioService;
+import com.metaphorce.TaskFlow.service.ProyectoService;
+import com.metaphorce.TaskFlow.service.SuscriptorCambios;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/TaskFlow/eventos")
+public class EventosController {
+
+    @Autowired
+    private EventosCambioService eventosCambioService;
+
+    @Autowired
+    private ProyectoService proyectoService;
+
+    @Value("${taskflow.eventos.duracion:30m}")
+    private Duration duracion;
+
+    // Suscribirse por SSE a los cambios de tareas y registros de tiempo, en lugar de sondear las listas.
+    // idUsuario: tareas asignadas o creadas por el usuario y sus registros de tiempo; idProyecto: tareas del proyecto.
+    // Un evento "desbordado" indica que se perdieron cambios y hay que recargar antes de volver a suscribirse.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribir(
+            @AuthenticationPrincipal SesionDTO sesion,
+            @RequestParam(required = false) Integer idUsuario,
+            @RequestParam(required = false) Integer idProyecto) {
+        verificarFiltros(sesion, idUsuario, idProyecto);
+        SseEmitter emitter = new SseEmitter(duracion.toMillis());
+        Runnable cancelar = eventosCambioService.suscribir(idUsuario, idProyecto, new SuscriptorCambios() {
+            @Override
+            public void entregar(EventoCambioDTO evento) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(evento.secuencia()))
+                        .name(evento.recurso().name() + evento.tipo().name())
+                        .data(evento, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void latido() throws IOException {
+                emitter.send(SseEmitter.event().comment("latido"));
+            }
+
+            @Override
+            public void terminar(boolean desbordado) {
+                try {
+                    if (desbordado) {
+                        emitter.send(SseEmitter.event().name("desbordado").data(""));
+                    }
+                    emitter.complete();
+                } catch (IOException | IllegalStateException e) {
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+        emitter.onCompletion(cancelar);
+        emitter.onTimeout(cancelar);
+        emitter.onError(error -> cancelar.run());
+        return emitter;
+    }
+
+    // Un Lider puede seguir cualquier filtro, o todos los cambios sin filtro. Los demás deben filtrar, y solo por su
+    // propio id o por proyectos en los que participan
+    private void verificarFiltros(SesionDTO sesion, Integer idUsuario, Integer idProyecto) {
+        if (sesion.rol() == Rol.Lider) {
+            return;
+        }
+        if (idUsuario == null && idProyecto == null) {
+            throw new IllegalArgumentException("Indique idUsuario o idProyecto");
+        }
+        if (idUsuario != null && !idUsuario.equals(sesion.idUsuario())) {
+            throw new AccessDeniedException("Solo puede seguir sus propios cambios");
+        }
+        if (idProyecto != null && !proyectoService.esParticipante(idProyecto, sesion.idUsuario())) {
+            throw new AccessDeniedException("No participa en el proyecto " + idProyecto);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.metaphorce.TaskFlow.dto.GestionTiempoDTO;
+import com.metaphorce.TaskFlow.enums.FormatoExportacion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+// Exportación de registros de tiempo escrita conforme se leen del cursor: CSV o un formato columnar por bloques.
+// La memoria usada no depende del número de filas (a lo más un bloque columnar). Ambos formatos van ordenados por
+// idGestion, así que una descarga cortada se reanuda pidiendo cursor = último idGestion recibido completo.
+final class ExportacionGestionTiempo {
+
+    static final String COLUMNAR = "application/x-taskflow-columnar";
+
+    // Filas por bloque del formato columnar
+    static final int FILAS_POR_BLOQUE = 4096;
+
+    private static final byte[] MAGIA = {'T', 'F', 'C', '1'};
+    private static final String[] COLUMNAS = {"idGestion", "idTarea", "idUsuario", "fechaInicio", "fechaFin", "duracionSesion"};
+
+    private ExportacionGestionTiempo() {
+    }
+
+    // Con gzip la respuesta se comprime al vuelo; syncFlush hace que cada bloque vaciado llegue ya comprimido
+    static ResponseEntity<StreamingResponseBody> respuesta(FormatoExportacion formato, boolean gzip,
+            Consumer<Consumer<GestionTiempoDTO>> fuente) {
+        StreamingResponseBody body = out -> {
+            OutputStream destino = gzip ? new GZIPOutputStream(out, 8192, true) : out;
+            try (Escritor escritor = formato == FormatoExportacion.Csv ? new EscritorCsv(destino) : new EscritorColumnar(destino)) {
+                fuente.accept(registro -> {
+                    try {
+                        escritor.escribir(registro);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, formato == FormatoExportacion.Csv ? Paginacion.CSV : COLUMNAR)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"gestion-tiempo."
+                        + (formato == FormatoExportacion.Csv ? "csv" : "tfc") + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(body);
+    }
+
+    // Respeta los valores q de Accept-Encoding: "gzip;q=0" lo rechaza y "*" lo cubre si gzip no aparece por nombre
+    static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double comodin = null;
+        for (String elemento : acceptEncoding.split(",")) {
+            String[] partes = elemento.split(";");
+            String codificacion = partes[0].trim().toLowerCase(Locale.ROOT);
+            double q = calidad(partes);
+            if (codificacion.equals("gzip") || codificacion.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (codificacion.equals("*")) {
+                comodin = q;
+            }
+        }
+        Double efectivo = gzip != null ? gzip : comodin;
+        return efectivo != null && efectivo > 0;
+    }
+
+    // Sin parámetro q vale 1; un q mal formado cuenta como 0 (no aceptado)
+    private static double calidad(String[] partes) {
+        for (int i = 1; i < partes.length; i++) {
+            String parametro = partes[i].trim();
+            if (parametro.length() > 1 && Character.toLowerCase(parametro.charAt(0)) == 'q' && parametro.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parametro.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private interface Escritor extends AutoCloseable {
+        void escribir(GestionTiempoDTO registro) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    // Una línea por registro, fechas ISO y celdas vacías para null; ninguna columna necesita comillas
+    private static final class EscritorCsv implements Escritor {
+
+        private final BufferedWriter writer;
+
+        EscritorCsv(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(String.join(",", COLUMNAS));
+            writer.write('\n');
+        }
+
+        @Override
+        public void escribir(GestionTiempoDTO registro) throws IOException {
+            writer.write(celda(registro.idGestion()));
+            writer.write(',');
+            writer.write(celda(registro.idTarea()));
+            writer.write(',');
+            writer.write(celda(registro.idUsuario()));
+            writer.write(',');
+            writer.write(celda(registro.fechaInicio()));
+            writer.write(',');
+            writer.write(celda(registro.fechaFin()));
+            writer.write(',');
+            writer.write(celda(registro.duracionSesion()));
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        private static String celda(Object valor) {
+            return valor != null ? valor.toString() : "";
+        }
+    }
+
+    // Encabezado: "TFC1", número de columnas y sus nombres. Después bloques de hasta FILAS_POR_BLOQUE filas: el número
+    // de filas y cada columna completa, todo en varints. Cada bloque se decodifica solo:
+    // - idGestion: diferencia con el anterior del bloque (el primero, con 0)
+    // - idTarea, idUsuario: valor + 1 (0 = null)
+    // - fechaInicio: segundos de la hora local como si fuera UTC, zigzag de la diferencia con el anterior del bloque
+    // - fechaFin: zigzag de los segundos desde fechaInicio + 1 (0 = null)
+    // - duracionSesion: zigzag del valor + 1 (0 = null)
+    // Un bloque de 0 filas marca el final.
+    private static final class EscritorColumnar implements Escritor {
+
+        private final DataOutputStream out;
+        private final int[] idsGestion = new int[FILAS_POR_BLOQUE];
+        private final Integer[] idsTarea = new Integer[FILAS_POR_BLOQUE];
+        private final Integer[] idsUsuario = new Integer[FILAS_POR_BLOQUE];
+        private final long[] inicios = new long[FILAS_POR_BLOQUE];
+        private final LocalDateTime[] fines = new LocalDateTime[FILAS_POR_BLOQUE];
+        private final Integer[] duraciones = new Integer[FILAS_POR_BLOQUE];
+        private int filas;
+
+        EscritorColumnar(OutputStream destino) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(destino, 65536));
+            out.write(MAGIA);
+            varint(COLUMNAS.length);
+            for (String columna : COLUMNAS) {
+                out.writeUTF(columna);
+            }
+        }
+
+        @Override
+        public void escribir(GestionTiempoDTO registro) throws IOException {
+            idsGestion[filas] = registro.idGestion();
+            idsTarea[filas] = registro.idTarea();
+            idsUsuario[filas] = registro.idUsuario();
+            inicios[filas] = segundos(registro.fechaInicio());
+            fines[filas] = registro.fechaFin();
+            duraciones[filas] = registro.duracionSesion();
+            if (++filas == FILAS_POR_BLOQUE) {
+                vaciarBloque();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (filas > 0) {
+                vaciarBloque();
+            }
+            varint(0);
+            out.close();
+        }
+
+        private void vaciarBloque() throws IOException {
+            varint(filas);
+            long anterior = 0;
+            for (int i = 0; i < filas; i++) {
+                varint(idsGestion[i] - anterior);
+                anterior = idsGestion[i];
+            }
+            for (int i = 0; i < filas; i++) {
+                varint(idsTarea[i] != null ? idsTarea[i] + 1L : 0);
+            }
+            for (int i = 0; i < filas; i++) {
+                varint(idsUsuario[i] != null ? idsUsuario[i] + 1L : 0);
+            }
+            anterior = 0;
+            for (int i = 0; i < filas; i++) {
+                varint(zigzag(inicios[i] - anterior));
+                anterior = inicios[i];
+            }
+            for (int i = 0; i < filas; i++) {
+                varint(fines[i] != null ? zigzag(segundos(fines[i]) - inicios[i]) + 1 : 0);
+            }
+            for (int i = 0; i < filas; i++) {
+                varint(duraciones[i] != null ? zigzag(duraciones[i]) + 1 : 0);
+            }
+            // El bloque sale completo hacia el cliente (y hacia gzip) antes de leer el siguiente
+            out.flush();
+            filas = 0;
+        }
+
+        private void varint(long valor) throws IOException {
+            while ((valor & ~0x7FL) != 0) {
+                out.writeByte((int) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            out.writeByte((int) valor);
+        }
+
+        private static long zigzag(long valor) {
+            return (valor << 1) ^ (valor >> 63);
+        }
+
+        private static long segundos(LocalDateTime fecha) {
+            return fecha.toEpochSecond(ZoneOffset.UTC);
+        }
+    }
+}
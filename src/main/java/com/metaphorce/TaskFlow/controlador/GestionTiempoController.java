@@ -1,13 +1,28 @@
 package com.metaphorce.TaskFlow.controlador;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.dto.GestionTiempoDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoLoteDTO;
+import com.metaphorce.TaskFlow.enums.FormatoExportacion;
 import com.metaphorce.TaskFlow.modelo.GestionTiempo;
+import com.metaphorce.TaskFlow.service.AcumuladoTiempoService;
 import com.metaphorce.TaskFlow.service.GestionTiempoService;
+import com.metaphorce.TaskFlow.service.ProcesadorLotes;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -19,38 +34,96 @@ public class GestionTiempoController {
     @Autowired
     private GestionTiempoService gestionTiempoService;
 
-    // Obtener todos los registros de tiempo
+    @Autowired
+    private AcumuladoTiempoService acumuladoTiempoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Obtener todos los registros de tiempo, paginados por cursor
     @GetMapping
-    public ResponseEntity<List<GestionTiempo>> getAllGestionTiempo() {
-        List<GestionTiempo> registros = gestionTiempoService.getAllGestionTiempo();
-        return new ResponseEntity<>(registros, HttpStatus.OK);
+    public ResponseEntity<List<GestionTiempoDTO>> getAllGestionTiempo(
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size) {
+        int limite = Paginacion.limitar(size);
+        List<GestionTiempoDTO> registros = gestionTiempoService.getAllGestionTiempo(cursor, limite);
+        return Paginacion.pagina(registros, limite, GestionTiempoDTO::idGestion);
     }
 
-    // Obtener un registro de tiempo por su ID
+    // Obtener todos los registros de tiempo como NDJSON, sin cargarlos en memoria
+    @GetMapping(value = "/stream", produces = Paginacion.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllGestionTiempo() {
+        return Paginacion.ndjson(objectMapper, gestionTiempoService::streamAllGestionTiempo);
+    }
+
+    // Obtener un registro de tiempo por su ID; con If-None-Match vigente responde 304 leyendo solo la versión
     @GetMapping("/buscar/{id}")
-    public ResponseEntity<GestionTiempo> getGestionTiempoById(@PathVariable Integer id) {
-        Optional<GestionTiempo> registro = gestionTiempoService.getGestionTiempoById(id);
-        return registro.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
-                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public ResponseEntity<GestionTiempoDTO> getGestionTiempoById(@PathVariable Integer id, WebRequest request) {
+        return Condicional.porVersion(request, gestionTiempoService.getVersionGestionTiempo(id), () -> gestionTiempoService.getGestionTiempoById(id));
     }
 
     // Crear un nuevo registro de tiempo
     @PostMapping
-    public ResponseEntity<GestionTiempo> createGestionTiempo(@RequestBody GestionTiempo gestionTiempo) {
+    public ResponseEntity<GestionTiempoDTO> createGestionTiempo(@RequestBody GestionTiempo gestionTiempo) {
         GestionTiempo newRegistro = gestionTiempoService.createGestionTiempo(gestionTiempo);
-        return new ResponseEntity<>(newRegistro, HttpStatus.CREATED);
+        return new ResponseEntity<>(GestionTiempoDTO.from(newRegistro), HttpStatus.CREATED);
+    }
+
+    // Crear varios registros de tiempo en una sola petición (arreglo JSON de hasta ProcesadorLotes.MAX_ARREGLO elementos)
+    @PostMapping(value = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResultadoLoteDTO> createGestionesTiempo(@RequestBody List<GestionTiempo> registros) {
+        ResultadoLoteDTO resultado = gestionTiempoService.createGestionesTiempo(ProcesadorLotes.arreglo(registros));
+        return new ResponseEntity<>(resultado, HttpStatus.OK);
+    }
+
+    // Crear varios registros de tiempo leyendo el cuerpo NDJSON línea por línea, sin cargarlo completo en memoria; es el camino para cargas grandes
+    @PostMapping(value = "/lote", consumes = Paginacion.NDJSON)
+    public ResponseEntity<ResultadoLoteDTO> createGestionesTiempoNdjson(InputStream cuerpo) throws IOException {
+        try (MappingIterator<GestionTiempo> registros = objectMapper.readerFor(GestionTiempo.class).readValues(cuerpo)) {
+            ResultadoLoteDTO resultado = gestionTiempoService.createGestionesTiempo(registros);
+            return new ResponseEntity<>(resultado, HttpStatus.OK);
+        }
+    }
+
+    // Actualizar varios registros de tiempo en una sola petición (arreglo JSON de hasta ProcesadorLotes.MAX_ARREGLO elementos); cada elemento lleva su id y, opcionalmente, su versión
+    @PutMapping(value = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResultadoLoteDTO> updateGestionesTiempo(@RequestBody List<GestionTiempo> registros) {
+        ResultadoLoteDTO resultado = gestionTiempoService.updateGestionesTiempo(ProcesadorLotes.arreglo(registros));
+        return new ResponseEntity<>(resultado, HttpStatus.OK);
     }
 
-    // Actualizar un registro de tiempo existente
+    // Actualizar varios registros de tiempo leyendo el cuerpo NDJSON línea por línea; es el camino para cargas grandes
+    @PutMapping(value = "/lote", consumes = Paginacion.NDJSON)
+    public ResponseEntity<ResultadoLoteDTO> updateGestionesTiempoNdjson(InputStream cuerpo) throws IOException {
+        try (MappingIterator<GestionTiempo> registros = objectMapper.readerFor(GestionTiempo.class).readValues(cuerpo)) {
+            ResultadoLoteDTO resultado = gestionTiempoService.updateGestionesTiempo(registros);
+            return new ResponseEntity<>(resultado, HttpStatus.OK);
+        }
+    }
+
+    // Actualizar un registro de tiempo existente; con If-Match responde 412 si la versión ya cambió
     @PutMapping("/actualizar/{id}")
-    public ResponseEntity<GestionTiempo> updateGestionTiempo(@PathVariable Integer id, @RequestBody GestionTiempo gestionTiempo) {
+    public ResponseEntity<GestionTiempoDTO> updateGestionTiempo(@PathVariable Integer id, @RequestBody GestionTiempo gestionTiempo,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long esperada = Condicional.versionEsperada(ifMatch);
+        if (esperada != null) {
+            gestionTiempo.setVersion(esperada);
+        }
         GestionTiempo updatedRegistro = gestionTiempoService.updateGestionTiempo(id, gestionTiempo);
         if (updatedRegistro != null) {
-            return new ResponseEntity<>(updatedRegistro, HttpStatus.OK);
+            return ResponseEntity.ok().eTag(Condicional.etag(updatedRegistro.getVersion())).body(GestionTiempoDTO.from(updatedRegistro));
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    // Modificar solo los campos enviados (JSON Merge Patch, nombres del DTO) con un único UPDATE
+    @PatchMapping(value = "/actualizar/{id}", consumes = Condicional.MERGE_PATCH)
+    public ResponseEntity<Void> patchGestionTiempo(@PathVariable Integer id, @RequestBody ObjectNode parche,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long esperada = Condicional.versionEsperada(ifMatch);
+        return Condicional.parcial(gestionTiempoService.patchGestionTiempo(id, esperada, parche), esperada);
+    }
+
     // Eliminar un registro de tiempo por su ID
     @DeleteMapping("/eliminar/{id}")
     public ResponseEntity<Void> deleteGestionTiempo(@PathVariable Integer id) {
@@ -58,30 +131,88 @@ public class GestionTiempoController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    // Temporizador: abrir una sesión del usuario sobre una tarea; 409 con la sesión vigente si ya tiene una abierta
+    @PostMapping("/temporizador/{idUsuario}/iniciar/{idTarea}")
+    public ResponseEntity<GestionTiempoDTO> iniciarSesion(@PathVariable Integer idUsuario, @PathVariable Integer idTarea) {
+        Optional<GestionTiempoDTO> abierta = gestionTiempoService.iniciarSesion(idUsuario, idTarea);
+        if (abierta.isPresent()) {
+            return new ResponseEntity<>(abierta.get(), HttpStatus.CREATED);
+        }
+        return gestionTiempoService.getSesionAbierta(idUsuario)
+                .map(vigente -> new ResponseEntity<>(vigente, HttpStatus.CONFLICT))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.CONFLICT));
+    }
+
+    // Temporizador: cerrar la sesión abierta del usuario
+    @PostMapping("/temporizador/{idUsuario}/detener")
+    public ResponseEntity<GestionTiempoDTO> detenerSesion(@PathVariable Integer idUsuario) {
+        Optional<GestionTiempoDTO> cerrada = gestionTiempoService.detenerSesion(idUsuario);
+        if (cerrada.isPresent()) {
+            return new ResponseEntity<>(cerrada.get(), HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    // Temporizador: sesión abierta del usuario, leída del registro en memoria
+    @GetMapping("/temporizador/{idUsuario}")
+    public ResponseEntity<GestionTiempoDTO> getSesionAbierta(@PathVariable Integer idUsuario) {
+        Optional<GestionTiempoDTO> abierta = gestionTiempoService.getSesionAbierta(idUsuario);
+        if (abierta.isPresent()) {
+            return new ResponseEntity<>(abierta.get(), HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
     // Métodos personalizados
     // Obtener registros de tiempo en un determinado intervalo
     @GetMapping("/periodo")
-    public ResponseEntity<List<GestionTiempo>> getGestionTiempoByPeriodo(
+    public ResponseEntity<List<GestionTiempoDTO>> getGestionTiempoByPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size) {
+        int limite = Paginacion.limitar(size);
+        List<GestionTiempoDTO> registros = gestionTiempoService.getGestionTiempoByPeriodo(startDate, endDate, cursor, limite);
+        return Paginacion.pagina(registros, limite, GestionTiempoDTO::idGestion);
+    }
+
+    // Exportar los registros de tiempo de un intervalo como CSV o columnar, leídos con un cursor de la base de datos y
+    // comprimidos con gzip si el cliente lo acepta. Para reanudar una descarga cortada se envía cursor = último idGestion
+    @GetMapping("/periodo/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarGestionTiempoByPeriodo(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<GestionTiempo> registros = gestionTiempoService.getGestionTiempoByPeriodo(startDate, endDate);
-        return new ResponseEntity<>(registros, HttpStatus.OK);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "Csv") FormatoExportacion formato,
+            @RequestParam(required = false) Integer cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return ExportacionGestionTiempo.respuesta(formato, ExportacionGestionTiempo.aceptaGzip(acceptEncoding),
+                consumer -> gestionTiempoService.exportarGestionTiempoByPeriodo(startDate, endDate, cursor, consumer));
     }
 
     // Obtener todos los registros de tiempo de un usuario
     @GetMapping("/usuario/{idUsuario}")
-    public ResponseEntity<List<GestionTiempo>> getGestionTiempoByUsuario(@PathVariable Integer idUsuario) {
-        List<GestionTiempo> registros = gestionTiempoService.getGestionTiempoByUsuario(idUsuario);
-        return new ResponseEntity<>(registros, HttpStatus.OK);
+    public ResponseEntity<List<GestionTiempoDTO>> getGestionTiempoByUsuario(
+            @PathVariable Integer idUsuario,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size,
+            WebRequest request) {
+        int limite = Paginacion.limitar(size);
+        return Condicional.porFirma(request, gestionTiempoService.getFirmaGestionTiempoByUsuario(idUsuario), () -> {
+            List<GestionTiempoDTO> registros = gestionTiempoService.getGestionTiempoByUsuario(idUsuario, cursor, limite);
+            return Paginacion.pagina(registros, limite, GestionTiempoDTO::idGestion);
+        });
     }
 
     // Obtener todos los registros de tiempo de una tarea específica por un usuario
     @GetMapping("/usuario/{idUsuario}/tarea/{idTarea}")
-    public ResponseEntity<List<GestionTiempo>> getGestionTiempoByUsuarioAndTarea(
+    public ResponseEntity<List<GestionTiempoDTO>> getGestionTiempoByUsuarioAndTarea(
             @PathVariable Integer idUsuario,
-            @PathVariable Integer idTarea) {
-        List<GestionTiempo> registros = gestionTiempoService.getGestionTiempoByUsuarioAndTarea(idUsuario, idTarea);
-        return new ResponseEntity<>(registros, HttpStatus.OK);
+            @PathVariable Integer idTarea,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size) {
+        int limite = Paginacion.limitar(size);
+        List<GestionTiempoDTO> registros = gestionTiempoService.getGestionTiempoByUsuarioAndTarea(idUsuario, idTarea, cursor, limite);
+        return Paginacion.pagina(registros, limite, GestionTiempoDTO::idGestion);
     }
 
     // Obtener la duración total de una tarea por un usuario
@@ -95,4 +226,35 @@ public class GestionTiempoController {
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
+
+    // Obtener la duración total de un usuario en un día
+    @GetMapping("/duracion-total/usuario/{idUsuario}/dia/{dia}")
+    public ResponseEntity<Integer> getDuracionTotalUsuarioDia(
+            @PathVariable Integer idUsuario,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dia) {
+        Integer duracion = acumuladoTiempoService.getDuracionTotalUsuarioDia(idUsuario, dia);
+        if (duracion != null) {
+            return new ResponseEntity<>(duracion, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    // Obtener la duración total de un proyecto en un día
+    @GetMapping("/duracion-total/proyecto/{idProyecto}/dia/{dia}")
+    public ResponseEntity<Integer> getDuracionTotalProyectoDia(
+            @PathVariable Integer idProyecto,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dia) {
+        Integer duracion = acumuladoTiempoService.getDuracionTotalProyectoDia(idProyecto, dia);
+        if (duracion != null) {
+            return new ResponseEntity<>(duracion, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    // Recalcular desde cero los acumulados de tiempo
+    @PostMapping("/acumulados/reconstruir")
+    public ResponseEntity<Void> reconstruirAcumulados() {
+        acumuladoTiempoService.reconstruir();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
 }
@@ -0,0 +1,61 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.dto.ResultadoImportacionDTO;
+import com.metaphorce.TaskFlow.service.ImportacionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+// Importación de archivos CSV (con encabezado) o NDJSON leídos fila por fila; el cuerpo puede venir comprimido con
+// gzip (Content-Encoding). Las referencias van por clave natural: correo del usuario y título del proyecto o tarea.
+// Una fila mal formada se reporta como error de esa fila y la importación sigue.
+@RestController
+@RequestMapping("/TaskFlow/importar")
+public class ImportacionController {
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Columnas: correoLider, titulo, descripcion, fechaInicio, fechaFin
+    @PostMapping(value = "/proyectos", consumes = {Paginacion.CSV, Paginacion.NDJSON})
+    public ResponseEntity<ResultadoImportacionDTO> importarProyectos(@RequestHeader HttpHeaders headers, InputStream cuerpo) throws IOException {
+        return importar(headers, cuerpo, importacionService::importarProyectos);
+    }
+
+    // Columnas: tituloProyecto, correoCreador, correoAsignado, fechaCreacion, fechaTerminada, titulo, descripcion,
+    // prioridad, estatus
+    @PostMapping(value = "/tareas", consumes = {Paginacion.CSV, Paginacion.NDJSON})
+    public ResponseEntity<ResultadoImportacionDTO> importarTareas(@RequestHeader HttpHeaders headers, InputStream cuerpo) throws IOException {
+        return importar(headers, cuerpo, importacionService::importarTareas);
+    }
+
+    // Columnas: correoUsuario, tituloProyecto, tituloTarea, fechaInicio, fechaFin
+    @PostMapping(value = "/gestion-tiempo", consumes = {Paginacion.CSV, Paginacion.NDJSON})
+    public ResponseEntity<ResultadoImportacionDTO> importarGestionTiempo(@RequestHeader HttpHeaders headers, InputStream cuerpo) throws IOException {
+        return importar(headers, cuerpo, importacionService::importarGestionTiempo);
+    }
+
+    private ResponseEntity<ResultadoImportacionDTO> importar(HttpHeaders headers, InputStream cuerpo,
+            Function<Iterator<ObjectNode>, ResultadoImportacionDTO> importacion) throws IOException {
+        try (InputStream entrada = "gzip".equalsIgnoreCase(headers.getFirst(HttpHeaders.CONTENT_ENCODING)) ? new GZIPInputStream(cuerpo) : cuerpo) {
+            if (headers.getContentType() != null && headers.getContentType().isCompatibleWith(MediaType.parseMediaType(Paginacion.CSV))) {
+                return new ResponseEntity<>(importacion.apply(new LectorCsv(entrada)), HttpStatus.OK);
+            }
+            return new ResponseEntity<>(importacion.apply(new LectorNdjson(objectMapper, entrada)), HttpStatus.OK);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Lee un CSV (RFC 4180: comillas dobles, "" como escape, saltos de línea dentro de comillas) fila por fila y entrega
+// cada una como objeto JSON con los nombres del encabezado, igual que una línea NDJSON. Las celdas vacías se omiten.
+final class LectorCsv implements Iterator<ObjectNode> {
+
+    private final BufferedReader reader;
+    private final List<String> encabezado;
+    private List<String> siguiente;
+
+    LectorCsv(InputStream cuerpo) {
+        reader = new BufferedReader(new InputStreamReader(cuerpo, StandardCharsets.UTF_8));
+        List<String> primera = leerFila();
+        // Las hojas de cálculo suelen anteponer el BOM de UTF-8
+        if (primera != null && primera.get(0).startsWith("\uFEFF")) {
+            primera.set(0, primera.get(0).substring(1));
+        }
+        encabezado = primera != null ? primera : List.of();
+        siguiente = leerFila();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return siguiente != null;
+    }
+
+    @Override
+    public ObjectNode next() {
+        if (siguiente == null) {
+            throw new NoSuchElementException();
+        }
+        ObjectNode fila = JsonNodeFactory.instance.objectNode();
+        for (int i = 0; i < Math.min(encabezado.size(), siguiente.size()); i++) {
+            if (!siguiente.get(i).isEmpty()) {
+                fila.put(encabezado.get(i), siguiente.get(i));
+            }
+        }
+        siguiente = leerFila();
+        return fila;
+    }
+
+    // null al terminar el archivo; las líneas en blanco se saltan
+    private List<String> leerFila() {
+        try {
+            int c = reader.read();
+            while (c == '\r' || c == '\n') {
+                c = reader.read();
+            }
+            if (c == -1) {
+                return null;
+            }
+            List<String> celdas = new ArrayList<>();
+            StringBuilder celda = new StringBuilder();
+            boolean entreComillas = false;
+            while (c != -1) {
+                if (entreComillas) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            celda.append('"');
+                        } else {
+                            reader.reset();
+                            entreComillas = false;
+                        }
+                    } else {
+                        celda.append((char) c);
+                    }
+                } else if (c == '"') {
+                    entreComillas = true;
+                } else if (c == ',') {
+                    celdas.add(celda.toString());
+                    celda.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    break;
+                } else {
+                    celda.append((char) c);
+                }
+                c = reader.read();
+            }
+            celdas.add(celda.toString());
+            return celdas;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Lee un NDJSON línea por línea. Cada línea se analiza por separado, así que una mal formada no arrastra a las
+// siguientes: next() la reporta como UncheckedIOException con la JsonProcessingException como causa y la lectura
+// sigue en la línea siguiente. Las líneas en blanco se saltan.
+final class LectorNdjson implements Iterator<ObjectNode> {
+
+    private final ObjectMapper objectMapper;
+    private final BufferedReader reader;
+    private String siguiente;
+
+    LectorNdjson(ObjectMapper objectMapper, InputStream cuerpo) {
+        this.objectMapper = objectMapper;
+        reader = new BufferedReader(new InputStreamReader(cuerpo, StandardCharsets.UTF_8));
+        siguiente = leerLinea();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return siguiente != null;
+    }
+
+    @Override
+    public ObjectNode next() {
+        if (siguiente == null) {
+            throw new NoSuchElementException();
+        }
+        String linea = siguiente;
+        siguiente = leerLinea();
+        try {
+            return objectMapper.readValue(linea, ObjectNode.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // null al terminar el archivo
+    private String leerLinea() {
+        try {
+            String linea = reader.readLine();
+            while (linea != null && linea.isBlank()) {
+                linea = reader.readLine();
+            }
+            return linea;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.metaphorce.TaskFlow.service.SesionAbiertaException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestControllerAdvice
+public class ManejadorErrores {
+
+    // Un executor acotado (p. ej. el de BCrypt) rechazó el trabajo por estar lleno: el cliente puede reintentar
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> saturado() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
+
+    // Otro cliente actualizó la entidad antes: 412 si se pidió una versión con If-Match, 409 si la carrera fue entre dos PUT
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Void> versionVencida(WebRequest request) {
+        HttpStatus estado = request.getHeader(HttpHeaders.IF_MATCH) != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return new ResponseEntity<>(estado);
+    }
+
+    // Un alta o cambio por las rutas genéricas dejaría dos sesiones abiertas para el mismo usuario
+    @ExceptionHandler(SesionAbiertaException.class)
+    public ResponseEntity<String> sesionAbierta(SesionAbiertaException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    // Parche con campos desconocidos o valores que no corresponden al tipo del campo
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> solicitudInvalida(IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(CompletionException.class)
+    public ResponseEntity<Void> completado(CompletionException e) throws Throwable {
+        if (e.getCause() instanceof RejectedExecutionException) {
+            return saturado();
+        }
+        throw e.getCause();
+    }
+}
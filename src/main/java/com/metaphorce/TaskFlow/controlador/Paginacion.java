@@ -0,0 +1,66 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Utilidades compartidas por los listados paginados por cursor, el modo streaming NDJSON y las cargas y descargas CSV
+final class Paginacion {
+
+    static final String TAMANIO_DEFAULT = "50";
+    static final int TAMANIO_MAXIMO = 500;
+    static final String CURSOR_HEADER = "X-Next-Cursor";
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+
+    private Paginacion() {
+    }
+
+    static int limitar(int size) {
+        return Math.max(1, Math.min(size, TAMANIO_MAXIMO));
+    }
+
+    // Devuelve la página y, si puede haber más filas, el cursor para pedir la siguiente
+    static <T> ResponseEntity<List<T>> pagina(List<T> elementos, int size, Function<T, ?> cursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (elementos.size() == size) {
+            headers.set(CURSOR_HEADER, String.valueOf(cursor.apply(elementos.get(elementos.size() - 1))));
+        }
+        return new ResponseEntity<>(elementos, headers, HttpStatus.OK);
+    }
+
+    // Para resultados ordenados por relevancia el cursor es la posición desde la que empieza la siguiente página
+    static <T> ResponseEntity<List<T>> paginaPorPosicion(List<T> elementos, int size, int desde) {
+        HttpHeaders headers = new HttpHeaders();
+        if (elementos.size() == size) {
+            headers.set(CURSOR_HEADER, String.valueOf(desde + size));
+        }
+        return new ResponseEntity<>(elementos, headers, HttpStatus.OK);
+    }
+
+    // Escribe cada elemento como una línea JSON conforme se va leyendo de la base de datos
+    static <T> ResponseEntity<StreamingResponseBody> ndjson(ObjectMapper objectMapper, Consumer<Consumer<T>> fuente) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                fuente.accept(elemento -> {
+                    try {
+                        objectMapper.writeValue(generator, elemento);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().header(HttpHeaders.CONTENT_TYPE, NDJSON).body(body);
+    }
+}
@@ -1,13 +1,18 @@
 package com.metaphorce.TaskFlow.controlador;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.dto.ProyectoDTO;
+import com.metaphorce.TaskFlow.dto.ResumenProyectoDTO;
+import com.metaphorce.TaskFlow.dto.UsuarioDTO;
 import com.metaphorce.TaskFlow.modelo.Proyecto;
-import com.metaphorce.TaskFlow.modelo.Usuario;
 import com.metaphorce.TaskFlow.service.ProyectoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,36 +27,47 @@ public class ProyectoController {
 
     // Obtener todos los proyectos
     @GetMapping
-    public ResponseEntity<List<Proyecto>> getAllProyectos() {
-        List<Proyecto> proyectos = proyectoService.getAllProyectos();
+    public ResponseEntity<List<ProyectoDTO>> getAllProyectos() {
+        List<ProyectoDTO> proyectos = proyectoService.getAllProyectos();
         return new ResponseEntity<>(proyectos, HttpStatus.OK);
     }
 
-    // Obtener un proyecto por su ID
+    // Obtener un proyecto por su ID; con If-None-Match vigente responde 304 leyendo solo la versión
     @GetMapping("/{id}")
-    public ResponseEntity<Proyecto> getProyectoById(@PathVariable Integer id) {
-        Optional<Proyecto> proyecto = proyectoService.getProyectoById(id);
-        return proyecto.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
-                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public ResponseEntity<ProyectoDTO> getProyectoById(@PathVariable Integer id, WebRequest request) {
+        return Condicional.porVersion(request, proyectoService.getVersionProyecto(id), () -> proyectoService.getProyectoById(id));
     }
 
     // Crear un nuevo proyecto
     @PostMapping
-    public ResponseEntity<Proyecto> createProyecto(@RequestBody Proyecto proyecto) {
+    public ResponseEntity<ProyectoDTO> createProyecto(@RequestBody Proyecto proyecto) {
         Proyecto newProyecto = proyectoService.createProyecto(proyecto);
-        return new ResponseEntity<>(newProyecto, HttpStatus.CREATED);
+        return new ResponseEntity<>(ProyectoDTO.from(newProyecto), HttpStatus.CREATED);
     }
 
-    // Actualizar un proyecto existente
+    // Actualizar un proyecto existente; con If-Match responde 412 si la versión ya cambió
     @PutMapping("/actualizar/{id}")
-    public ResponseEntity<Proyecto> updateProyecto(@PathVariable Integer id, @RequestBody Proyecto proyecto) {
+    public ResponseEntity<ProyectoDTO> updateProyecto(@PathVariable Integer id, @RequestBody Proyecto proyecto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long esperada = Condicional.versionEsperada(ifMatch);
+        if (esperada != null) {
+            proyecto.setVersion(esperada);
+        }
         Proyecto updatedProyecto = proyectoService.updateProyecto(id, proyecto);
         if (updatedProyecto != null) {
-            return new ResponseEntity<>(updatedProyecto, HttpStatus.OK);
+            return ResponseEntity.ok().eTag(Condicional.etag(updatedProyecto.getVersion())).body(ProyectoDTO.from(updatedProyecto));
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    // Modificar solo los campos enviados (JSON Merge Patch, nombres del DTO) con un único UPDATE
+    @PatchMapping(value = "/actualizar/{id}", consumes = Condicional.MERGE_PATCH)
+    public ResponseEntity<Void> patchProyecto(@PathVariable Integer id, @RequestBody ObjectNode parche,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long esperada = Condicional.versionEsperada(ifMatch);
+        return Condicional.parcial(proyectoService.patchProyecto(id, esperada, parche), esperada);
+    }
+
     // Eliminar un proyecto por su ID
     @DeleteMapping("/eliminar/{id}")
     public ResponseEntity<Void> deleteProyecto(@PathVariable Integer id) {
@@ -62,40 +78,54 @@ public class ProyectoController {
     // Métodos personalizados
     // Obtener un proyecto por su título
     @GetMapping("/titulo/{titulo}")
-    public ResponseEntity<Proyecto> getProyectoByTitulo(@PathVariable String titulo) {
-        Optional<Proyecto> proyecto = proyectoService.getProyectoByTitulo(titulo);
+    public ResponseEntity<ProyectoDTO> getProyectoByTitulo(@PathVariable String titulo) {
+        Optional<ProyectoDTO> proyecto = proyectoService.getProyectoByTitulo(titulo);
         return proyecto.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     // Obtener proyectos por la fecha de creación
     @GetMapping("/fecha-inicio/{fechaInicio}")
-    public ResponseEntity<List<Proyecto>> getProyectosByFechaInicio(
+    public ResponseEntity<List<ProyectoDTO>> getProyectosByFechaInicio(
             @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio) {
-        List<Proyecto> proyectos = proyectoService.getProyectosByFechaInicio(fechaInicio);
+        List<ProyectoDTO> proyectos = proyectoService.getProyectosByFechaInicio(fechaInicio);
         return new ResponseEntity<>(proyectos, HttpStatus.OK);
     }
 
     // Obtener proyectos asignados a un líder específico
     @GetMapping("/lider/{idLider}")
-    public ResponseEntity<List<Proyecto>> getProyectosByLiderId(@PathVariable Integer idLider) {
-        List<Proyecto> proyectos = proyectoService.getProyectosByLiderId(idLider);
+    public ResponseEntity<List<ProyectoDTO>> getProyectosByLiderId(@PathVariable Integer idLider) {
+        List<ProyectoDTO> proyectos = proyectoService.getProyectosByLiderId(idLider);
         return new ResponseEntity<>(proyectos, HttpStatus.OK);
     }
 
     // Obtener proyectos creados en un cierto periodo de tiempo
     @GetMapping("/periodo")
-    public ResponseEntity<List<Proyecto>> getProyectosByPeriodo(
+    public ResponseEntity<List<ProyectoDTO>> getProyectosByPeriodo(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<Proyecto> proyectos = proyectoService.getProyectosByPeriodo(startDate, endDate);
+        List<ProyectoDTO> proyectos = proyectoService.getProyectosByPeriodo(startDate, endDate);
         return new ResponseEntity<>(proyectos, HttpStatus.OK);
     }
 
     // Obtener todos los usuarios asignados a un proyecto
     @GetMapping("/{idProyecto}/usuarios")
-    public ResponseEntity<List<Usuario>> getUsuariosAsignadosByProyectoId(@PathVariable Integer idProyecto) {
-        List<Usuario> usuarios = proyectoService.getUsuariosAsignadosByProyectoId(idProyecto);
+    public ResponseEntity<List<UsuarioDTO>> getUsuariosAsignadosByProyectoId(@PathVariable Integer idProyecto) {
+        List<UsuarioDTO> usuarios = proyectoService.getUsuariosAsignadosByProyectoId(idProyecto);
         return new ResponseEntity<>(usuarios, HttpStatus.OK);
     }
+
+    // Resumen de un proyecto: conteos de tareas, retrasadas, minutos registrados y miembros
+    @GetMapping("/{id}/resumen")
+    public ResponseEntity<ResumenProyectoDTO> getResumenProyecto(@PathVariable Integer id) {
+        return proyectoService.getResumenProyecto(id)
+                .map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // Resúmenes de varios proyectos (ids=1,2,3) calculados juntos; los ids que no existen se omiten
+    @GetMapping("/resumen")
+    public ResponseEntity<List<ResumenProyectoDTO>> getResumenesProyecto(@RequestParam List<Integer> ids) {
+        return new ResponseEntity<>(proyectoService.getResumenesProyecto(ids), HttpStatus.OK);
+    }
 }
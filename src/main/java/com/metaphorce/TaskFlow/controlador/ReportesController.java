@@ -0,0 +1,34 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.metaphorce.TaskFlow.dto.TotalPeriodoDTO;
+import com.metaphorce.TaskFlow.enums.AgrupacionReporte;
+import com.metaphorce.TaskFlow.enums.Periodo;
+import com.metaphorce.TaskFlow.service.ReportesTiempoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/TaskFlow/reportes")
+public class ReportesController {
+
+    @Autowired
+    private ReportesTiempoService reportesTiempoService;
+
+    // Minutos y sesiones por usuario, tarea o proyecto en cada día, semana o mes del rango; id filtra a uno solo
+    @GetMapping("/tiempo")
+    public ResponseEntity<List<TotalPeriodoDTO>> getTotalesTiempo(
+            @RequestParam AgrupacionReporte agrupacion,
+            @RequestParam(defaultValue = "Dia") Periodo periodo,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) Integer id) {
+        List<TotalPeriodoDTO> totales = reportesTiempoService.getTotales(agrupacion, periodo, desde, hasta, id);
+        return new ResponseEntity<>(totales, HttpStatus.OK);
+    }
+}
@@ -1,15 +1,34 @@
 package com.metaphorce.TaskFlow.controlador;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.dto.CursorTareaDTO;
+import com.metaphorce.TaskFlow.dto.FiltroTareasDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoLoteDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoTransicionDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.dto.TareaDetalleDTO;
 import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.ExpansionTarea;
+import com.metaphorce.TaskFlow.enums.OrdenTarea;
 import com.metaphorce.TaskFlow.enums.Prioridad;
 import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.service.ProcesadorLotes;
 import com.metaphorce.TaskFlow.service.TareasService;
+import com.metaphorce.TaskFlow.service.TransicionEstatusService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -21,38 +40,124 @@ public class TareasController {
     @Autowired
     private TareasService tareasService;
 
-    // Obtener todas las tareas
+    @Autowired
+    private TransicionEstatusService transicionEstatusService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Obtener todas las tareas, paginadas por cursor
     @GetMapping
-    public ResponseEntity<List<Tareas>> getAllTareas() {
-        List<Tareas> tareas = tareasService.getAllTareas();
-        return new ResponseEntity<>(tareas, HttpStatus.OK);
+    public ResponseEntity<List<TareaDTO>> getAllTareas(
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size) {
+        int limite = Paginacion.limitar(size);
+        List<TareaDTO> tareas = tareasService.getAllTareas(cursor, limite);
+        return Paginacion.pagina(tareas, limite, TareaDTO::idTarea);
+    }
+
+    // Obtener todas las tareas como NDJSON, sin cargarlas en memoria
+    @GetMapping(value = "/stream", produces = Paginacion.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllTareas() {
+        return Paginacion.ndjson(objectMapper, tareasService::streamAllTareas);
+    }
+
+    // Buscar tareas combinando cualquier criterio (estatus, prioridad, proyecto, asignado, creador, rangos de fechas)
+    // en una sola consulta, ordenada y paginada por cursor (el id, o "fecha|id" cuando se ordena por fecha)
+    @GetMapping("/buscar")
+    public ResponseEntity<List<TareaDTO>> buscarTareas(
+            @ModelAttribute FiltroTareasDTO filtro,
+            @RequestParam(defaultValue = "Id") OrdenTarea orden,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size) {
+        int limite = Paginacion.limitar(size);
+        List<TareaDTO> tareas = tareasService.buscarTareas(filtro, orden, CursorTareaDTO.leer(cursor, orden), limite);
+        return Paginacion.pagina(tareas, limite, tarea -> CursorTareaDTO.de(tarea, orden).token());
     }
 
-    // Obtener una tarea por su ID
+    // Obtener una tarea por su ID; con If-None-Match vigente responde 304 leyendo solo la versión
     @GetMapping("/{id}")
-    public ResponseEntity<Tareas> getTareaById(@PathVariable Integer id) {
-        Optional<Tareas> tarea = tareasService.getTareaById(id);
-        return tarea.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
-                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public ResponseEntity<TareaDTO> getTareaById(@PathVariable Integer id, WebRequest request) {
+        return Condicional.porVersion(request, tareasService.getVersionTarea(id), () -> tareasService.getTareaById(id));
     }
 
     // Crear una nueva tarea
     @PostMapping
-    public ResponseEntity<Tareas> createTarea(@RequestBody Tareas tarea) {
+    public ResponseEntity<TareaDTO> createTarea(@RequestBody Tareas tarea) {
         Tareas newTarea = tareasService.createTarea(tarea);
-        return new ResponseEntity<>(newTarea, HttpStatus.CREATED);
+        return new ResponseEntity<>(TareaDTO.from(newTarea), HttpStatus.CREATED);
+    }
+
+    // Crear varias tareas en una sola petición (arreglo JSON de hasta ProcesadorLotes.MAX_ARREGLO elementos)
+    @PostMapping(value = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResultadoLoteDTO> createTareas(@RequestBody List<Tareas> tareas) {
+        ResultadoLoteDTO resultado = tareasService.createTareas(ProcesadorLotes.arreglo(tareas));
+        return new ResponseEntity<>(resultado, HttpStatus.OK);
+    }
+
+    // Crear varias tareas leyendo el cuerpo NDJSON línea por línea, sin cargarlo completo en memoria; es el camino para cargas grandes
+    @PostMapping(value = "/lote", consumes = Paginacion.NDJSON)
+    public ResponseEntity<ResultadoLoteDTO> createTareasNdjson(InputStream cuerpo) throws IOException {
+        try (MappingIterator<Tareas> tareas = objectMapper.readerFor(Tareas.class).readValues(cuerpo)) {
+            ResultadoLoteDTO resultado = tareasService.createTareas(tareas);
+            return new ResponseEntity<>(resultado, HttpStatus.OK);
+        }
+    }
+
+    // Actualizar varias tareas en una sola petición (arreglo JSON de hasta ProcesadorLotes.MAX_ARREGLO elementos); cada elemento lleva su id y, opcionalmente, su versión
+    @PutMapping(value = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResultadoLoteDTO> updateTareas(@RequestBody List<Tareas> tareas) {
+        ResultadoLoteDTO resultado = tareasService.updateTareas(ProcesadorLotes.arreglo(tareas));
+        return new ResponseEntity<>(resultado, HttpStatus.OK);
     }
 
-    // Actualizar una tarea existente
+    // Actualizar varias tareas leyendo el cuerpo NDJSON línea por línea; es el camino para cargas grandes
+    @PutMapping(value = "/lote", consumes = Paginacion.NDJSON)
+    public ResponseEntity<ResultadoLoteDTO> updateTareasNdjson(InputStream cuerpo) throws IOException {
+        try (MappingIterator<Tareas> tareas = objectMapper.readerFor(Tareas.class).readValues(cuerpo)) {
+            ResultadoLoteDTO resultado = tareasService.updateTareas(tareas);
+            return new ResponseEntity<>(resultado, HttpStatus.OK);
+        }
+    }
+
+    // Actualizar una tarea existente; con If-Match responde 412 si la versión ya cambió
     @PutMapping("/actualizar/{id}")
-    public ResponseEntity<Tareas> updateTarea(@PathVariable Integer id, @RequestBody Tareas tarea) {
+    public ResponseEntity<TareaDTO> updateTarea(@PathVariable Integer id, @RequestBody Tareas tarea,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long esperada = Condicional.versionEsperada(ifMatch);
+        if (esperada != null) {
+            tarea.setVersion(esperada);
+        }
         Tareas updatedTarea = tareasService.updateTarea(id, tarea);
         if (updatedTarea != null) {
-            return new ResponseEntity<>(updatedTarea, HttpStatus.OK);
+            return ResponseEntity.ok().eTag(Condicional.etag(updatedTarea.getVersion())).body(TareaDTO.from(updatedTarea));
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    // Modificar solo los campos enviados (JSON Merge Patch, nombres del DTO) con un único UPDATE
+    @PatchMapping(value = "/actualizar/{id}", consumes = Condicional.MERGE_PATCH)
+    public ResponseEntity<Void> patchTarea(@PathVariable Integer id, @RequestBody ObjectNode parche,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long esperada = Condicional.versionEsperada(ifMatch);
+        return Condicional.parcial(tareasService.patchTarea(id, esperada, parche), esperada);
+    }
+
+    // Cambiar solo el estatus; Hecha fija fechaTerminada
+    @PatchMapping("/actualizar/{id}/estatus/{estatus}")
+    public ResponseEntity<Void> cambiarEstatus(@PathVariable Integer id, @PathVariable Estatus estatus,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long esperada = Condicional.versionEsperada(ifMatch);
+        return Condicional.parcial(tareasService.cambiarEstatus(id, estatus, esperada), esperada);
+    }
+
+    // Cambiar el estatus de muchas tareas a la vez (arreglo JSON de ids), con UPDATE masivos por bloques
+    @PatchMapping(value = "/estatus/{estatus}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResultadoTransicionDTO> transicionarEstatus(@PathVariable Estatus estatus, @RequestBody List<Integer> ids) {
+        ResultadoTransicionDTO resultado = transicionEstatusService.transicionar(ids, estatus);
+        return new ResponseEntity<>(resultado, HttpStatus.OK);
+    }
+
     // Eliminar una tarea por su ID
     @DeleteMapping("/elimniar/{id}")
     public ResponseEntity<Void> deleteTarea(@PathVariable Integer id) {
@@ -63,44 +168,97 @@ public class TareasController {
     // Métodos personalizados
     // Obtener tareas por el creador
     @GetMapping("/creador/{idUsuario}")
-    public ResponseEntity<List<Tareas>> getTareasByCreador(@PathVariable Integer idUsuario) {
-        List<Tareas> tareas = tareasService.getTareasByCreador(idUsuario);
-        return new ResponseEntity<>(tareas, HttpStatus.OK);
+    public ResponseEntity<List<TareaDTO>> getTareasByCreador(
+            @PathVariable Integer idUsuario,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size) {
+        int limite = Paginacion.limitar(size);
+        List<TareaDTO> tareas = tareasService.getTareasByCreador(idUsuario, cursor, limite);
+        return Paginacion.pagina(tareas, limite, TareaDTO::idTarea);
     }
 
-    // Obtener tareas por el usuario asignado
+    // Obtener tareas por el usuario asignado; con If-None-Match vigente responde 304 sin leer la página
     @GetMapping("/asignado/{idUsuario}")
-    public ResponseEntity<List<Tareas>> getTareasByUsuarioAsignado(@PathVariable Integer idUsuario) {
-        List<Tareas> tareas = tareasService.getTareasByUsuarioAsignado(idUsuario);
-        return new ResponseEntity<>(tareas, HttpStatus.OK);
+    public ResponseEntity<List<TareaDTO>> getTareasByUsuarioAsignado(
+            @PathVariable Integer idUsuario,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size,
+            WebRequest request) {
+        int limite = Paginacion.limitar(size);
+        return Condicional.porFirma(request, tareasService.getFirmaTareasByUsuarioAsignado(idUsuario), () -> {
+            List<TareaDTO> tareas = tareasService.getTareasByUsuarioAsignado(idUsuario, cursor, limite);
+            return Paginacion.pagina(tareas, limite, TareaDTO::idTarea);
+        });
     }
 
-    // Obtener tareas por el proyecto al que están asignadas
+    // Obtener tareas por el usuario asignado con sus relaciones (expand=Proyecto|Usuarios|Completa)
+    @GetMapping(value = "/asignado/{idUsuario}", params = "expand")
+    public ResponseEntity<List<TareaDetalleDTO>> getTareasByUsuarioAsignadoExpandidas(
+            @PathVariable Integer idUsuario,
+            @RequestParam ExpansionTarea expand,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size) {
+        int limite = Paginacion.limitar(size);
+        List<TareaDetalleDTO> tareas = tareasService.getTareasByUsuarioAsignado(idUsuario, expand, cursor, limite);
+        return Paginacion.pagina(tareas, limite, TareaDetalleDTO::idTarea);
+    }
+
+    // Obtener tareas por el proyecto al que están asignadas; con If-None-Match vigente responde 304 sin leer la página
     @GetMapping("/proyecto/{idProyecto}")
-    public ResponseEntity<List<Tareas>> getTareasByProyecto(@PathVariable Integer idProyecto) {
-        List<Tareas> tareas = tareasService.getTareasByProyecto(idProyecto);
-        return new ResponseEntity<>(tareas, HttpStatus.OK);
+    public ResponseEntity<List<TareaDTO>> getTareasByProyecto(
+            @PathVariable Integer idProyecto,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size,
+            WebRequest request) {
+        int limite = Paginacion.limitar(size);
+        return Condicional.porFirma(request, tareasService.getFirmaTareasByProyecto(idProyecto), () -> {
+            List<TareaDTO> tareas = tareasService.getTareasByProyecto(idProyecto, cursor, limite);
+            return Paginacion.pagina(tareas, limite, TareaDTO::idTarea);
+        });
+    }
+
+    // Obtener tareas de un proyecto con sus relaciones (expand=Proyecto|Usuarios|Completa)
+    @GetMapping(value = "/proyecto/{idProyecto}", params = "expand")
+    public ResponseEntity<List<TareaDetalleDTO>> getTareasByProyectoExpandidas(
+            @PathVariable Integer idProyecto,
+            @RequestParam ExpansionTarea expand,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size) {
+        int limite = Paginacion.limitar(size);
+        List<TareaDetalleDTO> tareas = tareasService.getTareasByProyecto(idProyecto, expand, cursor, limite);
+        return Paginacion.pagina(tareas, limite, TareaDetalleDTO::idTarea);
     }
 
     // Obtener tareas por su fecha de creación
     @GetMapping("/fecha-creacion/{fechaCreacion}")
-    public ResponseEntity<List<Tareas>> getTareasByFechaCreacion(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaCreacion) {
-        List<Tareas> tareas = tareasService.getTareasByFechaCreacion(fechaCreacion);
-        return new ResponseEntity<>(tareas, HttpStatus.OK);
+    public ResponseEntity<List<TareaDTO>> getTareasByFechaCreacion(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaCreacion,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size) {
+        int limite = Paginacion.limitar(size);
+        List<TareaDTO> tareas = tareasService.getTareasByFechaCreacion(fechaCreacion, cursor, limite);
+        return Paginacion.pagina(tareas, limite, TareaDTO::idTarea);
     }
 
     // Obtener tareas por su prioridad
     @GetMapping("/prioridad/{prioridad}")
-    public ResponseEntity<List<Tareas>> getTareasByPrioridad(@PathVariable Prioridad prioridad) {
-        List<Tareas> tareas = tareasService.getTareasByPrioridad(prioridad);
-        return new ResponseEntity<>(tareas, HttpStatus.OK);
+    public ResponseEntity<List<TareaDTO>> getTareasByPrioridad(
+            @PathVariable Prioridad prioridad,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size) {
+        int limite = Paginacion.limitar(size);
+        List<TareaDTO> tareas = tareasService.getTareasByPrioridad(prioridad, cursor, limite);
+        return Paginacion.pagina(tareas, limite, TareaDTO::idTarea);
     }
 
     // Obtener tareas por su estatus
     @GetMapping("/estatus/{estatus}")
-    public ResponseEntity<List<Tareas>> getTareasByEstatus(@PathVariable Estatus estatus) {
-        List<Tareas> tareas = tareasService.getTareasByEstatus(estatus);
-        return new ResponseEntity<>(tareas, HttpStatus.OK);
+    public ResponseEntity<List<TareaDTO>> getTareasByEstatus(
+            @PathVariable Estatus estatus,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = Paginacion.TAMANIO_DEFAULT) int size) {
+        int limite = Paginacion.limitar(size);
+        List<TareaDTO> tareas = tareasService.getTareasByEstatus(estatus, cursor, limite);
+        return Paginacion.pagina(tareas, limite, TareaDTO::idTarea);
     }
 }
@@ -1,12 +1,16 @@
 package com.metaphorce.TaskFlow.controlador;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.dto.UsuarioDTO;
 import com.metaphorce.TaskFlow.enums.Rol;
 import com.metaphorce.TaskFlow.modelo.Usuario;
 import com.metaphorce.TaskFlow.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,36 +24,47 @@ public class UsuarioController {
 
     // Obtener todos los usuarios
     @GetMapping
-    public ResponseEntity<List<Usuario>> getAllUsuarios() {
-        List<Usuario> usuarios = usuarioService.getAllUsuarios();
+    public ResponseEntity<List<UsuarioDTO>> getAllUsuarios() {
+        List<UsuarioDTO> usuarios = usuarioService.getAllUsuarios();
         return new ResponseEntity<>(usuarios, HttpStatus.OK);
     }
 
-    // Obtener un usuario por su ID
+    // Obtener un usuario por su ID; con If-None-Match vigente responde 304 leyendo solo la versión
     @GetMapping("/{id}")
-    public ResponseEntity<Usuario> getUsuarioById(@PathVariable Integer id) {
-        Optional<Usuario> usuario = usuarioService.getUsuarioById(id);
-        return usuario.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
-                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public ResponseEntity<UsuarioDTO> getUsuarioById(@PathVariable Integer id, WebRequest request) {
+        return Condicional.porVersion(request, usuarioService.getVersionUsuario(id), () -> usuarioService.getUsuarioById(id));
     }
 
     // Crear un nuevo usuario
     @PostMapping
-    public ResponseEntity<Usuario> createUsuario(@RequestBody Usuario usuario) {
+    public ResponseEntity<UsuarioDTO> createUsuario(@RequestBody Usuario usuario) {
         Usuario newUsuario = usuarioService.createUsuario(usuario);
-        return new ResponseEntity<>(newUsuario, HttpStatus.CREATED);
+        return new ResponseEntity<>(UsuarioDTO.from(newUsuario), HttpStatus.CREATED);
     }
 
-    // Actualizar un usuario existente
+    // Actualizar un usuario existente; con If-Match responde 412 si la versión ya cambió
     @PutMapping("/actualizar/{id}")
-    public ResponseEntity<Usuario> updateUsuario(@PathVariable Integer id, @RequestBody Usuario usuario) {
+    public ResponseEntity<UsuarioDTO> updateUsuario(@PathVariable Integer id, @RequestBody Usuario usuario,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long esperada = Condicional.versionEsperada(ifMatch);
+        if (esperada != null) {
+            usuario.setVersion(esperada);
+        }
         Usuario updatedUsuario = usuarioService.updateUsuario(id, usuario);
         if (updatedUsuario != null) {
-            return new ResponseEntity<>(updatedUsuario, HttpStatus.OK);
+            return ResponseEntity.ok().eTag(Condicional.etag(updatedUsuario.getVersion())).body(UsuarioDTO.from(updatedUsuario));
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    // Modificar solo los campos enviados (JSON Merge Patch, nombres del DTO) con un único UPDATE
+    @PatchMapping(value = "/actualizar/{id}", consumes = Condicional.MERGE_PATCH)
+    public ResponseEntity<Void> patchUsuario(@PathVariable Integer id, @RequestBody ObjectNode parche,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long esperada = Condicional.versionEsperada(ifMatch);
+        return Condicional.parcial(usuarioService.patchUsuario(id, esperada, parche), esperada);
+    }
+
     // Eliminar un usuario por su ID
     @DeleteMapping("/eliminar/{id}")
     public ResponseEntity<Void> deleteUsuario(@PathVariable Integer id) {
@@ -60,23 +75,23 @@ public class UsuarioController {
     // Métodos personalizados
     // Obtener un usuario por su correo
     @GetMapping("/correo/{correo}")
-    public ResponseEntity<Usuario> getUsuarioByCorreo(@PathVariable String correo) {
-        Optional<Usuario> usuario = usuarioService.getUsuarioByCorreo(correo);
+    public ResponseEntity<UsuarioDTO> getUsuarioByCorreo(@PathVariable String correo) {
+        Optional<UsuarioDTO> usuario = usuarioService.getUsuarioByCorreo(correo);
         return usuario.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     // Obtener usuarios por su rol
     @GetMapping("/rol/{rol}")
-    public ResponseEntity<List<Usuario>> getUsuariosByRol(@PathVariable Rol rol) {
-        List<Usuario> usuarios = usuarioService.getUsuariosByRol(rol);
+    public ResponseEntity<List<UsuarioDTO>> getUsuariosByRol(@PathVariable Rol rol) {
+        List<UsuarioDTO> usuarios = usuarioService.getUsuariosByRol(rol);
         return new ResponseEntity<>(usuarios, HttpStatus.OK);
     }
 
     // Obtener un usuario por su nombre
     @GetMapping("/nombre/{nombre}")
-    public ResponseEntity<Usuario> getUsuarioByNombre(@PathVariable String nombre) {
-        Optional<Usuario> usuario = usuarioService.getUsuarioByNombre(nombre);
+    public ResponseEntity<UsuarioDTO> getUsuarioByNombre(@PathVariable String nombre) {
+        Optional<UsuarioDTO> usuario = usuarioService.getUsuarioByNombre(nombre);
         return usuario.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
@@ -0,0 +1,7 @@
+package com.metaphorce.TaskFlow.dto;
+
+// Id de una entidad junto a su clave natural (correo o título), para resolver referencias de una importación
+public record ClaveIdDTO(
+        String clave,
+        Integer id) {
+}
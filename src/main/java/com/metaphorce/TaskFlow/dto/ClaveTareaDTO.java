@@ -0,0 +1,8 @@
+package com.metaphorce.TaskFlow.dto;
+
+// Id de una tarea junto a su proyecto y título, para resolver referencias de una importación
+public record ClaveTareaDTO(
+        Integer idProyecto,
+        String titulo,
+        Integer idTarea) {
+}
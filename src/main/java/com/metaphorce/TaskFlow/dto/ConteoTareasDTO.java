@@ -0,0 +1,16 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+
+import java.time.LocalDateTime;
+
+// Fila del conteo agrupado para los resúmenes: tareas de un proyecto con cierto estatus y prioridad. Un proyecto sin
+// tareas llega en una sola fila con estatus y prioridad null y tareas = 0.
+public record ConteoTareasDTO(
+        Integer idProyecto,
+        LocalDateTime fechaFin,
+        Estatus estatus,
+        Prioridad prioridad,
+        Long tareas) {
+}
@@ -0,0 +1,6 @@
+package com.metaphorce.TaskFlow.dto;
+
+public record CredencialesDTO(
+        String correo,
+        String contrasenia) {
+}
@@ -0,0 +1,43 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.OrdenTarea;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+// Posición de la última tarea recibida en la búsqueda. Con orden por id el token es solo el id; con orden por fecha
+// es "fecha|id", así la página siguiente no depende de que esa tarea siga existiendo
+public record CursorTareaDTO(
+        LocalDateTime fechaCreacion,
+        Integer idTarea) {
+
+    private static final char SEPARADOR = '|';
+
+    public static CursorTareaDTO de(TareaDTO tarea, OrdenTarea orden) {
+        return new CursorTareaDTO(orden == OrdenTarea.Id ? null : tarea.fechaCreacion(), tarea.idTarea());
+    }
+
+    // null si no hay token; IllegalArgumentException si no corresponde al orden pedido
+    public static CursorTareaDTO leer(String token, OrdenTarea orden) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        int separador = token.lastIndexOf(SEPARADOR);
+        if ((orden == OrdenTarea.Id) != (separador < 0)) {
+            throw new IllegalArgumentException("Cursor no válido para el orden " + orden + ": " + token);
+        }
+        try {
+            if (separador < 0) {
+                return new CursorTareaDTO(null, Integer.valueOf(token));
+            }
+            return new CursorTareaDTO(LocalDateTime.parse(token.substring(0, separador)),
+                    Integer.valueOf(token.substring(separador + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor no válido: " + token, e);
+        }
+    }
+
+    public String token() {
+        return fechaCreacion == null ? String.valueOf(idTarea) : fechaCreacion.toString() + SEPARADOR + idTarea;
+    }
+}
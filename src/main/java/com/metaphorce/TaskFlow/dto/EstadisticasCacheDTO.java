@@ -0,0 +1,10 @@
+package com.metaphorce.TaskFlow.dto;
+
+public record EstadisticasCacheDTO(
+        String nombre,
+        long tamanio,
+        long aciertos,
+        long fallos,
+        long expulsiones,
+        double tasaAciertos) {
+}
@@ -0,0 +1,9 @@
+package com.metaphorce.TaskFlow.dto;
+
+public record EstadisticasRegionDTO(
+        String region,
+        long aciertos,
+        long fallos,
+        long escrituras,
+        double tasaAciertos) {
+}
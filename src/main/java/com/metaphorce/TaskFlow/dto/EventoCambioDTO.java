@@ -0,0 +1,13 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.RecursoCambio;
+import com.metaphorce.TaskFlow.enums.TipoCambio;
+
+// Cambio publicado en el feed; datos es el TareaDTO o GestionTiempoDTO resultante (el último conocido si se eliminó)
+public record EventoCambioDTO(
+        long secuencia,
+        TipoCambio tipo,
+        RecursoCambio recurso,
+        Integer id,
+        Object datos) {
+}
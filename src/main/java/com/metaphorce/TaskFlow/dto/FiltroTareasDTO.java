@@ -0,0 +1,21 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Criterios de búsqueda de tareas; los que vienen en null no filtran y las listas se combinan con OR
+public record FiltroTareasDTO(
+        List<Estatus> estatus,
+        List<Prioridad> prioridad,
+        Integer idProyecto,
+        Integer idAsignado,
+        Integer idCreador,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime creadaDesde,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime creadaHasta,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime terminadaDesde,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime terminadaHasta) {
+}
@@ -0,0 +1,9 @@
+package com.metaphorce.TaskFlow.dto;
+
+// Resumen barato de una colección para su ETag: cambia si se agrega o elimina una fila (filas, sumaIds)
+// o si alguna se actualiza (sumaVersiones crece con cada @Version)
+public record FirmaColeccionDTO(
+        Long filas,
+        Long sumaIds,
+        Long sumaVersiones) {
+}
@@ -0,0 +1,25 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.modelo.GestionTiempo;
+
+import java.time.LocalDateTime;
+
+// Vista de lectura de un registro de tiempo; tarea y usuario se exponen solo por su id
+public record GestionTiempoDTO(
+        Integer idGestion,
+        Integer idTarea,
+        Integer idUsuario,
+        LocalDateTime fechaInicio,
+        LocalDateTime fechaFin,
+        Integer duracionSesion) {
+
+    public static GestionTiempoDTO from(GestionTiempo gestionTiempo) {
+        return new GestionTiempoDTO(
+                gestionTiempo.getIdGestion(),
+                gestionTiempo.getTarea() != null ? gestionTiempo.getTarea().getIdTarea() : null,
+                gestionTiempo.getUsuario() != null ? gestionTiempo.getUsuario().getIdUsuario() : null,
+                gestionTiempo.getFechaInicio(),
+                gestionTiempo.getFechaFin(),
+                gestionTiempo.getDuracionSesion());
+    }
+}
@@ -0,0 +1,12 @@
+package com.metaphorce.TaskFlow.dto;
+
+import java.time.LocalDateTime;
+
+// Fila de importación de registros de tiempo: la tarea se indica por su título dentro del proyecto
+public record ImportacionGestionTiempoDTO(
+        String correoUsuario,
+        String tituloProyecto,
+        String tituloTarea,
+        LocalDateTime fechaInicio,
+        LocalDateTime fechaFin) {
+}
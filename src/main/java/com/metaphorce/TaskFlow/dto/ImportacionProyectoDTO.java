@@ -0,0 +1,12 @@
+package com.metaphorce.TaskFlow.dto;
+
+import java.time.LocalDateTime;
+
+// Fila de importación de proyectos: el líder se indica por su correo
+public record ImportacionProyectoDTO(
+        String correoLider,
+        String titulo,
+        String descripcion,
+        LocalDateTime fechaInicio,
+        LocalDateTime fechaFin) {
+}
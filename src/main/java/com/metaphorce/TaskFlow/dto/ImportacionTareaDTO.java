@@ -0,0 +1,19 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+
+import java.time.LocalDateTime;
+
+// Fila de importación de tareas: proyecto por su título y usuarios por su correo
+public record ImportacionTareaDTO(
+        String tituloProyecto,
+        String correoCreador,
+        String correoAsignado,
+        LocalDateTime fechaCreacion,
+        LocalDateTime fechaTerminada,
+        String titulo,
+        String descripcion,
+        Prioridad prioridad,
+        Estatus estatus) {
+}
@@ -0,0 +1,16 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.Rol;
+
+// Usuario con al menos una tarea asignada en el proyecto
+public record MiembroProyectoDTO(
+        Integer idProyecto,
+        Integer idUsuario,
+        String nombre,
+        String correo,
+        Rol rol) {
+
+    public UsuarioDTO usuario() {
+        return new UsuarioDTO(idUsuario, nombre, correo, rol);
+    }
+}
@@ -0,0 +1,25 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.modelo.Proyecto;
+
+import java.time.LocalDateTime;
+
+// Vista de lectura de un proyecto; el líder se expone solo por su id
+public record ProyectoDTO(
+        Integer idProyecto,
+        Integer idUsuario,
+        String titulo,
+        String descripcion,
+        LocalDateTime fechaInicio,
+        LocalDateTime fechaFin) {
+
+    public static ProyectoDTO from(Proyecto proyecto) {
+        return new ProyectoDTO(
+                proyecto.getIdProyecto(),
+                proyecto.getUsuario() != null ? proyecto.getUsuario().getIdUsuario() : null,
+                proyecto.getTitulo(),
+                proyecto.getDescripcion(),
+                proyecto.getFechaInicio(),
+                proyecto.getFechaFin());
+    }
+}
@@ -0,0 +1,11 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.TipoDocumento;
+
+// Coincidencia de la búsqueda de texto, ordenada por puntaje (BM25) de mayor a menor
+public record ResultadoBusquedaDTO(
+        TipoDocumento tipo,
+        Integer id,
+        String titulo,
+        float puntaje) {
+}
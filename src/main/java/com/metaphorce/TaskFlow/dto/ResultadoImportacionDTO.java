@@ -0,0 +1,13 @@
+package com.metaphorce.TaskFlow.dto;
+
+import java.util.List;
+
+// Resultado de una importación: totales, rendimiento y solo las filas con error (índice desde 0, sin encabezado)
+public record ResultadoImportacionDTO(
+        int total,
+        int creados,
+        int fallidos,
+        long milisegundos,
+        double filasPorSegundo,
+        List<ResultadoItemDTO> errores) {
+}
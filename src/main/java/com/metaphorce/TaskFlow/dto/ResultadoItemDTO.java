@@ -0,0 +1,8 @@
+package com.metaphorce.TaskFlow.dto;
+
+// Resultado de un elemento de una carga masiva: id generado o motivo del error
+public record ResultadoItemDTO(
+        int indice,
+        Integer id,
+        String error) {
+}
@@ -0,0 +1,10 @@
+package com.metaphorce.TaskFlow.dto;
+
+import java.util.List;
+
+public record ResultadoLoteDTO(
+        int total,
+        int creados,
+        int fallidos,
+        List<ResultadoItemDTO> resultados) {
+}
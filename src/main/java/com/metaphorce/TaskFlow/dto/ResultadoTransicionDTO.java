@@ -0,0 +1,10 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.Estatus;
+
+// Resultado de una transición masiva: ids distintos recibidos y filas que realmente cambiaron de estatus
+public record ResultadoTransicionDTO(
+        Estatus estatus,
+        int solicitadas,
+        int actualizadas) {
+}
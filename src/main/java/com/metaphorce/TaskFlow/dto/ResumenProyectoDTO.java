@@ -0,0 +1,19 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+
+import java.util.List;
+import java.util.Map;
+
+// Tarjeta de un proyecto: conteos de tareas (todos los estatus y prioridades, aunque sean 0), tareas retrasadas,
+// minutos registrados y miembros
+public record ResumenProyectoDTO(
+        Integer idProyecto,
+        long totalTareas,
+        Map<Estatus, Long> tareasPorEstatus,
+        Map<Prioridad, Long> tareasPorPrioridad,
+        long tareasRetrasadas,
+        long duracionTotal,
+        List<UsuarioDTO> miembros) {
+}
@@ -0,0 +1,14 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.Rol;
+
+import java.time.Instant;
+
+// Sesión abierta por un inicio de sesión correcto; el token se envía después como "Authorization: Bearer <token>"
+public record SesionDTO(
+        String token,
+        Integer idUsuario,
+        String correo,
+        Rol rol,
+        Instant expira) {
+}
@@ -0,0 +1,35 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+
+import java.time.LocalDateTime;
+
+// Vista de lectura de una tarea; las relaciones se exponen solo por su id
+public record TareaDTO(
+        Integer idTarea,
+        Integer idCreadorTarea,
+        Integer idUsuarioAsignada,
+        Integer idProyecto,
+        LocalDateTime fechaCreacion,
+        LocalDateTime fechaTerminada,
+        String titulo,
+        String descripcion,
+        Prioridad prioridad,
+        Estatus estatus) {
+
+    public static TareaDTO from(Tareas tarea) {
+        return new TareaDTO(
+                tarea.getIdTarea(),
+                tarea.getCreadorTarea() != null ? tarea.getCreadorTarea().getIdUsuario() : null,
+                tarea.getUsuarioAsignada() != null ? tarea.getUsuarioAsignada().getIdUsuario() : null,
+                tarea.getProyecto() != null ? tarea.getProyecto().getIdProyecto() : null,
+                tarea.getFechaCreacion(),
+                tarea.getFechaTerminada(),
+                tarea.getTitulo(),
+                tarea.getDescripcion(),
+                tarea.getPrioridad(),
+                tarea.getEstatus());
+    }
+}
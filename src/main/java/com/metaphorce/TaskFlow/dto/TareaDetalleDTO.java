@@ -0,0 +1,36 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import org.hibernate.Hibernate;
+
+import java.time.LocalDateTime;
+
+// Vista de una tarea con sus relaciones expandidas; las que no cargó el entity graph quedan en null
+public record TareaDetalleDTO(
+        Integer idTarea,
+        UsuarioDTO creadorTarea,
+        UsuarioDTO usuarioAsignada,
+        ProyectoDTO proyecto,
+        LocalDateTime fechaCreacion,
+        LocalDateTime fechaTerminada,
+        String titulo,
+        String descripcion,
+        Prioridad prioridad,
+        Estatus estatus) {
+
+    public static TareaDetalleDTO from(Tareas tarea) {
+        return new TareaDetalleDTO(
+                tarea.getIdTarea(),
+                Hibernate.isInitialized(tarea.getCreadorTarea()) ? UsuarioDTO.from(tarea.getCreadorTarea()) : null,
+                Hibernate.isInitialized(tarea.getUsuarioAsignada()) ? UsuarioDTO.from(tarea.getUsuarioAsignada()) : null,
+                Hibernate.isInitialized(tarea.getProyecto()) ? ProyectoDTO.from(tarea.getProyecto()) : null,
+                tarea.getFechaCreacion(),
+                tarea.getFechaTerminada(),
+                tarea.getTitulo(),
+                tarea.getDescripcion(),
+                tarea.getPrioridad(),
+                tarea.getEstatus());
+    }
+}
@@ -0,0 +1,11 @@
+package com.metaphorce.TaskFlow.dto;
+
+import java.time.LocalDate;
+
+// Fila de un acumulado diario (usuario, tarea o proyecto según la tabla)
+public record TotalDiaDTO(
+        Integer id,
+        LocalDate dia,
+        Integer duracionTotal,
+        Integer sesiones) {
+}
@@ -0,0 +1,11 @@
+package com.metaphorce.TaskFlow.dto;
+
+import java.time.LocalDate;
+
+// Total de minutos y sesiones de un usuario, tarea o proyecto en el periodo que empieza en inicio
+public record TotalPeriodoDTO(
+        Integer id,
+        LocalDate inicio,
+        long duracionTotal,
+        long sesiones) {
+}
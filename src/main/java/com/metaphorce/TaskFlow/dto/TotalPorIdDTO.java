@@ -0,0 +1,7 @@
+package com.metaphorce.TaskFlow.dto;
+
+// Suma agrupada por id
+public record TotalPorIdDTO(
+        Integer id,
+        Long total) {
+}
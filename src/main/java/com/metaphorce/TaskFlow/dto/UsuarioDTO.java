@@ -0,0 +1,16 @@
+package com.metaphorce.TaskFlow.dto;
+
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+
+// Vista de lectura de un usuario; nunca incluye el hash de la contraseña
+public record UsuarioDTO(
+        Integer idUsuario,
+        String nombre,
+        String correo,
+        Rol rol) {
+
+    public static UsuarioDTO from(Usuario usuario) {
+        return new UsuarioDTO(usuario.getIdUsuario(), usuario.getNombre(), usuario.getCorreo(), usuario.getRol());
+    }
+}
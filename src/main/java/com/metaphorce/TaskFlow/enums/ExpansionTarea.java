@@ -0,0 +1,7 @@
+package com.metaphorce.TaskFlow.enums;
+
+public enum ExpansionTarea {
+    Proyecto,
+    Usuarios,
+    Completa
+}
@@ -0,0 +1,6 @@
+package com.metaphorce.TaskFlow.enums;
+
+public enum FormatoExportacion {
+    Csv,
+    Columnar
+}
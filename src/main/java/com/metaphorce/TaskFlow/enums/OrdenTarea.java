@@ -0,0 +1,7 @@
+package com.metaphorce.TaskFlow.enums;
+
+public enum OrdenTarea {
+    Id,
+    Fecha_creacion,
+    Fecha_creacion_desc
+}
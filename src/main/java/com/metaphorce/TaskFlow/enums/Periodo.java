@@ -0,0 +1,27 @@
+package com.metaphorce.TaskFlow.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+// Periodos de calendario de los reportes; las semanas empiezan en lunes (ISO)
+public enum Periodo {
+    Dia,
+    Semana,
+    Mes;
+
+    public LocalDate inicio(LocalDate dia) {
+        return switch (this) {
+            case Dia -> dia;
+            case Semana -> dia.with(DayOfWeek.MONDAY);
+            case Mes -> dia.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate siguiente(LocalDate inicio) {
+        return switch (this) {
+            case Dia -> inicio.plusDays(1);
+            case Semana -> inicio.plusWeeks(1);
+            case Mes -> inicio.plusMonths(1);
+        };
+    }
+}
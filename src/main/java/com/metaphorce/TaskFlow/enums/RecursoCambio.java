@@ -0,0 +1,6 @@
+package com.metaphorce.TaskFlow.enums;
+
+public enum RecursoCambio {
+    Tarea,
+    GestionTiempo
+}
@@ -0,0 +1,7 @@
+package com.metaphorce.TaskFlow.enums;
+
+public enum TipoCambio {
+    Creado,
+    Actualizado,
+    Eliminado
+}
@@ -7,8 +7,10 @@ import java.time.LocalDateTime;
 @Table(name = "gestion_tiempo")
 public class GestionTiempo {
 
+    // Secuencia con bloques de 50 ids (tabla gestion_tiempo_seq en MySQL) para que Hibernate pueda agrupar los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gestion_tiempo_seq")
+    @SequenceGenerator(name = "gestion_tiempo_seq", sequenceName = "gestion_tiempo_seq", allocationSize = 50)
     @Column(name = "id_gestion")
     private Integer idGestion;
 
@@ -29,6 +31,11 @@ public class GestionTiempo {
     @Column(name = "duracion_sesion", insertable = false, updatable = false)
     private Integer duracionSesion;
 
+    // Control de concurrencia optimista; también sirve como ETag de la entidad
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public Integer getIdGestion() {
         return idGestion;
     }
@@ -76,4 +83,12 @@ public class GestionTiempo {
     public void setDuracionSesion(Integer duracionSesion) {
         this.duracionSesion = duracionSesion;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
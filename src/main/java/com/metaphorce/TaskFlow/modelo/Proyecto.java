@@ -1,10 +1,15 @@
 package com.metaphorce.TaskFlow.modelo;
+import com.metaphorce.TaskFlow.config.CacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "proyecto")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.REGION_PROYECTO)
 public class Proyecto {
 
     @Id
@@ -31,6 +36,11 @@ public class Proyecto {
     @OneToMany(mappedBy = "proyecto", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Tareas> tareas;
 
+    // Control de concurrencia optimista; también sirve como ETag de la entidad
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public Integer getIdProyecto() {
         return idProyecto;
     }
@@ -86,4 +96,12 @@ public class Proyecto {
     public void setTareas(List<Tareas> tareas) {
         this.tareas = tareas;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -7,10 +7,22 @@ import java.util.List;
 
 @Entity
 @Table(name = "tareas")
+@NamedEntityGraph(name = "Tareas.proyecto", attributeNodes = @NamedAttributeNode("proyecto"))
+@NamedEntityGraph(name = "Tareas.usuarios", attributeNodes = {
+        @NamedAttributeNode("creadorTarea"),
+        @NamedAttributeNode("usuarioAsignada")
+})
+@NamedEntityGraph(name = "Tareas.completa", attributeNodes = {
+        @NamedAttributeNode("creadorTarea"),
+        @NamedAttributeNode("usuarioAsignada"),
+        @NamedAttributeNode("proyecto")
+})
 public class Tareas {
 
+    // Secuencia con bloques de 50 ids (tabla tareas_seq en MySQL) para que Hibernate pueda agrupar los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tareas_seq")
+    @SequenceGenerator(name = "tareas_seq", sequenceName = "tareas_seq", allocationSize = 50)
     @Column(name = "id_tarea")
     private Integer idTarea;
 
@@ -49,6 +61,11 @@ public class Tareas {
     @OneToMany(mappedBy = "tarea", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<GestionTiempo> registrosTiempo;
 
+    // Control de concurrencia optimista; también sirve como ETag de la entidad
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public Integer getIdTarea() {
         return idTarea;
     }
@@ -136,4 +153,12 @@ public class Tareas {
     public void setRegistrosTiempo(List<GestionTiempo> registrosTiempo) {
         this.registrosTiempo = registrosTiempo;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
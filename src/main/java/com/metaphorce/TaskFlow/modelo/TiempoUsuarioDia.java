@@ -0,0 +1,49 @@
+package com.metaphorce.TaskFlow.modelo;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Acumulado de tiempo por (usuario, día de inicio de la sesión)
+@Entity
+@Table(name = "tiempo_usuario_dia")
+public class TiempoUsuarioDia {
+
+    @EmbeddedId
+    private Clave clave;
+
+    @Column(name = "duracion_total", nullable = false)
+    private Integer duracionTotal;
+
+    @Column(name = "sesiones", nullable = false)
+    private Integer sesiones;
+
+    @Embeddable
+    public record Clave(
+            @Column(name = "id_usuario") Integer idUsuario,
+            @Column(name = "dia") LocalDate dia) {
+    }
+
+    public Clave getClave() {
+        return clave;
+    }
+
+    public void setClave(Clave clave) {
+        this.clave = clave;
+    }
+
+    public Integer getDuracionTotal() {
+        return duracionTotal;
+    }
+
+    public void setDuracionTotal(Integer duracionTotal) {
+        this.duracionTotal = duracionTotal;
+    }
+
+    public Integer getSesiones() {
+        return sesiones;
+    }
+
+    public void setSesiones(Integer sesiones) {
+        this.sesiones = sesiones;
+    }
+}
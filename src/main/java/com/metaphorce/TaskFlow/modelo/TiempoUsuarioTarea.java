@@ -0,0 +1,48 @@
+package com.metaphorce.TaskFlow.modelo;
+
+import jakarta.persistence.*;
+
+// Acumulado de tiempo por (usuario, tarea), mantenido incrementalmente desde GestionTiempoServiceImpl
+@Entity
+@Table(name = "tiempo_usuario_tarea")
+public class TiempoUsuarioTarea {
+
+    @EmbeddedId
+    private Clave clave;
+
+    @Column(name = "duracion_total", nullable = false)
+    private Integer duracionTotal;
+
+    @Column(name = "sesiones", nullable = false)
+    private Integer sesiones;
+
+    @Embeddable
+    public record Clave(
+            @Column(name = "id_usuario") Integer idUsuario,
+            @Column(name = "id_tarea") Integer idTarea) {
+    }
+
+    public Clave getClave() {
+        return clave;
+    }
+
+    public void setClave(Clave clave) {
+        this.clave = clave;
+    }
+
+    public Integer getDuracionTotal() {
+        return duracionTotal;
+    }
+
+    public void setDuracionTotal(Integer duracionTotal) {
+        this.duracionTotal = duracionTotal;
+    }
+
+    public Integer getSesiones() {
+        return sesiones;
+    }
+
+    public void setSesiones(Integer sesiones) {
+        this.sesiones = sesiones;
+    }
+}
@@ -1,10 +1,16 @@
 package com.metaphorce.TaskFlow.modelo;
+import com.metaphorce.TaskFlow.config.CacheConfig;
 import com.metaphorce.TaskFlow.enums.Rol;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
+// En la caché de segundo nivel: los proxies de creador, asignado y líder se inicializan sin SELECT
 @Entity
 @Table(name = "usuario")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.REGION_USUARIO)
 public class Usuario {
 
     @Id
@@ -25,7 +31,10 @@ public class Usuario {
     @Column(name = "rol", nullable = false)
     private Rol rol;
 
+    // Solo se cachea esta colección: sus elementos también están en caché. Las de tareas y registros de tiempo
+    // guardarían ids de entidades sin caché y se cargarían con un SELECT por elemento.
     @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.REGION_PROYECTOS_GESTIONADOS)
     private List<Proyecto> proyectosGestionados;
 
     @OneToMany(mappedBy = "creadorTarea", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -37,6 +46,11 @@ public class Usuario {
     @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<GestionTiempo> registrosTiempo;
 
+    // Control de concurrencia optimista; también sirve como ETag de la entidad
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public Integer getIdUsuario() {
         return idUsuario;
     }
@@ -108,4 +122,12 @@ public class Usuario {
     public void setRegistrosTiempo(List<GestionTiempo> registrosTiempo) {
         this.registrosTiempo = registrosTiempo;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
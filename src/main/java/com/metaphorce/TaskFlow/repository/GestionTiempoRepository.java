@@ -1,22 +1,92 @@
 package com.metaphorce.TaskFlow.repository;
 
+import com.metaphorce.TaskFlow.dto.FirmaColeccionDTO;
+import com.metaphorce.TaskFlow.dto.GestionTiempoDTO;
 import com.metaphorce.TaskFlow.modelo.GestionTiempo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
+@Transactional(readOnly = true)
 public interface GestionTiempoRepository extends JpaRepository<GestionTiempo, Integer> {
 
-    List<GestionTiempo> findByFechaInicioBetween(LocalDateTime startDate, LocalDateTime endDate);
+    // Proyección a DTO: las llaves foráneas se leen de la propia fila, sin joins ni proxies
+    String SELECT_GESTION_TIEMPO_DTO = "SELECT new com.metaphorce.TaskFlow.dto.GestionTiempoDTO(g.idGestion, "
+            + "g.tarea.idTarea, g.usuario.idUsuario, g.fechaInicio, g.fechaFin, g.duracionSesion) FROM GestionTiempo g ";
 
-    List<GestionTiempo> findByUsuario_IdUsuario(Integer idUsuario);
+    @Query(SELECT_GESTION_TIEMPO_DTO + "WHERE g.idGestion = :id")
+    Optional<GestionTiempoDTO> findDTOById(@Param("id") Integer id);
 
-    List<GestionTiempo> findByUsuario_IdUsuarioAndTarea_IdTarea(Integer idUsuario, Integer idTarea);
+    // En la primaria: se usa antes de guardar y una versión atrasada de la réplica haría fallar el PUT
+    @Transactional
+    @Query("SELECT g.version FROM GestionTiempo g WHERE g.idGestion = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+
+    @Query("SELECT new com.metaphorce.TaskFlow.dto.FirmaColeccionDTO(count(g), sum(g.idGestion), sum(g.version)) "
+            + "FROM GestionTiempo g WHERE g.usuario.idUsuario = :idUsuario")
+    FirmaColeccionDTO findFirmaByUsuario_IdUsuario(@Param("idUsuario") Integer idUsuario);
+
+    @Query(SELECT_GESTION_TIEMPO_DTO + "WHERE g.idGestion IN :ids")
+    List<GestionTiempoDTO> findDTOByIdGestionIn(@Param("ids") List<Integer> ids);
+
+    // Registros que se borran en cascada con la tarea, el proyecto o el usuario, para descontarlos de los acumulados
+    @Query("SELECT g.idGestion FROM GestionTiempo g WHERE g.tarea.idTarea = :idTarea")
+    List<Integer> findIdsByTarea(@Param("idTarea") Integer idTarea);
+
+    @Query("SELECT g.idGestion FROM GestionTiempo g WHERE g.tarea.proyecto.idProyecto = :idProyecto")
+    List<Integer> findIdsByProyecto(@Param("idProyecto") Integer idProyecto);
+
+    // Los propios, los de tareas que creó o tiene asignadas y los de tareas de proyectos que lidera
+    @Query("SELECT g.idGestion FROM GestionTiempo g JOIN g.tarea t JOIN t.proyecto p WHERE g.usuario.idUsuario = :idUsuario "
+            + "OR t.creadorTarea.idUsuario = :idUsuario OR t.usuarioAsignada.idUsuario = :idUsuario OR p.usuario.idUsuario = :idUsuario")
+    List<Integer> findIdsByUsuarioEnCascada(@Param("idUsuario") Integer idUsuario);
+
+    // Sesiones sin fecha de fin, para reconstruir el registro de sesiones abiertas al arrancar
+    @Query(SELECT_GESTION_TIEMPO_DTO + "WHERE g.fechaFin IS NULL ORDER BY g.idGestion")
+    List<GestionTiempoDTO> findAbiertas();
+
+    // Cierra la sesión solo si sigue abierta y pertenece al usuario; duracion_sesion la recalcula la base de datos
+    @Modifying
+    @Transactional
+    @Query("UPDATE GestionTiempo g SET g.fechaFin = :fin, g.version = g.version + 1 "
+            + "WHERE g.idGestion = :id AND g.usuario.idUsuario = :idUsuario AND g.fechaFin IS NULL")
+    int cerrar(@Param("id") Integer id, @Param("idUsuario") Integer idUsuario, @Param("fin") LocalDateTime fin);
+
+    // Paginación por cursor (keyset): siempre se ordena por id_gestion y se piden las filas posteriores al cursor
+    @Query(SELECT_GESTION_TIEMPO_DTO + "WHERE g.idGestion > :cursor ORDER BY g.idGestion")
+    List<GestionTiempoDTO> findByIdGestionGreaterThanOrderByIdGestionAsc(@Param("cursor") Integer cursor, Limit limit);
+
+    @Query(SELECT_GESTION_TIEMPO_DTO + "WHERE g.fechaInicio BETWEEN :startDate AND :endDate AND g.idGestion > :cursor ORDER BY g.idGestion")
+    List<GestionTiempoDTO> findByFechaInicioBetweenAndIdGestionGreaterThanOrderByIdGestionAsc(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, @Param("cursor") Integer cursor, Limit limit);
+
+    @Query(SELECT_GESTION_TIEMPO_DTO + "WHERE g.usuario.idUsuario = :idUsuario AND g.idGestion > :cursor ORDER BY g.idGestion")
+    List<GestionTiempoDTO> findByUsuario_IdUsuarioAndIdGestionGreaterThanOrderByIdGestionAsc(@Param("idUsuario") Integer idUsuario, @Param("cursor") Integer cursor, Limit limit);
+
+    @Query(SELECT_GESTION_TIEMPO_DTO + "WHERE g.usuario.idUsuario = :idUsuario AND g.tarea.idTarea = :idTarea AND g.idGestion > :cursor ORDER BY g.idGestion")
+    List<GestionTiempoDTO> findByUsuario_IdUsuarioAndTarea_IdTareaAndIdGestionGreaterThanOrderByIdGestionAsc(@Param("idUsuario") Integer idUsuario, @Param("idTarea") Integer idTarea, @Param("cursor") Integer cursor, Limit limit);
+
+    // Recorrido completo sin materializar la tabla; con useCursorFetch MySQL entrega las filas por bloques
+    @Query(SELECT_GESTION_TIEMPO_DTO + "ORDER BY g.idGestion")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<GestionTiempoDTO> streamAll();
+
+    // Exportación por periodo: mismo recorrido hacia adelante, reanudable desde el último id recibido
+    @Query(SELECT_GESTION_TIEMPO_DTO + "WHERE g.fechaInicio BETWEEN :startDate AND :endDate AND g.idGestion > :cursor ORDER BY g.idGestion")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<GestionTiempoDTO> streamByFechaInicioBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, @Param("cursor") Integer cursor);
 
     @Query("SELECT SUM(g.duracionSesion) FROM GestionTiempo g WHERE g.usuario.idUsuario = :idUsuario AND g.tarea.idTarea = :idTarea")
     Integer sumDuracionSesionByUsuarioAndTarea(@Param("idUsuario") Integer idUsuario, @Param("idTarea") Integer idTarea);
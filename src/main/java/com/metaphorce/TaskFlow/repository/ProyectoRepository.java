@@ -1,27 +1,74 @@
 package com.metaphorce.TaskFlow.repository;
 
+import com.metaphorce.TaskFlow.dto.ClaveIdDTO;
+import com.metaphorce.TaskFlow.dto.ConteoTareasDTO;
+import com.metaphorce.TaskFlow.dto.MiembroProyectoDTO;
+import com.metaphorce.TaskFlow.dto.ProyectoDTO;
+import com.metaphorce.TaskFlow.dto.UsuarioDTO;
 import com.metaphorce.TaskFlow.modelo.Proyecto;
-import com.metaphorce.TaskFlow.modelo.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface ProyectoRepository extends JpaRepository<Proyecto, Integer> {
 
-    Optional<Proyecto> findByTitulo(String titulo);
+    // Proyección a DTO: el líder se lee de la llave foránea, sin join ni proxy
+    String SELECT_PROYECTO_DTO = "SELECT new com.metaphorce.TaskFlow.dto.ProyectoDTO(p.idProyecto, p.usuario.idUsuario, "
+            + "p.titulo, p.descripcion, p.fechaInicio, p.fechaFin) FROM Proyecto p ";
 
-    List<Proyecto> findByFechaInicio(LocalDateTime fechaInicio);
+    @Query(SELECT_PROYECTO_DTO + "ORDER BY p.idProyecto")
+    List<ProyectoDTO> findAllDTO();
 
-    List<Proyecto> findByUsuario_IdUsuario(Integer idUsuario);
+    @Query(SELECT_PROYECTO_DTO + "WHERE p.idProyecto = :id")
+    Optional<ProyectoDTO> findDTOById(@Param("id") Integer id);
 
-    List<Proyecto> findByFechaInicioBetween(LocalDateTime startDate, LocalDateTime endDate);
+    // En la primaria: se usa antes de guardar y una versión atrasada de la réplica haría fallar el PUT
+    @Transactional
+    @Query("SELECT p.version FROM Proyecto p WHERE p.idProyecto = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
 
-    @Query("SELECT DISTINCT t.usuarioAsignada FROM Tareas t WHERE t.proyecto.idProyecto = :idProyecto")
-    List<Usuario> findUsuariosAsignadosByProyectoId(@Param("idProyecto") Integer idProyecto);
+    @Query(SELECT_PROYECTO_DTO + "WHERE p.titulo = :titulo")
+    Optional<ProyectoDTO> findDTOByTitulo(@Param("titulo") String titulo);
+
+    @Query(SELECT_PROYECTO_DTO + "WHERE p.fechaInicio = :fechaInicio")
+    List<ProyectoDTO> findDTOByFechaInicio(@Param("fechaInicio") LocalDateTime fechaInicio);
+
+    @Query(SELECT_PROYECTO_DTO + "WHERE p.usuario.idUsuario = :idUsuario")
+    List<ProyectoDTO> findDTOByLider(@Param("idUsuario") Integer idUsuario);
+
+    // Participa quien dirige el proyecto o crea o tiene asignada alguna de sus tareas
+    @Query("SELECT count(p) > 0 FROM Proyecto p WHERE p.idProyecto = :idProyecto AND (p.usuario.idUsuario = :idUsuario "
+            + "OR EXISTS (SELECT t.idTarea FROM Tareas t WHERE t.proyecto = p "
+            + "AND (t.usuarioAsignada.idUsuario = :idUsuario OR t.creadorTarea.idUsuario = :idUsuario)))")
+    boolean existsParticipante(@Param("idProyecto") Integer idProyecto, @Param("idUsuario") Integer idUsuario);
+
+    @Query(SELECT_PROYECTO_DTO + "WHERE p.fechaInicio BETWEEN :startDate AND :endDate")
+    List<ProyectoDTO> findDTOByFechaInicioBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT DISTINCT new com.metaphorce.TaskFlow.dto.UsuarioDTO(u.idUsuario, u.nombre, u.correo, u.rol) "
+            + "FROM Tareas t JOIN t.usuarioAsignada u WHERE t.proyecto.idProyecto = :idProyecto")
+    List<UsuarioDTO> findUsuariosAsignadosByProyectoId(@Param("idProyecto") Integer idProyecto);
+
+    // Resúmenes: conteo de tareas por proyecto, estatus y prioridad en una sola consulta para todos los ids
+    @Query("SELECT new com.metaphorce.TaskFlow.dto.ConteoTareasDTO(p.idProyecto, p.fechaFin, t.estatus, t.prioridad, count(t)) "
+            + "FROM Proyecto p LEFT JOIN p.tareas t WHERE p.idProyecto IN :ids "
+            + "GROUP BY p.idProyecto, p.fechaFin, t.estatus, t.prioridad")
+    List<ConteoTareasDTO> findConteoTareasByIdProyectoIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT DISTINCT new com.metaphorce.TaskFlow.dto.MiembroProyectoDTO(t.proyecto.idProyecto, u.idUsuario, u.nombre, u.correo, u.rol) "
+            + "FROM Tareas t JOIN t.usuarioAsignada u WHERE t.proyecto.idProyecto IN :ids")
+    List<MiembroProyectoDTO> findMiembrosByIdProyectoIn(@Param("ids") Collection<Integer> ids);
+
+    // Importación: el título no es único, un título repetido devuelve varias filas
+    @Query("SELECT new com.metaphorce.TaskFlow.dto.ClaveIdDTO(p.titulo, p.idProyecto) FROM Proyecto p WHERE p.titulo IN :titulos")
+    List<ClaveIdDTO> findIdsByTituloIn(@Param("titulos") Collection<String> titulos);
 }
@@ -1,27 +1,163 @@
 package com.metaphorce.TaskFlow.repository;
 
+import com.metaphorce.TaskFlow.dto.ClaveTareaDTO;
+import com.metaphorce.TaskFlow.dto.FirmaColeccionDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
 import com.metaphorce.TaskFlow.enums.Estatus;
 import com.metaphorce.TaskFlow.enums.Prioridad;
 import com.metaphorce.TaskFlow.modelo.Tareas;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TareasRepository extends JpaRepository<Tareas, Integer> {
+@Transactional(readOnly = true)
+public interface TareasRepository extends JpaRepository<Tareas, Integer>, TareasRepositoryCustom {
 
-    List<Tareas> findByCreadorTarea_IdUsuario(Integer idUsuario);
+    // Proyección a DTO: las llaves foráneas se leen de la propia fila, sin joins ni proxies
+    String SELECT_TAREA_DTO = "SELECT new com.metaphorce.TaskFlow.dto.TareaDTO(t.idTarea, t.creadorTarea.idUsuario, "
+            + "t.usuarioAsignada.idUsuario, t.proyecto.idProyecto, t.fechaCreacion, t.fechaTerminada, t.titulo, "
+            + "t.descripcion, t.prioridad, t.estatus) FROM Tareas t ";
 
-    List<Tareas> findByUsuarioAsignada_IdUsuario(Integer idUsuario);
+    String SELECT_FIRMA_TAREAS = "SELECT new com.metaphorce.TaskFlow.dto.FirmaColeccionDTO(count(t), sum(t.idTarea), "
+            + "sum(t.version)) FROM Tareas t ";
 
-    List<Tareas> findByProyecto_IdProyecto(Integer idProyecto);
+    @Query(SELECT_TAREA_DTO + "WHERE t.idTarea = :id")
+    Optional<TareaDTO> findDTOById(@Param("id") Integer id);
 
-    List<Tareas> findByFechaCreacion(LocalDateTime fechaCreacion);
+    // Solo la columna version, para responder If-None-Match sin cargar la tarea. Se lee en la primaria porque también
+    // se usa antes de guardar: una versión atrasada de la réplica haría fallar el PUT
+    @Transactional
+    @Query("SELECT t.version FROM Tareas t WHERE t.idTarea = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
 
-    List<Tareas> findByPrioridad(Prioridad prioridad);
+    // Proyecto vigente de la tarea, para mover su tiempo en los acumulados si un PUT le cambia el proyecto
+    @Transactional
+    @Query("SELECT t.proyecto.idProyecto FROM Tareas t WHERE t.idTarea = :id")
+    Optional<Integer> findIdProyectoById(@Param("id") Integer id);
 
-    List<Tareas> findByEstatus(Estatus estatus);
+    // Cambio de estatus en una sola sentencia; versionEsperada null omite la comprobación de versión
+    @Modifying
+    @Transactional
+    @Query("UPDATE Tareas t SET t.estatus = :estatus, "
+            + "t.fechaTerminada = CASE WHEN :terminada IS NULL THEN NULL ELSE COALESCE(t.fechaTerminada, :terminada) END, "
+            + "t.version = t.version + 1 "
+            + "WHERE t.idTarea = :id AND (:versionEsperada IS NULL OR t.version = :versionEsperada)")
+    int actualizarEstatus(@Param("id") Integer id, @Param("estatus") Estatus estatus,
+                          @Param("terminada") LocalDateTime terminada, @Param("versionEsperada") Long versionEsperada);
+
+    // Transición masiva de un bloque de ids; solo cambian las filas cuyo estatus actual está en origen, así una
+    // tarea que cambió entre la selección y el UPDATE no se pisa
+    @Modifying
+    @Transactional
+    @Query("UPDATE Tareas t SET t.estatus = :estatus, "
+            + "t.fechaTerminada = CASE WHEN :terminada IS NULL THEN NULL ELSE COALESCE(t.fechaTerminada, :terminada) END, "
+            + "t.version = t.version + 1 "
+            + "WHERE t.idTarea IN :ids AND t.estatus IN :origen")
+    int transicionar(@Param("ids") Collection<Integer> ids, @Param("estatus") Estatus estatus,
+                     @Param("terminada") LocalDateTime terminada, @Param("origen") Collection<Estatus> origen);
+
+    // Ids del bloque que cambiaría transicionar, bloqueados hasta el fin de la transacción
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.idTarea FROM Tareas t WHERE t.idTarea IN :ids AND t.estatus IN :origen")
+    List<Integer> findIdsTransicionables(@Param("ids") Collection<Integer> ids, @Param("origen") Collection<Estatus> origen);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Tareas t SET t.fechaTerminada = :terminada, t.version = t.version + 1 "
+            + "WHERE t.idTarea IN :ids AND t.estatus = :estatus AND t.fechaTerminada IS NULL")
+    int sellarFechaTerminada(@Param("ids") Collection<Integer> ids, @Param("estatus") Estatus estatus,
+                             @Param("terminada") LocalDateTime terminada);
+
+    // Ids del bloque que cambiaría sellarFechaTerminada, bloqueados hasta el fin de la transacción
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.idTarea FROM Tareas t WHERE t.idTarea IN :ids AND t.estatus = :estatus AND t.fechaTerminada IS NULL")
+    List<Integer> findIdsPorSellar(@Param("ids") Collection<Integer> ids, @Param("estatus") Estatus estatus);
+
+    // Siguiente bloque de tareas abiertas cuyo proyecto ya pasó su fecha de fin
+    @Query("SELECT t.idTarea FROM Tareas t WHERE t.estatus IN :abiertos AND t.proyecto.fechaFin < :ahora "
+            + "AND t.idTarea > :cursor ORDER BY t.idTarea")
+    List<Integer> findIdsVencidas(@Param("abiertos") Collection<Estatus> abiertos, @Param("ahora") LocalDateTime ahora,
+                                  @Param("cursor") Integer cursor, Limit limit);
+
+    // Siguiente bloque de tareas con el estatus dado y sin fechaTerminada
+    @Query("SELECT t.idTarea FROM Tareas t WHERE t.estatus = :estatus AND t.fechaTerminada IS NULL "
+            + "AND t.idTarea > :cursor ORDER BY t.idTarea")
+    List<Integer> findIdsSinFechaTerminada(@Param("estatus") Estatus estatus, @Param("cursor") Integer cursor, Limit limit);
+
+    @Query(SELECT_TAREA_DTO + "WHERE t.idTarea IN :ids")
+    List<TareaDTO> findDTOByIdTareaIn(@Param("ids") Collection<Integer> ids);
+
+    @Query(SELECT_FIRMA_TAREAS + "WHERE t.usuarioAsignada.idUsuario = :idUsuario")
+    FirmaColeccionDTO findFirmaByUsuarioAsignada_IdUsuario(@Param("idUsuario") Integer idUsuario);
+
+    @Query(SELECT_FIRMA_TAREAS + "WHERE t.proyecto.idProyecto = :idProyecto")
+    FirmaColeccionDTO findFirmaByProyecto_IdProyecto(@Param("idProyecto") Integer idProyecto);
+
+    // Paginación por cursor (keyset): siempre se ordena por id_tarea y se piden las filas posteriores al cursor
+    @Query(SELECT_TAREA_DTO + "WHERE t.idTarea > :cursor ORDER BY t.idTarea")
+    List<TareaDTO> findByIdTareaGreaterThanOrderByIdTareaAsc(@Param("cursor") Integer cursor, Limit limit);
+
+    @Query(SELECT_TAREA_DTO + "WHERE t.creadorTarea.idUsuario = :idUsuario AND t.idTarea > :cursor ORDER BY t.idTarea")
+    List<TareaDTO> findByCreadorTarea_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(@Param("idUsuario") Integer idUsuario, @Param("cursor") Integer cursor, Limit limit);
+
+    @Query(SELECT_TAREA_DTO + "WHERE t.usuarioAsignada.idUsuario = :idUsuario AND t.idTarea > :cursor ORDER BY t.idTarea")
+    List<TareaDTO> findByUsuarioAsignada_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(@Param("idUsuario") Integer idUsuario, @Param("cursor") Integer cursor, Limit limit);
+
+    @Query(SELECT_TAREA_DTO + "WHERE t.proyecto.idProyecto = :idProyecto AND t.idTarea > :cursor ORDER BY t.idTarea")
+    List<TareaDTO> findByProyecto_IdProyectoAndIdTareaGreaterThanOrderByIdTareaAsc(@Param("idProyecto") Integer idProyecto, @Param("cursor") Integer cursor, Limit limit);
+
+    @Query(SELECT_TAREA_DTO + "WHERE t.fechaCreacion = :fechaCreacion AND t.idTarea > :cursor ORDER BY t.idTarea")
+    List<TareaDTO> findByFechaCreacionAndIdTareaGreaterThanOrderByIdTareaAsc(@Param("fechaCreacion") LocalDateTime fechaCreacion, @Param("cursor") Integer cursor, Limit limit);
+
+    @Query(SELECT_TAREA_DTO + "WHERE t.prioridad = :prioridad AND t.idTarea > :cursor ORDER BY t.idTarea")
+    List<TareaDTO> findByPrioridadAndIdTareaGreaterThanOrderByIdTareaAsc(@Param("prioridad") Prioridad prioridad, @Param("cursor") Integer cursor, Limit limit);
+
+    @Query(SELECT_TAREA_DTO + "WHERE t.estatus = :estatus AND t.idTarea > :cursor ORDER BY t.idTarea")
+    List<TareaDTO> findByEstatusAndIdTareaGreaterThanOrderByIdTareaAsc(@Param("estatus") Estatus estatus, @Param("cursor") Integer cursor, Limit limit);
+
+    // Variantes con entity graph: las relaciones pedidas llegan en el mismo SELECT mediante joins
+    @EntityGraph("Tareas.proyecto")
+    List<Tareas> findConProyectoByProyecto_IdProyectoAndIdTareaGreaterThanOrderByIdTareaAsc(Integer idProyecto, Integer cursor, Limit limit);
+
+    @EntityGraph("Tareas.usuarios")
+    List<Tareas> findConUsuariosByProyecto_IdProyectoAndIdTareaGreaterThanOrderByIdTareaAsc(Integer idProyecto, Integer cursor, Limit limit);
+
+    @EntityGraph("Tareas.completa")
+    List<Tareas> findCompletaByProyecto_IdProyectoAndIdTareaGreaterThanOrderByIdTareaAsc(Integer idProyecto, Integer cursor, Limit limit);
+
+    @EntityGraph("Tareas.proyecto")
+    List<Tareas> findConProyectoByUsuarioAsignada_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(Integer idUsuario, Integer cursor, Limit limit);
+
+    @EntityGraph("Tareas.usuarios")
+    List<Tareas> findConUsuariosByUsuarioAsignada_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(Integer idUsuario, Integer cursor, Limit limit);
+
+    @EntityGraph("Tareas.completa")
+    List<Tareas> findCompletaByUsuarioAsignada_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(Integer idUsuario, Integer cursor, Limit limit);
+
+    // Recorrido completo sin materializar la tabla; con useCursorFetch MySQL entrega las filas por bloques
+    @Query(SELECT_TAREA_DTO + "ORDER BY t.idTarea")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<TareaDTO> streamAll();
+
+    // Importación: tareas de esos proyectos con alguno de esos títulos; el par exacto se filtra en memoria
+    @Query("SELECT new com.metaphorce.TaskFlow.dto.ClaveTareaDTO(t.proyecto.idProyecto, t.titulo, t.idTarea) FROM Tareas t "
+            + "WHERE t.proyecto.idProyecto IN :proyectos AND t.titulo IN :titulos")
+    List<ClaveTareaDTO> findIdsByProyectoInAndTituloIn(@Param("proyectos") Collection<Integer> proyectos, @Param("titulos") Collection<String> titulos);
 }
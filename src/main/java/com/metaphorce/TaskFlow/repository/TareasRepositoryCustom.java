@@ -0,0 +1,14 @@
+package com.metaphorce.TaskFlow.repository;
+
+import com.metaphorce.TaskFlow.dto.CursorTareaDTO;
+import com.metaphorce.TaskFlow.dto.FiltroTareasDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.enums.OrdenTarea;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+public interface TareasRepositoryCustom {
+
+    List<TareaDTO> buscar(FiltroTareasDTO filtro, OrdenTarea orden, CursorTareaDTO cursor, Limit limit);
+}
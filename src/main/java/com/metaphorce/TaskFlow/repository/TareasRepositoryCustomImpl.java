@@ -0,0 +1,59 @@
+package com.metaphorce.TaskFlow.repository;
+
+import com.metaphorce.TaskFlow.dto.CursorTareaDTO;
+import com.metaphorce.TaskFlow.dto.FiltroTareasDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.enums.OrdenTarea;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Compila los criterios de búsqueda en un solo SELECT con la misma proyección a TareaDTO que las consultas fijas
+@Transactional(readOnly = true)
+class TareasRepositoryCustomImpl implements TareasRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TareaDTO> buscar(FiltroTareasDTO filtro, OrdenTarea orden, CursorTareaDTO cursor, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TareaDTO> query = cb.createQuery(TareaDTO.class);
+        Root<Tareas> t = query.from(Tareas.class);
+
+        query.select(cb.construct(TareaDTO.class,
+                t.get("idTarea"),
+                t.get("creadorTarea").get("idUsuario"),
+                t.get("usuarioAsignada").get("idUsuario"),
+                t.get("proyecto").get("idProyecto"),
+                t.get("fechaCreacion"),
+                t.get("fechaTerminada"),
+                t.get("titulo"),
+                t.get("descripcion"),
+                t.get("prioridad"),
+                t.get("estatus")));
+
+        Predicate condiciones = TareasSpecifications.buscar(filtro, orden, cursor).toPredicate(t, query, cb);
+        if (condiciones != null) {
+            query.where(condiciones);
+        }
+
+        switch (orden) {
+            case Id -> query.orderBy(cb.asc(t.get("idTarea")));
+            case Fecha_creacion -> query.orderBy(cb.asc(t.get("fechaCreacion")), cb.asc(t.get("idTarea")));
+            case Fecha_creacion_desc -> query.orderBy(cb.desc(t.get("fechaCreacion")), cb.desc(t.get("idTarea")));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit.max())
+                .getResultList();
+    }
+}
@@ -0,0 +1,103 @@
+package com.metaphorce.TaskFlow.repository;
+
+import com.metaphorce.TaskFlow.dto.CursorTareaDTO;
+import com.metaphorce.TaskFlow.dto.FiltroTareasDTO;
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.OrdenTarea;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Piezas de la búsqueda de tareas; cada criterio presente en el filtro agrega una condición al mismo WHERE
+public final class TareasSpecifications {
+
+    private TareasSpecifications() {
+    }
+
+    public static Specification<Tareas> buscar(FiltroTareasDTO filtro, OrdenTarea orden, CursorTareaDTO cursor) {
+        List<Specification<Tareas>> condiciones = new ArrayList<>();
+        if (filtro.estatus() != null && !filtro.estatus().isEmpty()) {
+            condiciones.add(estatusEn(filtro.estatus()));
+        }
+        if (filtro.prioridad() != null && !filtro.prioridad().isEmpty()) {
+            condiciones.add(prioridadEn(filtro.prioridad()));
+        }
+        if (filtro.idProyecto() != null) {
+            condiciones.add(deProyecto(filtro.idProyecto()));
+        }
+        if (filtro.idAsignado() != null) {
+            condiciones.add(asignadaA(filtro.idAsignado()));
+        }
+        if (filtro.idCreador() != null) {
+            condiciones.add(creadaPor(filtro.idCreador()));
+        }
+        if (filtro.creadaDesde() != null || filtro.creadaHasta() != null) {
+            condiciones.add(entreFechas("fechaCreacion", filtro.creadaDesde(), filtro.creadaHasta()));
+        }
+        if (filtro.terminadaDesde() != null || filtro.terminadaHasta() != null) {
+            condiciones.add(entreFechas("fechaTerminada", filtro.terminadaDesde(), filtro.terminadaHasta()));
+        }
+        if (cursor != null) {
+            condiciones.add(despuesDe(cursor, orden));
+        }
+        return Specification.allOf(condiciones);
+    }
+
+    public static Specification<Tareas> estatusEn(Collection<Estatus> estatus) {
+        return (root, query, cb) -> root.get("estatus").in(estatus);
+    }
+
+    public static Specification<Tareas> prioridadEn(Collection<Prioridad> prioridades) {
+        return (root, query, cb) -> root.get("prioridad").in(prioridades);
+    }
+
+    public static Specification<Tareas> deProyecto(Integer idProyecto) {
+        return (root, query, cb) -> cb.equal(root.get("proyecto").get("idProyecto"), idProyecto);
+    }
+
+    public static Specification<Tareas> asignadaA(Integer idUsuario) {
+        return (root, query, cb) -> cb.equal(root.get("usuarioAsignada").get("idUsuario"), idUsuario);
+    }
+
+    public static Specification<Tareas> creadaPor(Integer idUsuario) {
+        return (root, query, cb) -> cb.equal(root.get("creadorTarea").get("idUsuario"), idUsuario);
+    }
+
+    // Rango cerrado; cualquiera de los dos extremos puede faltar
+    public static Specification<Tareas> entreFechas(String campo, LocalDateTime desde, LocalDateTime hasta) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> fecha = root.get(campo);
+            if (desde == null) {
+                return cb.lessThanOrEqualTo(fecha, hasta);
+            }
+            if (hasta == null) {
+                return cb.greaterThanOrEqualTo(fecha, desde);
+            }
+            return cb.between(fecha, desde, hasta);
+        };
+    }
+
+    // Paginación por cursor (keyset) para cada orden: el cursor trae los valores de orden de la última tarea recibida
+    // (su fecha y su id), así que la página siguiente no vuelve a leer esa tarea
+    public static Specification<Tareas> despuesDe(CursorTareaDTO cursor, OrdenTarea orden) {
+        return (root, query, cb) -> {
+            Path<Integer> id = root.get("idTarea");
+            if (orden == OrdenTarea.Id) {
+                return cb.greaterThan(id, cursor.idTarea());
+            }
+            Path<LocalDateTime> fecha = root.get("fechaCreacion");
+            if (orden == OrdenTarea.Fecha_creacion_desc) {
+                return cb.or(cb.lessThan(fecha, cursor.fechaCreacion()),
+                        cb.and(cb.equal(fecha, cursor.fechaCreacion()), cb.lessThan(id, cursor.idTarea())));
+            }
+            return cb.or(cb.greaterThan(fecha, cursor.fechaCreacion()),
+                    cb.and(cb.equal(fecha, cursor.fechaCreacion()), cb.greaterThan(id, cursor.idTarea())));
+        };
+    }
+}
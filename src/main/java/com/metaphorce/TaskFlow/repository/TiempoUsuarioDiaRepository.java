@@ -0,0 +1,55 @@
+package com.metaphorce.TaskFlow.repository;
+
+import com.metaphorce.TaskFlow.dto.TotalDiaDTO;
+import com.metaphorce.TaskFlow.modelo.TiempoUsuarioDia;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface TiempoUsuarioDiaRepository extends JpaRepository<TiempoUsuarioDia, TiempoUsuarioDia.Clave> {
+
+    // Suma (signo = 1) o resta (signo = -1) las sesiones indicadas tal como están guardadas en gestion_tiempo.
+    // Las sentencias de este upsert y de sumarDuraciones dependen del motor: META-INF/acumulados-{mysql,h2}.xml
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tiempo_usuario_dia"))
+    void aplicarSesiones(@Param("ids") Collection<Integer> ids, @Param("signo") int signo);
+
+    // Suma solo la duración de sesiones que ya se contaron al abrirse (sin duración) y acaban de cerrarse
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tiempo_usuario_dia"))
+    void sumarDuraciones(@Param("ids") Collection<Integer> ids);
+
+    // Totales diarios de un rango de días para todos los ids, base de los reportes por periodo
+    @Query("SELECT new com.metaphorce.TaskFlow.dto.TotalDiaDTO(t.clave.idUsuario, t.clave.dia, t.duracionTotal, t.sesiones) "
+            + "FROM TiempoUsuarioDia t WHERE t.clave.dia BETWEEN :desde AND :hasta AND t.sesiones > 0")
+    List<TotalDiaDTO> findTotales(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tiempo_usuario_dia"))
+    @Query(value = "DELETE FROM tiempo_usuario_dia", nativeQuery = true)
+    void vaciar();
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tiempo_usuario_dia"))
+    @Query(value = "INSERT INTO tiempo_usuario_dia (id_usuario, dia, duracion_total, sesiones) "
+            + "SELECT g.id_usuario, CAST(g.fecha_inicio AS DATE), COALESCE(SUM(g.duracion_sesion), 0), COUNT(*) "
+            + "FROM gestion_tiempo g GROUP BY g.id_usuario, CAST(g.fecha_inicio AS DATE)",
+            nativeQuery = true)
+    void reconstruir();
+}
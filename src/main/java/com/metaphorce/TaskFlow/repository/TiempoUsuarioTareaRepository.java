@@ -0,0 +1,47 @@
+package com.metaphorce.TaskFlow.repository;
+
+import com.metaphorce.TaskFlow.modelo.TiempoUsuarioTarea;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Repository
+@Transactional(readOnly = true)
+public interface TiempoUsuarioTareaRepository extends JpaRepository<TiempoUsuarioTarea, TiempoUsuarioTarea.Clave> {
+
+    // Suma (signo = 1) o resta (signo = -1) las sesiones indicadas tal como están guardadas en gestion_tiempo.
+    // Las sentencias nativas declaran su tabla: sin ella Hibernate vaciaría toda la caché de segundo nivel.
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tiempo_usuario_tarea"))
+    void aplicarSesiones(@Param("ids") Collection<Integer> ids, @Param("signo") int signo);
+
+    // Suma solo la duración de sesiones que ya se contaron al abrirse (sin duración) y acaban de cerrarse
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tiempo_usuario_tarea"))
+    void sumarDuraciones(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tiempo_usuario_tarea"))
+    @Query(value = "DELETE FROM tiempo_usuario_tarea", nativeQuery = true)
+    void vaciar();
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tiempo_usuario_tarea"))
+    @Query(value = "INSERT INTO tiempo_usuario_tarea (id_usuario, id_tarea, duracion_total, sesiones) "
+            + "SELECT g.id_usuario, g.id_tarea, COALESCE(SUM(g.duracion_sesion), 0), COUNT(*) "
+            + "FROM gestion_tiempo g GROUP BY g.id_usuario, g.id_tarea",
+            nativeQuery = true)
+    void reconstruir();
+}
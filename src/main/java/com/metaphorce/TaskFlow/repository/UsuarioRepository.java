@@ -1,19 +1,76 @@
 package com.metaphorce.TaskFlow.repository;
 
+import com.metaphorce.TaskFlow.config.CacheConfig;
+import com.metaphorce.TaskFlow.dto.ClaveIdDTO;
+import com.metaphorce.TaskFlow.dto.UsuarioDTO;
 import com.metaphorce.TaskFlow.enums.Rol;
 import com.metaphorce.TaskFlow.modelo.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
 
-    Optional<Usuario> findByCorreo(String correo);
+    // Proyección a DTO: solo las columnas públicas, nunca el hash de la contraseña
+    String SELECT_USUARIO_DTO = "SELECT new com.metaphorce.TaskFlow.dto.UsuarioDTO(u.idUsuario, u.nombre, u.correo, u.rol) FROM Usuario u ";
 
-    List<Usuario> findByRol(Rol rol);
+    @Query(SELECT_USUARIO_DTO + "ORDER BY u.idUsuario")
+    List<UsuarioDTO> findAllDTO();
 
-    Optional<Usuario> findByNombre(String nombre);
+    @Query(SELECT_USUARIO_DTO + "WHERE u.idUsuario = :id")
+    Optional<UsuarioDTO> findDTOById(@Param("id") Integer id);
+
+    // En la primaria: se usa antes de guardar y una versión atrasada de la réplica haría fallar el PUT
+    @Transactional
+    @Query("SELECT u.version FROM Usuario u WHERE u.idUsuario = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+
+    // Caché de consultas: el resultado se invalida con cualquier escritura en la tabla usuario
+    @Query(SELECT_USUARIO_DTO + "WHERE u.correo = :correo")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.REGION_CONSULTAS_USUARIO)
+    })
+    Optional<UsuarioDTO> findDTOByCorreo(@Param("correo") String correo);
+
+    @Query(SELECT_USUARIO_DTO + "WHERE u.rol = :rol")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.REGION_CONSULTAS_USUARIO)
+    })
+    List<UsuarioDTO> findDTOByRol(@Param("rol") Rol rol);
+
+    // En la primaria: decide si hace falta dar de alta al primer Lider
+    @Transactional
+    boolean existsByRol(Rol rol);
+
+    @Query(SELECT_USUARIO_DTO + "WHERE u.nombre = :nombre")
+    Optional<UsuarioDTO> findDTOByNombre(@Param("nombre") String nombre);
+
+    // Solo para verificar credenciales: es la única consulta que lee el hash. Va a la primaria para que un cambio de
+    // contraseña aplique de inmediato
+    @Transactional
+    @Query("SELECT u FROM Usuario u WHERE u.correo = :correo")
+    Optional<Usuario> findConHashByCorreo(@Param("correo") String correo);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.contraseniaHash = :hash, u.version = u.version + 1 WHERE u.idUsuario = :id")
+    void actualizarHash(@Param("id") Integer id, @Param("hash") String hash);
+
+    // Importación: ids de los usuarios de un bloque de correos en una sola consulta
+    @Query("SELECT new com.metaphorce.TaskFlow.dto.ClaveIdDTO(u.correo, u.idUsuario) FROM Usuario u WHERE u.correo IN :correos")
+    List<ClaveIdDTO> findIdsByCorreoIn(@Param("correos") Collection<String> correos);
 }
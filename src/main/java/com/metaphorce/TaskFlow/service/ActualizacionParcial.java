@@ -0,0 +1,119 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Traduce un JSON Merge Patch (RFC 7396) a un solo UPDATE de las columnas presentes en el parche más version + 1,
+// sin leer la entidad antes. Las llaves son las del DTO de lectura; las relaciones llegan por id (idProyecto) y se
+// escriben como llave foránea.
+@Component
+public class ActualizacionParcial {
+
+    // Campo que acepta el parche: atributo de la entidad, tipo del valor, si admite null y si es una relación
+    // (entonces tipo es la entidad y el valor del parche es su id)
+    public record Campo(String atributo, Class<?> tipo, boolean anulable, boolean relacion) {
+
+        public static Campo valor(String atributo, Class<?> tipo, boolean anulable) {
+            return new Campo(atributo, tipo, anulable, false);
+        }
+
+        public static Campo relacion(String atributo, Class<?> entidad) {
+            return new Campo(atributo, entidad, false, true);
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // true si se actualizó, false si no existe; con versionEsperada distinta de la vigente lanza el mismo error que
+    // un conflicto de @Version. Un parche vacío no escribe nada.
+    @Transactional
+    public <T> boolean aplicar(Class<T> entidad, String atributoId, Integer id, Long versionEsperada,
+                               Map<String, Campo> campos, ObjectNode parche) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        if (parche.isEmpty()) {
+            return existe(entidad, atributoId, id, versionEsperada);
+        }
+
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(entidad);
+        Root<T> raiz = update.from(entidad);
+        for (Map.Entry<String, JsonNode> entrada : parche.properties()) {
+            Campo campo = campos.get(entrada.getKey());
+            if (campo == null) {
+                throw new IllegalArgumentException("El campo " + entrada.getKey() + " no se puede modificar");
+            }
+            Object valor;
+            if (entrada.getValue().isNull()) {
+                if (!campo.anulable()) {
+                    throw new IllegalArgumentException("El campo " + entrada.getKey() + " no admite null");
+                }
+                valor = null;
+            } else if (campo.relacion()) {
+                valor = entityManager.getReference(campo.tipo(), convertir(entrada, Integer.class));
+            } else {
+                valor = convertir(entrada, campo.tipo());
+            }
+            update.set(campo.atributo(), valor);
+        }
+        Path<Long> version = raiz.get("version");
+        update.set(version, cb.sum(version, 1L));
+        update.where(condiciones(cb, raiz, atributoId, id, versionEsperada));
+
+        if (entityManager.createQuery(update).executeUpdate() > 0) {
+            return true;
+        }
+        return existe(entidad, atributoId, id, versionEsperada);
+    }
+
+    private <T> boolean existe(Class<T> entidad, String atributoId, Integer id, Long versionEsperada) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> raiz = query.from(entidad);
+        query.select(raiz.get("version")).where(cb.equal(raiz.get(atributoId), id));
+        List<Long> vigente = entityManager.createQuery(query).getResultList();
+        if (vigente.isEmpty()) {
+            return false;
+        }
+        if (versionEsperada != null && !versionEsperada.equals(vigente.get(0))) {
+            throw new ObjectOptimisticLockingFailureException(entidad, id);
+        }
+        return true;
+    }
+
+    private Predicate[] condiciones(CriteriaBuilder cb, Root<?> raiz, String atributoId, Integer id, Long versionEsperada) {
+        List<Predicate> condiciones = new ArrayList<>();
+        condiciones.add(cb.equal(raiz.get(atributoId), id));
+        if (versionEsperada != null) {
+            condiciones.add(cb.equal(raiz.get("version"), versionEsperada));
+        }
+        return condiciones.toArray(Predicate[]::new);
+    }
+
+    private <V> V convertir(Map.Entry<String, JsonNode> entrada, Class<V> tipo) {
+        try {
+            return objectMapper.convertValue(entrada.getValue(), tipo);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor inválido para " + entrada.getKey(), e);
+        }
+    }
+}
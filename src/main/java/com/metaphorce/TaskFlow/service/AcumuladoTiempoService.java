@@ -0,0 +1,19 @@
+package com.metaphorce.TaskFlow.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface AcumuladoTiempoService {
+    void sumarSesion(Integer idGestion);
+    void sumarSesiones(Collection<Integer> idsGestion);
+    void restarSesion(Integer idGestion);
+    void restarSesiones(Collection<Integer> idsGestion);
+    void sumarDuracion(Integer idGestion);
+    void restarTiempoDeProyecto(Collection<Integer> idsTarea);
+    void sumarTiempoAProyecto(Collection<Integer> idsTarea);
+    void reconstruir();
+
+    Integer getDuracionTotalUsuarioTarea(Integer idUsuario, Integer idTarea);
+    Integer getDuracionTotalUsuarioDia(Integer idUsuario, LocalDate dia);
+    Integer getDuracionTotalProyectoDia(Integer idProyecto, LocalDate dia);
+}
@@ -0,0 +1,157 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.config.CacheConfig;
+import com.metaphorce.TaskFlow.modelo.TiempoProyectoDia;
+import com.metaphorce.TaskFlow.modelo.TiempoUsuarioDia;
+import com.metaphorce.TaskFlow.modelo.TiempoUsuarioTarea;
+import com.metaphorce.TaskFlow.repository.TiempoProyectoDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoTareaDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoUsuarioDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoUsuarioTareaRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@Timed("taskflow.service")
+public class AcumuladoTiempoServiceImpl implements AcumuladoTiempoService {
+
+    @Autowired
+    private TiempoUsuarioTareaRepository tiempoUsuarioTareaRepository;
+
+    @Autowired
+    private TiempoUsuarioDiaRepository tiempoUsuarioDiaRepository;
+
+    @Autowired
+    private TiempoTareaDiaRepository tiempoTareaDiaRepository;
+
+    @Autowired
+    private TiempoProyectoDiaRepository tiempoProyectoDiaRepository;
+
+    @Autowired
+    private ReportesTiempoService reportesTiempoService;
+
+    // Debe ejecutarse en la misma transacción que guardó el registro de tiempo
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sumarSesion(Integer idGestion) {
+        aplicar(List.of(idGestion), 1);
+    }
+
+    // Versión para cargas masivas: una sola sentencia por acumulado para todo el lote
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sumarSesiones(Collection<Integer> idsGestion) {
+        if (!idsGestion.isEmpty()) {
+            aplicar(idsGestion, 1);
+        }
+    }
+
+    // Debe ejecutarse antes de modificar o borrar el registro, dentro de la misma transacción
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void restarSesion(Integer idGestion) {
+        aplicar(List.of(idGestion), -1);
+    }
+
+    // Para los borrados en cascada de tareas, proyectos y usuarios: los acumulados no tienen llaves foráneas, así que
+    // se descuentan antes del borrado, en su misma transacción. Por bloques para acotar la lista IN.
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void restarSesiones(Collection<Integer> idsGestion) {
+        if (idsGestion.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = List.copyOf(idsGestion);
+        for (int inicio = 0; inicio < ids.size(); inicio += ProcesadorLotes.TAMANIO_LOTE) {
+            aplicar(ids.subList(inicio, Math.min(inicio + ProcesadorLotes.TAMANIO_LOTE, ids.size())), -1);
+        }
+        reportesTiempoService.invalidarTodo();
+    }
+
+    // Al cerrar una sesión abierta: ya se contó al crearse, solo falta su duración
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sumarDuracion(Integer idGestion) {
+        List<Integer> ids = List.of(idGestion);
+        tiempoUsuarioTareaRepository.sumarDuraciones(ids);
+        tiempoUsuarioDiaRepository.sumarDuraciones(ids);
+        tiempoTareaDiaRepository.sumarDuraciones(ids);
+        tiempoProyectoDiaRepository.sumarDuraciones(ids);
+    }
+
+    // Al mover tareas de proyecto: el acumulado por proyecto se calcula con el proyecto actual de la tarea, así que su
+    // tiempo se descuenta antes del cambio y se vuelve a sumar después, en la misma transacción
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void restarTiempoDeProyecto(Collection<Integer> idsTarea) {
+        if (!idsTarea.isEmpty()) {
+            tiempoProyectoDiaRepository.aplicarTareas(idsTarea, -1);
+        }
+    }
+
+    // El cambio de proyecto se vuelca antes: la sentencia lee tareas.id_proyecto
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sumarTiempoAProyecto(Collection<Integer> idsTarea) {
+        if (idsTarea.isEmpty()) {
+            return;
+        }
+        tiempoProyectoDiaRepository.flush();
+        tiempoProyectoDiaRepository.aplicarTareas(idsTarea, 1);
+        reportesTiempoService.invalidarTodo();
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    public void reconstruir() {
+        tiempoUsuarioTareaRepository.vaciar();
+        tiempoUsuarioDiaRepository.vaciar();
+        tiempoTareaDiaRepository.vaciar();
+        tiempoProyectoDiaRepository.vaciar();
+        tiempoUsuarioTareaRepository.reconstruir();
+        tiempoUsuarioDiaRepository.reconstruir();
+        tiempoTareaDiaRepository.reconstruir();
+        tiempoProyectoDiaRepository.reconstruir();
+        reportesTiempoService.invalidarTodo();
+    }
+
+    @Override
+    public Integer getDuracionTotalUsuarioTarea(Integer idUsuario, Integer idTarea) {
+        return tiempoUsuarioTareaRepository.findById(new TiempoUsuarioTarea.Clave(idUsuario, idTarea))
+                .filter(acumulado -> acumulado.getSesiones() > 0)
+                .map(TiempoUsuarioTarea::getDuracionTotal)
+                .orElse(null);
+    }
+
+    @Override
+    public Integer getDuracionTotalUsuarioDia(Integer idUsuario, LocalDate dia) {
+        return tiempoUsuarioDiaRepository.findById(new TiempoUsuarioDia.Clave(idUsuario, dia))
+                .filter(acumulado -> acumulado.getSesiones() > 0)
+                .map(TiempoUsuarioDia::getDuracionTotal)
+                .orElse(null);
+    }
+
+    @Override
+    public Integer getDuracionTotalProyectoDia(Integer idProyecto, LocalDate dia) {
+        return tiempoProyectoDiaRepository.findById(new TiempoProyectoDia.Clave(idProyecto, dia))
+                .filter(acumulado -> acumulado.getSesiones() > 0)
+                .map(TiempoProyectoDia::getDuracionTotal)
+                .orElse(null);
+    }
+
+    private void aplicar(Collection<Integer> idsGestion, int signo) {
+        tiempoUsuarioTareaRepository.aplicarSesiones(idsGestion, signo);
+        tiempoUsuarioDiaRepository.aplicarSesiones(idsGestion, signo);
+        tiempoTareaDiaRepository.aplicarSesiones(idsGestion, signo);
+        tiempoProyectoDiaRepository.aplicarSesiones(idsGestion, signo);
+    }
+}
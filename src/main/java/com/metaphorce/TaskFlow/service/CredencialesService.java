@@ -0,0 +1,12 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.SesionDTO;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface CredencialesService {
+    CompletableFuture<String> hashear(String contrasenia);
+    CompletableFuture<Optional<SesionDTO>> login(String correo, String contrasenia);
+    Optional<SesionDTO> verificarToken(String token);
+    void cerrarSesion(String token);
+}
@@ -0,0 +1,126 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.SesionDTO;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+@Service
+@Timed("taskflow.service")
+public class CredencialesServiceImpl implements CredencialesService {
+
+    private static final Logger log = LoggerFactory.getLogger(CredencialesServiceImpl.class);
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${taskflow.credenciales.hilos:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int hilos;
+
+    @Value("${taskflow.credenciales.cola:100}")
+    private int cola;
+
+    // BCrypt es trabajo de CPU: se limita a unos pocos hilos de plataforma y a una cola acotada; cuando la cola se
+    // llena la tarea se rechaza (control de admisión) en lugar de acumular peticiones. El pool es propio del servicio
+    // y no un bean Executor, así Boot sigue creando el applicationTaskExecutor (hilos virtuales) para MVC asíncrono
+    private ThreadPoolTaskExecutor hashExecutor;
+
+    private String hashFicticio;
+
+    @PostConstruct
+    void iniciar() {
+        hashExecutor = new ThreadPoolTaskExecutor();
+        hashExecutor.setThreadNamePrefix("bcrypt-");
+        hashExecutor.setCorePoolSize(hilos);
+        hashExecutor.setMaxPoolSize(hilos);
+        hashExecutor.setQueueCapacity(cola);
+        hashExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        hashExecutor.initialize();
+        new ExecutorServiceMetrics(hashExecutor.getThreadPoolExecutor(), "hashExecutor", List.of()).bindTo(meterRegistry);
+        hashFicticio = passwordEncoder.encode("taskflow");
+    }
+
+    @PreDestroy
+    void cerrar() {
+        hashExecutor.shutdown();
+    }
+
+    @Override
+    public CompletableFuture<String> hashear(String contrasenia) {
+        return enHashExecutor(() -> passwordEncoder.encode(contrasenia));
+    }
+
+    // Con un correo inexistente también se verifica un hash, para que el tiempo de respuesta no delate qué correos existen
+    @Override
+    public CompletableFuture<Optional<SesionDTO>> login(String correo, String contrasenia) {
+        Optional<Usuario> usuario = usuarioRepository.findConHashByCorreo(correo);
+        String hash = usuario.map(Usuario::getContraseniaHash).orElse(hashFicticio);
+        return enHashExecutor(() -> passwordEncoder.matches(contrasenia, hash))
+                .thenApply(valida -> {
+                    if (!valida || usuario.isEmpty()) {
+                        return Optional.empty();
+                    }
+                    if (passwordEncoder.upgradeEncoding(hash)) {
+                        rehashear(usuario.get().getIdUsuario(), contrasenia);
+                    }
+                    Usuario valido = usuario.get();
+                    return Optional.of(tokenService.emitir(valido.getIdUsuario(), valido.getCorreo(), valido.getRol()));
+                });
+    }
+
+    // Las llamadas autenticadas solo verifican la firma del token; el costo de BCrypt se paga una vez por sesión
+    @Override
+    public Optional<SesionDTO> verificarToken(String token) {
+        return tokenService.verificar(token);
+    }
+
+    @Override
+    public void cerrarSesion(String token) {
+        tokenService.revocar(token);
+    }
+
+    // El hash con el costo nuevo se calcula y guarda en segundo plano; el inicio de sesión no lo espera
+    private void rehashear(Integer idUsuario, String contrasenia) {
+        hashear(contrasenia)
+                .thenAccept(nuevoHash -> usuarioRepository.actualizarHash(idUsuario, nuevoHash))
+                .exceptionally(e -> {
+                    log.warn("No se pudo actualizar el hash del usuario {}", idUsuario, e);
+                    return null;
+                });
+    }
+
+    private <T> CompletableFuture<T> enHashExecutor(Supplier<T> tarea) {
+        try {
+            return CompletableFuture.supplyAsync(tarea, hashExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.EstadisticasCacheDTO;
+import com.metaphorce.TaskFlow.dto.EstadisticasRegionDTO;
+import java.util.List;
+
+public interface EstadisticasCacheService {
+    List<EstadisticasCacheDTO> getEstadisticas();
+
+    List<EstadisticasRegionDTO> getEstadisticasRegiones();
+}
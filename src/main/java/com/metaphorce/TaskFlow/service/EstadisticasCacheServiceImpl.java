@@ -0,0 +1,71 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.metaphorce.TaskFlow.dto.EstadisticasCacheDTO;
+import com.metaphorce.TaskFlow.dto.EstadisticasRegionDTO;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@Timed("taskflow.service")
+public class EstadisticasCacheServiceImpl implements EstadisticasCacheService {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public List<EstadisticasCacheDTO> getEstadisticas() {
+        return cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(CaffeineCache.class::isInstance)
+                .map(CaffeineCache.class::cast)
+                .map(cache -> {
+                    CacheStats stats = cache.getNativeCache().stats();
+                    return new EstadisticasCacheDTO(
+                            cache.getName(),
+                            cache.getNativeCache().estimatedSize(),
+                            stats.hitCount(),
+                            stats.missCount(),
+                            stats.evictionCount(),
+                            stats.hitRate());
+                })
+                .toList();
+    }
+
+    // Regiones de la caché de segundo nivel de Hibernate: entidades, colecciones y consultas
+    @Override
+    public List<EstadisticasRegionDTO> getEstadisticasRegiones() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> {
+                    CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+                    if (stats == null) {
+                        return null;
+                    }
+                    long consultas = stats.getHitCount() + stats.getMissCount();
+                    return new EstadisticasRegionDTO(
+                            region,
+                            stats.getHitCount(),
+                            stats.getMissCount(),
+                            stats.getPutCount(),
+                            consultas > 0 ? (double) stats.getHitCount() / consultas : 0);
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,12 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.GestionTiempoDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.enums.TipoCambio;
+
+public interface EventosCambioService {
+    void publicarTarea(TipoCambio tipo, TareaDTO tarea);
+    void publicarGestionTiempo(TipoCambio tipo, GestionTiempoDTO gestionTiempo);
+    Runnable suscribir(Integer idUsuario, Integer idProyecto, SuscriptorCambios suscriptor);
+    int getSuscripciones();
+}
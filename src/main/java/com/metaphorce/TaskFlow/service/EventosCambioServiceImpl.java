@@ -0,0 +1,153 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.EventoCambioDTO;
+import com.metaphorce.TaskFlow.dto.GestionTiempoDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.enums.RecursoCambio;
+import com.metaphorce.TaskFlow.enums.TipoCambio;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bus de eventos en memoria para el feed de cambios. Publicar solo encola en el buffer acotado de cada suscripción
+// que coincide con el filtro; cada suscripción lo vacía en su propio hilo virtual, así un cliente lento no frena
+// a quien escribe ni a los demás clientes. Si el buffer se llena la suscripción se termina como desbordada.
+@Service
+@Timed("taskflow.service")
+public class EventosCambioServiceImpl implements EventosCambioService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventosCambioServiceImpl.class);
+
+    private final Set<Suscripcion> suscripciones = ConcurrentHashMap.newKeySet();
+    private final AtomicLong secuencia = new AtomicLong();
+
+    @Value("${taskflow.eventos.buffer:256}")
+    private int buffer;
+
+    @Value("${taskflow.eventos.latido:15s}")
+    private Duration latido;
+
+    // Se publica al confirmar la transacción, para no anunciar cambios que terminan en rollback
+    @Override
+    public void publicarTarea(TipoCambio tipo, TareaDTO tarea) {
+        alConfirmar(() -> difundir(new EventoCambioDTO(secuencia.incrementAndGet(), tipo, RecursoCambio.Tarea, tarea.idTarea(), tarea),
+                Arrays.asList(tarea.idUsuarioAsignada(), tarea.idCreadorTarea()), tarea.idProyecto()));
+    }
+
+    // Los registros de tiempo no conocen su proyecto: solo llegan a las suscripciones por usuario
+    @Override
+    public void publicarGestionTiempo(TipoCambio tipo, GestionTiempoDTO gestionTiempo) {
+        alConfirmar(() -> difundir(new EventoCambioDTO(secuencia.incrementAndGet(), tipo, RecursoCambio.GestionTiempo,
+                gestionTiempo.idGestion(), gestionTiempo), Arrays.asList(gestionTiempo.idUsuario()), null));
+    }
+
+    // Devuelve la acción que cancela la suscripción
+    @Override
+    public Runnable suscribir(Integer idUsuario, Integer idProyecto, SuscriptorCambios suscriptor) {
+        Suscripcion suscripcion = new Suscripcion(idUsuario, idProyecto, suscriptor, new ArrayBlockingQueue<>(buffer));
+        suscripcion.hilo = Thread.ofVirtual().name("eventos-cambio-" + secuencia.get()).unstarted(() -> vaciar(suscripcion));
+        suscripciones.add(suscripcion);
+        suscripcion.hilo.start();
+        return () -> cancelar(suscripcion);
+    }
+
+    @Override
+    public int getSuscripciones() {
+        return suscripciones.size();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        suscripciones.forEach(this::cancelar);
+    }
+
+    private void difundir(EventoCambioDTO evento, Collection<Integer> usuarios, Integer idProyecto) {
+        for (Suscripcion suscripcion : suscripciones) {
+            if (suscripcion.coincide(usuarios, idProyecto) && !suscripcion.pendientes.offer(evento)) {
+                suscripcion.desbordada = true;
+                cancelar(suscripcion);
+            }
+        }
+    }
+
+    private void vaciar(Suscripcion suscripcion) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                EventoCambioDTO evento = suscripcion.pendientes.poll(latido.toMillis(), TimeUnit.MILLISECONDS);
+                if (evento != null) {
+                    suscripcion.suscriptor.entregar(evento);
+                } else {
+                    suscripcion.suscriptor.latido();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.debug("Suscripción al feed de cambios cerrada: {}", e.getMessage());
+        } finally {
+            suscripciones.remove(suscripcion);
+            suscripcion.suscriptor.terminar(suscripcion.desbordada);
+        }
+    }
+
+    private void cancelar(Suscripcion suscripcion) {
+        if (suscripciones.remove(suscripcion)) {
+            suscripcion.hilo.interrupt();
+        }
+    }
+
+    private void alConfirmar(Runnable publicacion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publicacion.run();
+                }
+            });
+        } else {
+            publicacion.run();
+        }
+    }
+
+    // Sin filtros se reciben todos los cambios; con ambos, los que coinciden con cualquiera de los dos
+    private static final class Suscripcion {
+
+        final Integer idUsuario;
+        final Integer idProyecto;
+        final SuscriptorCambios suscriptor;
+        final BlockingQueue<EventoCambioDTO> pendientes;
+        Thread hilo;
+        volatile boolean desbordada;
+
+        Suscripcion(Integer idUsuario, Integer idProyecto, SuscriptorCambios suscriptor, BlockingQueue<EventoCambioDTO> pendientes) {
+            this.idUsuario = idUsuario;
+            this.idProyecto = idProyecto;
+            this.suscriptor = suscriptor;
+            this.pendientes = pendientes;
+        }
+
+        boolean coincide(Collection<Integer> usuarios, Integer proyecto) {
+            if (idUsuario == null && idProyecto == null) {
+                return true;
+            }
+            return (idUsuario != null && usuarios.contains(idUsuario))
+                    || (idProyecto != null && Objects.equals(idProyecto, proyecto));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.metaphorce.TaskFlow.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.CRC32C;
+
+// Tokens revocados: filtros de Bloom repartidos en una rueda por fecha de expiración. Cada casilla cubre un intervalo
+// de tiempo y se vacía completa cuando ese intervalo vuelve a usarse, así la memoria no crece con las revocaciones viejas.
+// Un falso positivo solo obliga a volver a iniciar sesión; nunca deja pasar un token revocado.
+class FiltroRevocacion {
+
+    private static final int HASHES = 7;
+
+    private final Casilla[] rueda;
+    private final long anchoCasilla;
+    private final int bits;
+
+    // Con la duración máxima de un token repartida en casillas - 2 intervalos, un token vigente nunca
+    // cae en una casilla que se esté reutilizando
+    FiltroRevocacion(Duration duracionMaxima, int casillas, int bitsPorCasilla) {
+        this.rueda = new Casilla[casillas];
+        this.anchoCasilla = Math.max(1, duracionMaxima.toSeconds() / (casillas - 2));
+        this.bits = bitsPorCasilla;
+        for (int i = 0; i < casillas; i++) {
+            rueda[i] = new Casilla(bitsPorCasilla);
+        }
+    }
+
+    void revocar(String id, Instant expira) {
+        long periodo = expira.getEpochSecond() / anchoCasilla;
+        Casilla casilla = rueda[(int) (periodo % rueda.length)];
+        synchronized (casilla) {
+            if (casilla.periodo != periodo) {
+                casilla.vaciar(periodo);
+            }
+            for (int posicion : posiciones(id)) {
+                casilla.bits.getAndAccumulate(posicion >>> 6, 1L << posicion, (actual, bit) -> actual | bit);
+            }
+        }
+    }
+
+    boolean revocado(String id, Instant expira) {
+        long periodo = expira.getEpochSecond() / anchoCasilla;
+        Casilla casilla = rueda[(int) (periodo % rueda.length)];
+        if (casilla.periodo != periodo) {
+            return false;
+        }
+        for (int posicion : posiciones(id)) {
+            if ((casilla.bits.get(posicion >>> 6) & (1L << posicion)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Doble hash (Kirsch-Mitzenmacher): h1 + i * h2 da las k posiciones a partir de dos hashes
+    private int[] posiciones(String id) {
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        int h1 = id.hashCode();
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        int h2 = (int) crc.getValue() | 1;
+        int[] posiciones = new int[HASHES];
+        for (int i = 0; i < HASHES; i++) {
+            posiciones[i] = Math.floorMod(h1 + i * h2, bits);
+        }
+        return posiciones;
+    }
+
+    private static final class Casilla {
+
+        private final AtomicLongArray bits;
+        private volatile long periodo = -1;
+
+        private Casilla(int bits) {
+            this.bits = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        private void vaciar(long nuevoPeriodo) {
+            for (int i = 0; i < bits.length(); i++) {
+                bits.set(i, 0);
+            }
+            periodo = nuevoPeriodo;
+        }
+    }
+}
@@ -1,19 +1,36 @@
 package com.metaphorce.TaskFlow.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.dto.FirmaColeccionDTO;
+import com.metaphorce.TaskFlow.dto.GestionTiempoDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoLoteDTO;
 import com.metaphorce.TaskFlow.modelo.GestionTiempo;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface GestionTiempoService {
-    List<GestionTiempo> getAllGestionTiempo();
-    Optional<GestionTiempo> getGestionTiempoById(Integer id);
+    List<GestionTiempoDTO> getAllGestionTiempo(Integer cursor, int size);
+    void streamAllGestionTiempo(Consumer<GestionTiempoDTO> consumer);
+    Optional<GestionTiempoDTO> getGestionTiempoById(Integer id);
+    Optional<Long> getVersionGestionTiempo(Integer id);
     GestionTiempo createGestionTiempo(GestionTiempo gestionTiempo);
+    ResultadoLoteDTO createGestionesTiempo(Iterator<GestionTiempo> gestionesTiempo);
     GestionTiempo updateGestionTiempo(Integer id, GestionTiempo gestionTiempo);
+    ResultadoLoteDTO updateGestionesTiempo(Iterator<GestionTiempo> gestionesTiempo);
+    boolean patchGestionTiempo(Integer id, Long versionEsperada, ObjectNode parche);
     void deleteGestionTiempo(Integer id);
 
-    List<GestionTiempo> getGestionTiempoByPeriodo(LocalDateTime startDate, LocalDateTime endDate);
-    List<GestionTiempo> getGestionTiempoByUsuario(Integer idUsuario);
-    List<GestionTiempo> getGestionTiempoByUsuarioAndTarea(Integer idUsuario, Integer idTarea);
+    Optional<GestionTiempoDTO> iniciarSesion(Integer idUsuario, Integer idTarea);
+    Optional<GestionTiempoDTO> detenerSesion(Integer idUsuario);
+    Optional<GestionTiempoDTO> getSesionAbierta(Integer idUsuario);
+
+    List<GestionTiempoDTO> getGestionTiempoByPeriodo(LocalDateTime startDate, LocalDateTime endDate, Integer cursor, int size);
+    void exportarGestionTiempoByPeriodo(LocalDateTime startDate, LocalDateTime endDate, Integer cursor, Consumer<GestionTiempoDTO> consumer);
+    List<GestionTiempoDTO> getGestionTiempoByUsuario(Integer idUsuario, Integer cursor, int size);
+    FirmaColeccionDTO getFirmaGestionTiempoByUsuario(Integer idUsuario);
+    List<GestionTiempoDTO> getGestionTiempoByUsuarioAndTarea(Integer idUsuario, Integer idTarea, Integer cursor, int size);
     Integer getDuracionTotalSesion(Integer idUsuario, Integer idTarea);
 }
@@ -1,65 +1,340 @@
 package com.metaphorce.TaskFlow.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.config.CacheConfig;
+import com.metaphorce.TaskFlow.dto.FirmaColeccionDTO;
+import com.metaphorce.TaskFlow.dto.GestionTiempoDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoLoteDTO;
+import com.metaphorce.TaskFlow.enums.TipoCambio;
 import com.metaphorce.TaskFlow.modelo.GestionTiempo;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.Usuario;
 import com.metaphorce.TaskFlow.repository.GestionTiempoRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("taskflow.service")
 public class GestionTiempoServiceImpl implements GestionTiempoService {
 
+    // Campos que acepta el PATCH, con los nombres de GestionTiempoDTO; duracionSesion la calcula la base de datos
+    private static final Map<String, ActualizacionParcial.Campo> CAMPOS_PARCHE = Map.of(
+            "idTarea", ActualizacionParcial.Campo.relacion("tarea", Tareas.class),
+            "idUsuario", ActualizacionParcial.Campo.relacion("usuario", Usuario.class),
+            "fechaInicio", ActualizacionParcial.Campo.valor("fechaInicio", LocalDateTime.class, false),
+            "fechaFin", ActualizacionParcial.Campo.valor("fechaFin", LocalDateTime.class, true));
+
     @Autowired
     private GestionTiempoRepository gestionTiempoRepository;
 
+    @Autowired
+    private AcumuladoTiempoService acumuladoTiempoService;
+
+    @Autowired
+    private ProcesadorLotes procesadorLotes;
+
+    @Autowired
+    private EventosCambioService eventosCambioService;
+
+    @Autowired
+    private ReferenciasEntidades referenciasEntidades;
+
+    @Autowired
+    private ActualizacionParcial actualizacionParcial;
+
+    @Autowired
+    private SesionesAbiertas sesionesAbiertas;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReportesTiempoService reportesTiempoService;
+
     @Override
-    public List<GestionTiempo> getAllGestionTiempo() {
-        return gestionTiempoRepository.findAll();
+    public List<GestionTiempoDTO> getAllGestionTiempo(Integer cursor, int size) {
+        return gestionTiempoRepository.findByIdGestionGreaterThanOrderByIdGestionAsc(desde(cursor), Limit.of(size));
     }
 
     @Override
-    public Optional<GestionTiempo> getGestionTiempoById(Integer id) {
-        return gestionTiempoRepository.findById(id);
+    @Transactional(readOnly = true)
+    public void streamAllGestionTiempo(Consumer<GestionTiempoDTO> consumer) {
+        try (Stream<GestionTiempoDTO> registros = gestionTiempoRepository.streamAll()) {
+            registros.forEach(consumer);
+        }
+    }
+
+    @Override
+    public Optional<GestionTiempoDTO> getGestionTiempoById(Integer id) {
+        return gestionTiempoRepository.findDTOById(id);
     }
 
     @Override
+    public Optional<Long> getVersionGestionTiempo(Integer id) {
+        return gestionTiempoRepository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
     public GestionTiempo createGestionTiempo(GestionTiempo gestionTiempo) {
-        return gestionTiempoRepository.save(gestionTiempo);
+        GestionTiempo guardado = gestionTiempoRepository.saveAndFlush(referenciasEntidades.enlazar(gestionTiempo));
+        acumuladoTiempoService.sumarSesion(guardado.getIdGestion());
+        reportesTiempoService.invalidar(guardado.getFechaInicio().toLocalDate());
+        publicar(TipoCambio.Creado, guardado.getIdGestion());
+        return guardado;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    public ResultadoLoteDTO createGestionesTiempo(Iterator<GestionTiempo> gestionesTiempo) {
+        return procesadorLotes.procesar(gestionesTiempo, this::validarGestionTiempo, lote -> {
+            // Id y versión se limpian para que un reintento del lote (ver ProcesadorLotes) vuelva a insertar
+            lote.forEach(gestionTiempo -> {
+                referenciasEntidades.enlazar(gestionTiempo).setIdGestion(null);
+                gestionTiempo.setVersion(null);
+            });
+            List<Integer> ids = gestionTiempoRepository.saveAll(lote).stream().map(GestionTiempo::getIdGestion).toList();
+            gestionTiempoRepository.flush();
+            acumuladoTiempoService.sumarSesiones(ids);
+            gestionTiempoRepository.findDTOByIdGestionIn(ids).forEach(creado -> {
+                reportesTiempoService.invalidar(creado.fechaInicio().toLocalDate());
+                sesionesAbiertas.sincronizar(creado);
+                eventosCambioService.publicarGestionTiempo(TipoCambio.Creado, creado);
+            });
+            return ids;
+        });
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
     public GestionTiempo updateGestionTiempo(Integer id, GestionTiempo gestionTiempo) {
-        if (gestionTiempoRepository.existsById(id)) {
+        Optional<Long> vigente = gestionTiempoRepository.findVersionById(id);
+        if (vigente.isPresent()) {
+            // Se descuenta la versión anterior del registro y se suma la nueva
+            acumuladoTiempoService.restarSesion(id);
             gestionTiempo.setIdGestion(id);
-            return gestionTiempoRepository.save(gestionTiempo);
+            // Sin versión en el cuerpo (ni If-Match) se toma la vigente y el PUT sigue siendo incondicional
+            if (gestionTiempo.getVersion() == null) {
+                gestionTiempo.setVersion(vigente.get());
+            }
+            GestionTiempo guardado = gestionTiempoRepository.saveAndFlush(referenciasEntidades.enlazar(gestionTiempo));
+            acumuladoTiempoService.sumarSesion(id);
+            // No se conoce el día anterior del registro sin leerlo, así que se descartan todos los reportes
+            reportesTiempoService.invalidarTodo();
+            publicar(TipoCambio.Actualizado, id);
+            return guardado;
         }
         return null;
+    }
+
+    // Cada elemento se trata como un PUT: los acumulados descuentan las filas anteriores del bloque y suman las nuevas
+    // en la misma transacción. Un id inexistente solo falla su elemento y una versión vieja falla su bloque.
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    public ResultadoLoteDTO updateGestionesTiempo(Iterator<GestionTiempo> gestionesTiempo) {
+        return procesadorLotes.procesar(gestionesTiempo, this::validarActualizacion, lote -> {
+            // Con los registros cargados en el contexto el merge no hace un SELECT por elemento
+            Map<Integer, Long> vigentes = new HashMap<>();
+            gestionTiempoRepository.findAllById(lote.stream().map(GestionTiempo::getIdGestion).toList())
+                    .forEach(vigente -> vigentes.put(vigente.getIdGestion(), vigente.getVersion()));
+            List<Integer> ids = new ArrayList<>(lote.size());
+            List<GestionTiempo> existentes = new ArrayList<>(lote.size());
+            for (GestionTiempo gestionTiempo : lote) {
+                Long version = vigentes.get(gestionTiempo.getIdGestion());
+                ids.add(version != null ? gestionTiempo.getIdGestion() : null);
+                if (version != null) {
+                    if (gestionTiempo.getVersion() == null) {
+                        gestionTiempo.setVersion(version);
+                    }
+                    existentes.add(gestionTiempo);
+                }
+            }
+            List<Integer> actualizados = existentes.stream().map(GestionTiempo::getIdGestion).distinct().toList();
+            acumuladoTiempoService.restarSesiones(actualizados);
+            existentes.forEach(gestionTiempo -> gestionTiempoRepository.save(referenciasEntidades.enlazar(gestionTiempo)));
+            gestionTiempoRepository.flush();
+            acumuladoTiempoService.sumarSesiones(actualizados);
+            gestionTiempoRepository.findDTOByIdGestionIn(actualizados).forEach(actualizado -> {
+                sesionesAbiertas.sincronizar(actualizado);
+                eventosCambioService.publicarGestionTiempo(TipoCambio.Actualizado, actualizado);
+            });
+            return ids;
+        });
+    }
+
+    // Como en el PUT, los acumulados descuentan la fila anterior y suman la nueva dentro de la misma transacción
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    public boolean patchGestionTiempo(Integer id, Long versionEsperada, ObjectNode parche) {
+        acumuladoTiempoService.restarSesion(id);
+        if (!actualizacionParcial.aplicar(GestionTiempo.class, "idGestion", id, versionEsperada, CAMPOS_PARCHE, parche)) {
+            return false;
+        }
+        acumuladoTiempoService.sumarSesion(id);
+        reportesTiempoService.invalidarTodo();
+        publicar(TipoCambio.Actualizado, id);
+        return true;
+    }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
     public void deleteGestionTiempo(Integer id) {
+        Optional<GestionTiempoDTO> eliminado = gestionTiempoRepository.findDTOById(id);
+        acumuladoTiempoService.restarSesion(id);
         gestionTiempoRepository.deleteById(id);
+        eliminado.ifPresent(registro -> {
+            reportesTiempoService.invalidar(registro.fechaInicio().toLocalDate());
+            sesionesAbiertas.olvidar(registro);
+            eventosCambioService.publicarGestionTiempo(TipoCambio.Eliminado, registro);
+        });
     }
 
+    // El registro en memoria garantiza una sola sesión abierta por usuario sin consultar la base de datos; vacío si
+    // el usuario ya tiene una. Las fechas se truncan a segundos, la precisión de la columna.
     @Override
-    public List<GestionTiempo> getGestionTiempoByPeriodo(LocalDateTime startDate, LocalDateTime endDate) {
-        return gestionTiempoRepository.findByFechaInicioBetween(startDate, endDate);
+    public Optional<GestionTiempoDTO> iniciarSesion(Integer idUsuario, Integer idTarea) {
+        GestionTiempoDTO reserva = new GestionTiempoDTO(null, idTarea, idUsuario, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), null, null);
+        if (!sesionesAbiertas.reservar(reserva)) {
+            return Optional.empty();
+        }
+        try {
+            GestionTiempoDTO abierta = new TransactionTemplate(transactionManager).execute(status -> {
+                Tareas tarea = new Tareas();
+                tarea.setIdTarea(idTarea);
+                Usuario usuario = new Usuario();
+                usuario.setIdUsuario(idUsuario);
+                GestionTiempo gestionTiempo = new GestionTiempo();
+                gestionTiempo.setTarea(tarea);
+                gestionTiempo.setUsuario(usuario);
+                gestionTiempo.setFechaInicio(reserva.fechaInicio());
+                GestionTiempo guardado = gestionTiempoRepository.saveAndFlush(referenciasEntidades.enlazar(gestionTiempo));
+                acumuladoTiempoService.sumarSesion(guardado.getIdGestion());
+                GestionTiempoDTO creado = GestionTiempoDTO.from(guardado);
+                eventosCambioService.publicarGestionTiempo(TipoCambio.Creado, creado);
+                return creado;
+            });
+            sesionesAbiertas.confirmar(reserva, abierta);
+            return Optional.of(abierta);
+        } catch (RuntimeException e) {
+            sesionesAbiertas.liberar(reserva);
+            throw e;
+        }
+    }
+
+    // Un solo UPDATE de fecha_fin; los acumulados ya contaron la sesión al abrirse y solo suman su duración
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    public Optional<GestionTiempoDTO> detenerSesion(Integer idUsuario) {
+        Optional<GestionTiempoDTO> abierta = sesionesAbiertas.get(idUsuario);
+        if (abierta.isEmpty()) {
+            return Optional.empty();
+        }
+        GestionTiempoDTO sesion = abierta.get();
+        LocalDateTime fin = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Boolean cerrada = new TransactionTemplate(transactionManager).execute(status -> {
+            if (gestionTiempoRepository.cerrar(sesion.idGestion(), idUsuario, fin) == 0) {
+                return false;
+            }
+            acumuladoTiempoService.sumarDuracion(sesion.idGestion());
+            reportesTiempoService.invalidar(sesion.fechaInicio().toLocalDate());
+            if (eventosCambioService.getSuscripciones() > 0) {
+                publicar(TipoCambio.Actualizado, sesion.idGestion());
+            }
+            return true;
+        });
+        // Si otra ruta ya la había cerrado o borrado, la entrada estaba vencida y también se descarta
+        sesionesAbiertas.liberar(sesion);
+        if (!Boolean.TRUE.equals(cerrada)) {
+            return Optional.empty();
+        }
+        int duracion = (int) Duration.between(sesion.fechaInicio(), fin).toMinutes();
+        return Optional.of(new GestionTiempoDTO(sesion.idGestion(), sesion.idTarea(), idUsuario, sesion.fechaInicio(), fin, duracion));
     }
 
     @Override
-    public List<GestionTiempo> getGestionTiempoByUsuario(Integer idUsuario) {
-        return gestionTiempoRepository.findByUsuario_IdUsuario(idUsuario);
+    public Optional<GestionTiempoDTO> getSesionAbierta(Integer idUsuario) {
+        return sesionesAbiertas.get(idUsuario);
     }
 
     @Override
-    public List<GestionTiempo> getGestionTiempoByUsuarioAndTarea(Integer idUsuario, Integer idTarea) {
-        return gestionTiempoRepository.findByUsuario_IdUsuarioAndTarea_IdTarea(idUsuario, idTarea);
+    public List<GestionTiempoDTO> getGestionTiempoByPeriodo(LocalDateTime startDate, LocalDateTime endDate, Integer cursor, int size) {
+        return gestionTiempoRepository.findByFechaInicioBetweenAndIdGestionGreaterThanOrderByIdGestionAsc(startDate, endDate, desde(cursor), Limit.of(size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarGestionTiempoByPeriodo(LocalDateTime startDate, LocalDateTime endDate, Integer cursor, Consumer<GestionTiempoDTO> consumer) {
+        try (Stream<GestionTiempoDTO> registros = gestionTiempoRepository.streamByFechaInicioBetween(startDate, endDate, desde(cursor))) {
+            registros.forEach(consumer);
+        }
+    }
+
+    @Override
+    public List<GestionTiempoDTO> getGestionTiempoByUsuario(Integer idUsuario, Integer cursor, int size) {
+        return gestionTiempoRepository.findByUsuario_IdUsuarioAndIdGestionGreaterThanOrderByIdGestionAsc(idUsuario, desde(cursor), Limit.of(size));
+    }
+
+    @Override
+    public FirmaColeccionDTO getFirmaGestionTiempoByUsuario(Integer idUsuario) {
+        return gestionTiempoRepository.findFirmaByUsuario_IdUsuario(idUsuario);
+    }
+
+    @Override
+    public List<GestionTiempoDTO> getGestionTiempoByUsuarioAndTarea(Integer idUsuario, Integer idTarea, Integer cursor, int size) {
+        return gestionTiempoRepository.findByUsuario_IdUsuarioAndTarea_IdTareaAndIdGestionGreaterThanOrderByIdGestionAsc(idUsuario, idTarea, desde(cursor), Limit.of(size));
     }
 
     @Override
     public Integer getDuracionTotalSesion(Integer idUsuario, Integer idTarea) {
-        return gestionTiempoRepository.sumDuracionSesionByUsuarioAndTarea(idUsuario, idTarea);
+        return acumuladoTiempoService.getDuracionTotalUsuarioTarea(idUsuario, idTarea);
+    }
+
+    private String validarActualizacion(GestionTiempo gestionTiempo) {
+        return gestionTiempo.getIdGestion() == null ? "El registro debe indicar idGestion" : validarGestionTiempo(gestionTiempo);
+    }
+
+    private String validarGestionTiempo(GestionTiempo gestionTiempo) {
+        if (gestionTiempo.getTarea() == null || gestionTiempo.getUsuario() == null || gestionTiempo.getFechaInicio() == null) {
+            return "El registro debe indicar tarea, usuario y fecha de inicio";
+        }
+        if (gestionTiempo.getFechaFin() != null && gestionTiempo.getFechaFin().isBefore(gestionTiempo.getFechaInicio())) {
+            return "La fecha de fin no puede ser anterior a la fecha de inicio";
+        }
+        return null;
+    }
+
+    // Se relee la fila para incluir la duracion_sesion que calcula la base de datos
+    private void publicar(TipoCambio tipo, Integer id) {
+        gestionTiempoRepository.findDTOById(id).ifPresent(registro -> {
+            sesionesAbiertas.sincronizar(registro);
+            eventosCambioService.publicarGestionTiempo(tipo, registro);
+        });
+    }
+
+    // Sin cursor se empieza desde el primer id
+    private Integer desde(Integer cursor) {
+        return cursor != null ? cursor : 0;
     }
 }
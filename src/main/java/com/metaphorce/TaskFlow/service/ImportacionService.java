@@ -0,0 +1,11 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.dto.ResultadoImportacionDTO;
+import java.util.Iterator;
+
+public interface ImportacionService {
+    ResultadoImportacionDTO importarProyectos(Iterator<ObjectNode> filas);
+    ResultadoImportacionDTO importarTareas(Iterator<ObjectNode> filas);
+    ResultadoImportacionDTO importarGestionTiempo(Iterator<ObjectNode> filas);
+}
@@ -0,0 +1,377 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.dto.ImportacionGestionTiempoDTO;
+import com.metaphorce.TaskFlow.dto.ImportacionProyectoDTO;
+import com.metaphorce.TaskFlow.dto.ImportacionTareaDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoImportacionDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoItemDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoLoteDTO;
+import com.metaphorce.TaskFlow.modelo.GestionTiempo;
+import com.metaphorce.TaskFlow.modelo.Proyecto;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.ProyectoRepository;
+import com.metaphorce.TaskFlow.repository.TareasRepository;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Importación masiva con referencias por clave natural (correo del usuario, título del proyecto y de la tarea).
+// Las filas se leen por bloques de ProcesadorLotes.TAMANIO_LOTE; las claves de cada bloque se resuelven con una
+// consulta por tipo y quedan en un diccionario para los bloques siguientes. Cada bloque se guarda con la carga masiva
+// del servicio correspondiente (índice, eventos, acumulados y cachés incluidos) en su propia transacción, hasta
+// taskflow.importacion.escritores bloques a la vez. Un bloque fallido no deshace los demás; una línea NDJSON mal formada
+// es un error de su fila, pero un error al leer el archivo detiene la importación y los bloques ya guardados se conservan.
+@Service
+@Timed("taskflow.service")
+public class ImportacionServiceImpl implements ImportacionService {
+
+    @Autowired
+    private ProyectoService proyectoService;
+
+    @Autowired
+    private TareasService tareasService;
+
+    @Autowired
+    private GestionTiempoService gestionTiempoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${taskflow.importacion.escritores:4}")
+    private int escritores;
+
+    @Override
+    public ResultadoImportacionDTO importarProyectos(Iterator<ObjectNode> filas) {
+        Diccionario<String> usuarios = usuarios();
+        return importar("proyectos", filas, ImportacionProyectoDTO.class,
+                bloque -> usuarios.resolver(claves(bloque, ImportacionProyectoDTO::correoLider)),
+                fila -> usuarios.error(fila.correoLider()),
+                fila -> {
+                    Proyecto proyecto = new Proyecto();
+                    proyecto.setUsuario(usuario(usuarios.id(fila.correoLider())));
+                    proyecto.setTitulo(fila.titulo());
+                    proyecto.setDescripcion(fila.descripcion());
+                    proyecto.setFechaInicio(fila.fechaInicio());
+                    proyecto.setFechaFin(fila.fechaFin());
+                    return proyecto;
+                },
+                proyectoService::createProyectos);
+    }
+
+    @Override
+    public ResultadoImportacionDTO importarTareas(Iterator<ObjectNode> filas) {
+        Diccionario<String> usuarios = usuarios();
+        Diccionario<String> proyectos = proyectos();
+        return importar("tareas", filas, ImportacionTareaDTO.class,
+                bloque -> {
+                    Set<String> correos = claves(bloque, ImportacionTareaDTO::correoCreador);
+                    correos.addAll(claves(bloque, ImportacionTareaDTO::correoAsignado));
+                    usuarios.resolver(correos);
+                    proyectos.resolver(claves(bloque, ImportacionTareaDTO::tituloProyecto));
+                },
+                fila -> primerError(usuarios.error(fila.correoCreador()), usuarios.error(fila.correoAsignado()),
+                        proyectos.error(fila.tituloProyecto())),
+                fila -> {
+                    Tareas tarea = new Tareas();
+                    tarea.setCreadorTarea(usuario(usuarios.id(fila.correoCreador())));
+                    tarea.setUsuarioAsignada(usuario(usuarios.id(fila.correoAsignado())));
+                    tarea.setProyecto(proyecto(proyectos.id(fila.tituloProyecto())));
+                    tarea.setFechaCreacion(fila.fechaCreacion());
+                    tarea.setFechaTerminada(fila.fechaTerminada());
+                    tarea.setTitulo(fila.titulo());
+                    tarea.setDescripcion(fila.descripcion());
+                    tarea.setPrioridad(fila.prioridad());
+                    tarea.setEstatus(fila.estatus());
+                    return tarea;
+                },
+                tareasService::createTareas);
+    }
+
+    // La tarea se busca por su título dentro del proyecto, por eso los proyectos se resuelven antes que las tareas
+    @Override
+    public ResultadoImportacionDTO importarGestionTiempo(Iterator<ObjectNode> filas) {
+        Diccionario<String> usuarios = usuarios();
+        Diccionario<String> proyectos = proyectos();
+        Diccionario<ClaveTarea> tareas = new Diccionario<>("la tarea", ClaveTarea::normalizada, claves -> {
+            Set<ClaveTarea> buscadas = claves.stream().map(ClaveTarea::normalizada).collect(Collectors.toSet());
+            return tareasRepository.findIdsByProyectoInAndTituloIn(
+                            claves.stream().map(ClaveTarea::idProyecto).collect(Collectors.toSet()),
+                            claves.stream().map(ClaveTarea::titulo).collect(Collectors.toSet())).stream()
+                    .map(tarea -> Map.entry(new ClaveTarea(tarea.idProyecto(), tarea.titulo()), tarea.idTarea()))
+                    .filter(entrada -> buscadas.contains(entrada.getKey().normalizada()))
+                    .toList();
+        });
+        return importar("gestion-tiempo", filas, ImportacionGestionTiempoDTO.class,
+                bloque -> {
+                    usuarios.resolver(claves(bloque, ImportacionGestionTiempoDTO::correoUsuario));
+                    proyectos.resolver(claves(bloque, ImportacionGestionTiempoDTO::tituloProyecto));
+                    tareas.resolver(claves(bloque, fila -> claveTarea(proyectos, fila)));
+                },
+                fila -> primerError(usuarios.error(fila.correoUsuario()), proyectos.error(fila.tituloProyecto()),
+                        tareas.error(claveTarea(proyectos, fila))),
+                fila -> {
+                    GestionTiempo gestionTiempo = new GestionTiempo();
+                    gestionTiempo.setUsuario(usuario(usuarios.id(fila.correoUsuario())));
+                    gestionTiempo.setTarea(tarea(tareas.id(claveTarea(proyectos, fila))));
+                    gestionTiempo.setFechaInicio(fila.fechaInicio());
+                    gestionTiempo.setFechaFin(fila.fechaFin());
+                    return gestionTiempo;
+                },
+                gestionTiempoService::createGestionesTiempo);
+    }
+
+    // resolver consulta las claves del bloque, validar devuelve el error de referencias de la fila (o null) y guardar
+    // es la carga masiva del servicio; sus errores de validación se devuelven con el índice de la fila en el archivo
+    private <F, E> ResultadoImportacionDTO importar(String recurso, Iterator<ObjectNode> filas, Class<F> tipo,
+                                                   Consumer<List<F>> resolver, Function<F, String> validar,
+                                                   Function<F, E> construir, Function<Iterator<E>, ResultadoLoteDTO> guardar) {
+        long inicio = System.nanoTime();
+        Queue<ResultadoItemDTO> errores = new ConcurrentLinkedQueue<>();
+        AtomicInteger creados = new AtomicInteger();
+        // Limita los bloques en memoria y las conexiones ocupadas por la importación
+        Semaphore libres = new Semaphore(escritores);
+        int total = 0;
+
+        try (ExecutorService escritura = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (filas.hasNext()) {
+                List<F> bloque = new ArrayList<>(ProcesadorLotes.TAMANIO_LOTE);
+                List<Integer> indices = new ArrayList<>(ProcesadorLotes.TAMANIO_LOTE);
+                while (filas.hasNext() && bloque.size() < ProcesadorLotes.TAMANIO_LOTE) {
+                    try {
+                        bloque.add(objectMapper.treeToValue(filas.next(), tipo));
+                        indices.add(total);
+                    } catch (JsonProcessingException e) {
+                        errores.add(new ResultadoItemDTO(total, null, "Fila inválida: " + e.getOriginalMessage()));
+                    } catch (UncheckedIOException e) {
+                        // Una línea que no es JSON válido es un error de su fila; cualquier otro error de lectura detiene la importación
+                        if (!(e.getCause() instanceof JsonProcessingException invalida)) {
+                            throw e;
+                        }
+                        errores.add(new ResultadoItemDTO(total, null, "Fila inválida: " + invalida.getOriginalMessage()));
+                    }
+                    total++;
+                }
+
+                resolver.accept(bloque);
+                List<E> entidades = new ArrayList<>(bloque.size());
+                List<Integer> posiciones = new ArrayList<>(bloque.size());
+                for (int i = 0; i < bloque.size(); i++) {
+                    String error = validar.apply(bloque.get(i));
+                    if (error != null) {
+                        errores.add(new ResultadoItemDTO(indices.get(i), null, error));
+                    } else {
+                        entidades.add(construir.apply(bloque.get(i)));
+                        posiciones.add(indices.get(i));
+                    }
+                }
+                if (entidades.isEmpty()) {
+                    continue;
+                }
+
+                libres.acquireUninterruptibly();
+                escritura.execute(() -> {
+                    try {
+                        for (ResultadoItemDTO resultado : guardar.apply(entidades.iterator()).resultados()) {
+                            if (resultado.id() != null) {
+                                creados.incrementAndGet();
+                            } else {
+                                errores.add(new ResultadoItemDTO(posiciones.get(resultado.indice()), null, resultado.error()));
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        String mensaje = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                        posiciones.forEach(posicion -> errores.add(new ResultadoItemDTO(posicion, null, mensaje)));
+                    } finally {
+                        libres.release();
+                    }
+                });
+            }
+        }
+
+        long nanos = System.nanoTime() - inicio;
+        int guardados = creados.get();
+        meterRegistry.timer("taskflow.importacion.ejecucion", "recurso", recurso).record(nanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("taskflow.importacion.filas", "recurso", recurso, "resultado", "creadas").increment(guardados);
+        meterRegistry.counter("taskflow.importacion.filas", "recurso", recurso, "resultado", "fallidas").increment(total - guardados);
+        double segundos = nanos / 1_000_000_000.0;
+        return new ResultadoImportacionDTO(total, guardados, total - guardados, TimeUnit.NANOSECONDS.toMillis(nanos),
+                segundos > 0 ? total / segundos : 0,
+                errores.stream().sorted(Comparator.comparingInt(ResultadoItemDTO::indice)).toList());
+    }
+
+    private Diccionario<String> usuarios() {
+        return new Diccionario<>("el usuario con correo", ImportacionServiceImpl::normalizar, correos -> usuarioRepository.findIdsByCorreoIn(correos).stream()
+                .map(usuario -> Map.entry(usuario.clave(), usuario.id()))
+                .toList());
+    }
+
+    private Diccionario<String> proyectos() {
+        return new Diccionario<>("el proyecto", ImportacionServiceImpl::normalizar, titulos -> proyectoRepository.findIdsByTituloIn(titulos).stream()
+                .map(proyecto -> Map.entry(proyecto.clave(), proyecto.id()))
+                .toList());
+    }
+
+    private ClaveTarea claveTarea(Diccionario<String> proyectos, ImportacionGestionTiempoDTO fila) {
+        Integer idProyecto = proyectos.id(fila.tituloProyecto());
+        return idProyecto != null && fila.tituloTarea() != null ? new ClaveTarea(idProyecto, fila.tituloTarea()) : null;
+    }
+
+    private static <F, K> Set<K> claves(List<F> bloque, Function<F, K> clave) {
+        return bloque.stream().map(clave).filter(Objects::nonNull).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    // Como compara la base (collation sin distinción de mayúsculas ni espacios al final): lo que devuelve la consulta
+    // debe caer en la misma entrada que la clave escrita en el archivo
+    private static String normalizar(String clave) {
+        return clave.stripTrailing().toLowerCase(Locale.ROOT);
+    }
+
+    private static String primerError(String... errores) {
+        for (String error : errores) {
+            if (error != null) {
+                return error;
+            }
+        }
+        return null;
+    }
+
+    // Solo el id: ReferenciasEntidades los cambia por referencias al guardar. Sin id la validación del servicio
+    // reporta la relación faltante.
+    private static Usuario usuario(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(id);
+        return usuario;
+    }
+
+    private static Proyecto proyecto(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        Proyecto proyecto = new Proyecto();
+        proyecto.setIdProyecto(id);
+        return proyecto;
+    }
+
+    private static Tareas tarea(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        Tareas tarea = new Tareas();
+        tarea.setIdTarea(id);
+        return tarea;
+    }
+
+    private record ClaveTarea(Integer idProyecto, String titulo) {
+
+        ClaveTarea normalizada() {
+            return new ClaveTarea(idProyecto, normalizar(titulo));
+        }
+
+        @Override
+        public String toString() {
+            return titulo;
+        }
+    }
+
+    // Clave natural -> id, consultando solo las claves que todavía no se conocen. Las que no existen o corresponden a
+    // más de un registro también se recuerdan, para no volver a consultarlas en cada bloque. Las claves se guardan y
+    // se buscan normalizadas, las del archivo y las devueltas por la consulta por igual.
+    private static final class Diccionario<K> {
+
+        private final String descripcion;
+        private final Function<K, K> normalizar;
+        private final Function<Set<K>, List<Map.Entry<K, Integer>>> consulta;
+        private final Map<K, Integer> ids = new HashMap<>();
+        private final Set<K> repetidas = new HashSet<>();
+
+        Diccionario(String descripcion, Function<K, K> normalizar, Function<Set<K>, List<Map.Entry<K, Integer>>> consulta) {
+            this.descripcion = descripcion;
+            this.normalizar = normalizar;
+            this.consulta = consulta;
+        }
+
+        void resolver(Set<K> claves) {
+            Set<K> nuevas = new HashSet<>();
+            for (K clave : claves) {
+                K normalizada = normalizar.apply(clave);
+                if (!ids.containsKey(normalizada)) {
+                    ids.put(normalizada, null);
+                    nuevas.add(clave);
+                }
+            }
+            if (nuevas.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<K, Integer> encontrada : consulta.apply(nuevas)) {
+                K normalizada = normalizar.apply(encontrada.getKey());
+                if (ids.put(normalizada, encontrada.getValue()) != null) {
+                    repetidas.add(normalizada);
+                }
+            }
+        }
+
+        Integer id(K clave) {
+            if (clave == null) {
+                return null;
+            }
+            K normalizada = normalizar.apply(clave);
+            return repetidas.contains(normalizada) ? null : ids.get(normalizada);
+        }
+
+        String error(K clave) {
+            if (clave == null) {
+                return null;
+            }
+            K normalizada = normalizar.apply(clave);
+            if (repetidas.contains(normalizada)) {
+                return "Hay más de un registro para " + descripcion + " '" + clave + "'";
+            }
+            return ids.get(normalizada) == null ? "No existe " + descripcion + " '" + clave + "'" : null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.ProyectoDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoBusquedaDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.enums.TipoDocumento;
+import java.util.Collection;
+import java.util.List;
+
+public interface IndiceBusquedaService {
+    void indexarTarea(TareaDTO tarea);
+    void indexarProyecto(ProyectoDTO proyecto);
+    void eliminarTarea(Integer idTarea);
+    void eliminarProyecto(Integer idProyecto);
+    void eliminarUsuario(Integer idUsuario, Collection<Integer> idsProyectos);
+    List<ResultadoBusquedaDTO> buscar(String texto, TipoDocumento tipo, int desde, int size);
+    long reconstruir();
+}
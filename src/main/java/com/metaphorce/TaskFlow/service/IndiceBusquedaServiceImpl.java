@@ -0,0 +1,314 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.ProyectoDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoBusquedaDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.enums.TipoDocumento;
+import com.metaphorce.TaskFlow.repository.ProyectoRepository;
+import com.metaphorce.TaskFlow.repository.TareasRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.es.SpanishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Índice invertido (Lucene) sobre titulo y descripcion de tareas y proyectos. Vive en memoria, o en disco si se
+// configura taskflow.busqueda.directorio (se confirma cada taskflow.busqueda.intervalo-commit), y se reconstruye
+// desde la base de datos al arrancar.
+@Service
+@Timed("taskflow.service")
+public class IndiceBusquedaServiceImpl implements IndiceBusquedaService {
+
+    private static final String CLAVE = "clave";
+    private static final String TIPO = "tipo";
+    private static final String ID = "id";
+    private static final String PROYECTO = "proyecto";
+    private static final String USUARIO = "usuario";
+    private static final String TITULO = "titulo";
+    private static final String DESCRIPCION = "descripcion";
+    private static final String GENERACION = "generacion";
+    private static final float PESO_TITULO = 2f;
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${taskflow.busqueda.directorio:}")
+    private String directorio;
+
+    private final Analyzer analyzer = new SpanishAnalyzer();
+    private Directory indice;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    // Cada reconstrucción marca sus documentos con una generación nueva; al terminar borra los de generaciones previas
+    private final AtomicLong generacion = new AtomicLong(System.currentTimeMillis());
+
+    @PostConstruct
+    void abrir() throws IOException {
+        indice = directorio.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(directorio));
+        writer = new IndexWriter(indice, new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    void cerrar() throws IOException {
+        searcherManager.close();
+        writer.close();
+        indice.close();
+    }
+
+    // Los cambios incrementales ya son visibles para las búsquedas; el commit solo los deja persistidos en el directorio
+    @Scheduled(fixedDelayString = "${taskflow.busqueda.intervalo-commit:30s}", initialDelayString = "${taskflow.busqueda.intervalo-commit:30s}")
+    public void confirmar() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        reconstruir();
+    }
+
+    // Los cambios hechos dentro de una transacción se aplican al índice solo si esta se confirma; el documento se arma
+    // al aplicarlo para que lleve la generación vigente en ese momento
+    @Override
+    public void indexarTarea(TareaDTO tarea) {
+        alConfirmar(() -> writer.updateDocument(clave(TipoDocumento.Tarea, tarea.idTarea()), documento(tarea)));
+    }
+
+    @Override
+    public void indexarProyecto(ProyectoDTO proyecto) {
+        alConfirmar(() -> writer.updateDocument(clave(TipoDocumento.Proyecto, proyecto.idProyecto()), documento(proyecto)));
+    }
+
+    @Override
+    public void eliminarTarea(Integer idTarea) {
+        alConfirmar(() -> writer.deleteDocuments(clave(TipoDocumento.Tarea, idTarea)));
+    }
+
+    // El borrado de un proyecto se propaga en cascada a sus tareas; todas llevan el término del proyecto
+    @Override
+    public void eliminarProyecto(Integer idProyecto) {
+        alConfirmar(() -> writer.deleteDocuments(new Term(PROYECTO, idProyecto.toString())));
+    }
+
+    // El borrado de un usuario se lleva sus proyectos (con sus tareas) y las tareas que creó o tenía asignadas
+    @Override
+    public void eliminarUsuario(Integer idUsuario, Collection<Integer> idsProyectos) {
+        List<Term> terminos = new ArrayList<>();
+        terminos.add(new Term(USUARIO, idUsuario.toString()));
+        idsProyectos.forEach(id -> terminos.add(new Term(PROYECTO, id.toString())));
+        alConfirmar(() -> writer.deleteDocuments(terminos.toArray(Term[]::new)));
+    }
+
+    // Todas las palabras deben aparecer en el titulo o en la descripcion; las del titulo pesan el doble
+    @Override
+    public List<ResultadoBusquedaDTO> buscar(String texto, TipoDocumento tipo, int desde, int size) {
+        List<String> palabras = analizar(texto);
+        if (palabras.isEmpty()) {
+            return List.of();
+        }
+        BooleanQuery.Builder consulta = new BooleanQuery.Builder();
+        for (String palabra : palabras) {
+            consulta.add(new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(TITULO, palabra)), PESO_TITULO), BooleanClause.Occur.SHOULD)
+                    .add(new TermQuery(new Term(DESCRIPCION, palabra)), BooleanClause.Occur.SHOULD)
+                    .build(), BooleanClause.Occur.MUST);
+        }
+        if (tipo != null) {
+            consulta.add(new TermQuery(new Term(TIPO, tipo.name())), BooleanClause.Occur.FILTER);
+        }
+        return ejecutar(consulta.build(), desde, size);
+    }
+
+    // Reemplaza cada documento por su clave en lugar de vaciar el índice, así las búsquedas durante la reconstrucción
+    // siguen viendo el índice completo y un cambio incremental concurrente no deja documentos duplicados
+    @Override
+    public synchronized long reconstruir() {
+        try {
+            long vigente = generacion.incrementAndGet();
+            long[] documentos = new long[1];
+            TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+            lectura.setReadOnly(true);
+            lectura.executeWithoutResult(status -> {
+                try (Stream<TareaDTO> tareas = tareasRepository.streamAll()) {
+                    tareas.forEach(tarea -> {
+                        aplicar(() -> writer.updateDocument(clave(TipoDocumento.Tarea, tarea.idTarea()), documento(tarea)));
+                        documentos[0]++;
+                    });
+                }
+            });
+            for (ProyectoDTO proyecto : proyectoRepository.findAllDTO()) {
+                writer.updateDocument(clave(TipoDocumento.Proyecto, proyecto.idProyecto()), documento(proyecto));
+                documentos[0]++;
+            }
+            writer.deleteDocuments(new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), BooleanClause.Occur.FILTER)
+                    .add(new TermQuery(new Term(GENERACION, Long.toString(vigente))), BooleanClause.Occur.MUST_NOT)
+                    .build());
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            return documentos[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<ResultadoBusquedaDTO> ejecutar(Query consulta, int desde, int size) {
+        try {
+            searcherManager.maybeRefresh();
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs encontrados = searcher.search(consulta, desde + size);
+                List<ResultadoBusquedaDTO> resultados = new ArrayList<>(size);
+                for (int i = desde; i < encontrados.scoreDocs.length; i++) {
+                    ScoreDoc encontrado = encontrados.scoreDocs[i];
+                    Document documento = searcher.storedFields().document(encontrado.doc);
+                    resultados.add(new ResultadoBusquedaDTO(
+                            TipoDocumento.valueOf(documento.get(TIPO)),
+                            documento.getField(ID).numericValue().intValue(),
+                            documento.get(TITULO),
+                            encontrado.score));
+                }
+                return resultados;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> analizar(String texto) {
+        List<String> palabras = new ArrayList<>();
+        if (texto == null) {
+            return palabras;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(TITULO, texto)) {
+            CharTermAttribute termino = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                palabras.add(termino.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return palabras;
+    }
+
+    private Document documento(TareaDTO tarea) {
+        Document documento = documento(TipoDocumento.Tarea, tarea.idTarea(), tarea.titulo(), tarea.descripcion());
+        agregarTermino(documento, PROYECTO, tarea.idProyecto());
+        agregarTermino(documento, USUARIO, tarea.idCreadorTarea());
+        agregarTermino(documento, USUARIO, tarea.idUsuarioAsignada());
+        return documento;
+    }
+
+    private Document documento(ProyectoDTO proyecto) {
+        Document documento = documento(TipoDocumento.Proyecto, proyecto.idProyecto(), proyecto.titulo(), proyecto.descripcion());
+        agregarTermino(documento, PROYECTO, proyecto.idProyecto());
+        agregarTermino(documento, USUARIO, proyecto.idUsuario());
+        return documento;
+    }
+
+    private Document documento(TipoDocumento tipo, Integer id, String titulo, String descripcion) {
+        Document documento = new Document();
+        documento.add(new StringField(CLAVE, tipo.name() + ":" + id, Field.Store.NO));
+        documento.add(new StringField(GENERACION, Long.toString(generacion.get()), Field.Store.NO));
+        documento.add(new StringField(TIPO, tipo.name(), Field.Store.YES));
+        documento.add(new StoredField(ID, id));
+        documento.add(new TextField(TITULO, titulo != null ? titulo : "", Field.Store.YES));
+        documento.add(new TextField(DESCRIPCION, descripcion != null ? descripcion : "", Field.Store.NO));
+        return documento;
+    }
+
+    private static void agregarTermino(Document documento, String campo, Integer valor) {
+        if (valor != null) {
+            documento.add(new StringField(campo, valor.toString(), Field.Store.NO));
+        }
+    }
+
+    private static Term clave(TipoDocumento tipo, Integer id) {
+        return new Term(CLAVE, tipo.name() + ":" + id);
+    }
+
+    private void alConfirmar(CambioIndice cambio) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(cambio);
+                }
+            });
+        } else {
+            aplicar(cambio);
+        }
+    }
+
+    private static void aplicar(CambioIndice cambio) {
+        try {
+            cambio.aplicar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CambioIndice {
+        void aplicar() throws IOException;
+    }
+}
@@ -0,0 +1,28 @@
+package com.metaphorce.TaskFlow.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+// Lecturas cuyo resultado se guarda en una caché compartida: corren en una transacción sin readOnly para que las
+// atienda la primaria y no una réplica que todavía no ve la última escritura (ver DataSourceEnrutado). Dentro de una
+// transacción readOnly se abre una aparte, porque esa ya puede tener su conexión en una réplica.
+@Component
+public class LecturaPrimaria {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public <T> T leer(Supplier<T> lectura) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+        return transaccion.execute(estado -> lectura.get());
+    }
+}
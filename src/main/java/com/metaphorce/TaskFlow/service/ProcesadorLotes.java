@@ -0,0 +1,142 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.ResultadoItemDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoLoteDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PessimisticLockException;
+import org.hibernate.exception.LockAcquisitionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+// Guarda cargas masivas en transacciones de TAMANIO_LOTE elementos; un fallo solo afecta a su propio lote. Los lotes
+// que corren a la vez (importación) actualizan las mismas filas de los acumulados, así que un lote que pierde un
+// interbloqueo o agota la espera de un candado se reintenta completo hasta INTENTOS veces.
+@Component
+public class ProcesadorLotes {
+
+    public static final int TAMANIO_LOTE = 500;
+
+    public static final int MAX_ARREGLO = 2 * TAMANIO_LOTE;
+
+    static final String NO_EXISTE = "No existe el registro";
+
+    static final int INTENTOS = 3;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Las variantes de arreglo JSON enlazan el cuerpo completo en memoria; las cargas grandes van por NDJSON
+    public static <T> Iterator<T> arreglo(List<T> elementos) {
+        if (elementos.size() > MAX_ARREGLO) {
+            throw new IllegalArgumentException("Un arreglo JSON admite hasta " + MAX_ARREGLO
+                    + " elementos; para cargas mayores envíe application/x-ndjson");
+        }
+        return elementos.iterator();
+    }
+
+    // validar devuelve el mensaje de error del elemento o null si es válido; guardar devuelve los ids en el mismo orden,
+    // con null para los elementos que actualizan un registro que no existe
+    public <T> ResultadoLoteDTO procesar(Iterator<T> elementos, Function<T, String> validar, Function<List<T>, List<Integer>> guardar) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        List<ResultadoItemDTO> resultados = new ArrayList<>();
+        List<T> lote = new ArrayList<>(TAMANIO_LOTE);
+        List<Integer> indices = new ArrayList<>(TAMANIO_LOTE);
+        int total = 0;
+
+        while (elementos.hasNext()) {
+            T elemento = elementos.next();
+            String error = validar.apply(elemento);
+            if (error != null) {
+                resultados.add(new ResultadoItemDTO(total, null, error));
+            } else {
+                lote.add(elemento);
+                indices.add(total);
+            }
+            total++;
+            if (lote.size() == TAMANIO_LOTE) {
+                guardarLote(transaccion, lote, indices, guardar, resultados);
+            }
+        }
+        if (!lote.isEmpty()) {
+            guardarLote(transaccion, lote, indices, guardar, resultados);
+        }
+
+        resultados.sort(Comparator.comparingInt(ResultadoItemDTO::indice));
+        int creados = (int) resultados.stream().filter(resultado -> resultado.id() != null).count();
+        return new ResultadoLoteDTO(total, creados, total - creados, resultados);
+    }
+
+    private <T> void guardarLote(TransactionTemplate transaccion, List<T> lote, List<Integer> indices,
+                                 Function<List<T>, List<Integer>> guardar, List<ResultadoItemDTO> resultados) {
+        try {
+            List<Integer> ids = ejecutar(transaccion, lote, guardar);
+            for (int i = 0; i < lote.size(); i++) {
+                resultados.add(new ResultadoItemDTO(indices.get(i), ids.get(i), ids.get(i) != null ? null : NO_EXISTE));
+            }
+        } catch (RuntimeException e) {
+            entityManager.clear();
+            String mensaje = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (Integer indice : indices) {
+                resultados.add(new ResultadoItemDTO(indice, null, mensaje));
+            }
+        }
+        lote.clear();
+        indices.clear();
+    }
+
+    private <T> List<Integer> ejecutar(TransactionTemplate transaccion, List<T> lote, Function<List<T>, List<Integer>> guardar) {
+        for (int intento = 1; ; intento++) {
+            try {
+                return transaccion.execute(status -> {
+                    List<Integer> guardados = guardar.apply(lote);
+                    entityManager.flush();
+                    // Se vacía el contexto para que la memoria no crezca con cada lote
+                    entityManager.clear();
+                    return guardados;
+                });
+            } catch (RuntimeException e) {
+                if (intento == INTENTOS || !esBloqueo(e)) {
+                    throw e;
+                }
+                entityManager.clear();
+                esperar(intento);
+            }
+        }
+    }
+
+    // La traducción de Spring no siempre llega (el flush y el commit lanzan la excepción de Hibernate o JPA)
+    private static boolean esBloqueo(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof PessimisticLockingFailureException || causa instanceof LockAcquisitionException
+                    || causa instanceof PessimisticLockException || causa instanceof LockTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Espera creciente con variación aleatoria para que los lotes en conflicto no choquen otra vez al mismo tiempo
+    private static void esperar(int intento) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(25L * intento, 100L * intento));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,21 +1,33 @@
 package com.metaphorce.TaskFlow.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.dto.ProyectoDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoLoteDTO;
+import com.metaphorce.TaskFlow.dto.ResumenProyectoDTO;
+import com.metaphorce.TaskFlow.dto.UsuarioDTO;
 import com.metaphorce.TaskFlow.modelo.Proyecto;
-import com.metaphorce.TaskFlow.modelo.Usuario;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProyectoService {
-    List<Proyecto> getAllProyectos();
-    Optional<Proyecto> getProyectoById(Integer id);
+    List<ProyectoDTO> getAllProyectos();
+    Optional<ProyectoDTO> getProyectoById(Integer id);
+    Optional<Long> getVersionProyecto(Integer id);
     Proyecto createProyecto(Proyecto proyecto);
+    ResultadoLoteDTO createProyectos(Iterator<Proyecto> proyectos);
     Proyecto updateProyecto(Integer id, Proyecto proyecto);
+    boolean patchProyecto(Integer id, Long versionEsperada, ObjectNode parche);
     void deleteProyecto(Integer id);
 
-    Optional<Proyecto> getProyectoByTitulo(String titulo);
-    List<Proyecto> getProyectosByFechaInicio(LocalDateTime fechaInicio);
-    List<Proyecto> getProyectosByLiderId(Integer idLider);
-    List<Proyecto> getProyectosByPeriodo(LocalDateTime startDate, LocalDateTime endDate);
-    List<Usuario> getUsuariosAsignadosByProyectoId(Integer idProyecto);
+    Optional<ProyectoDTO> getProyectoByTitulo(String titulo);
+    List<ProyectoDTO> getProyectosByFechaInicio(LocalDateTime fechaInicio);
+    List<ProyectoDTO> getProyectosByLiderId(Integer idLider);
+    List<ProyectoDTO> getProyectosByPeriodo(LocalDateTime startDate, LocalDateTime endDate);
+    List<UsuarioDTO> getUsuariosAsignadosByProyectoId(Integer idProyecto);
+    boolean esParticipante(Integer idProyecto, Integer idUsuario);
+    Optional<ResumenProyectoDTO> getResumenProyecto(Integer idProyecto);
+    List<ResumenProyectoDTO> getResumenesProyecto(Collection<Integer> idsProyecto);
 }
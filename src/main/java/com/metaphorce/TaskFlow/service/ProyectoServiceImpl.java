@@ -1,72 +1,351 @@
 package com.metaphorce.TaskFlow.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.config.CacheConfig;
+import com.metaphorce.TaskFlow.dto.ConteoTareasDTO;
+import com.metaphorce.TaskFlow.dto.MiembroProyectoDTO;
+import com.metaphorce.TaskFlow.dto.ProyectoDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoLoteDTO;
+import com.metaphorce.TaskFlow.dto.ResumenProyectoDTO;
+import com.metaphorce.TaskFlow.dto.TotalPorIdDTO;
+import com.metaphorce.TaskFlow.dto.UsuarioDTO;
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
 import com.metaphorce.TaskFlow.modelo.Proyecto;
 import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.GestionTiempoRepository;
 import com.metaphorce.TaskFlow.repository.ProyectoRepository;
+import com.metaphorce.TaskFlow.repository.TiempoProyectoDiaRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("taskflow.service")
 public class ProyectoServiceImpl implements ProyectoService {
 
+    // Campos que acepta el PATCH, con los nombres de ProyectoDTO
+    private static final Map<String, ActualizacionParcial.Campo> CAMPOS_PARCHE = Map.of(
+            "idUsuario", ActualizacionParcial.Campo.relacion("usuario", Usuario.class),
+            "titulo", ActualizacionParcial.Campo.valor("titulo", String.class, false),
+            "descripcion", ActualizacionParcial.Campo.valor("descripcion", String.class, false),
+            "fechaInicio", ActualizacionParcial.Campo.valor("fechaInicio", LocalDateTime.class, false),
+            "fechaFin", ActualizacionParcial.Campo.valor("fechaFin", LocalDateTime.class, true));
+
+    private static final Set<String> CAMPOS_INDEXADOS = Set.of("idUsuario", "titulo", "descripcion");
+
+    // Ids por petición de resúmenes, para que el IN de las consultas no crezca sin límite
+    public static final int MAX_RESUMENES = 100;
+
+    // Marca de generación guardada en la propia caché de resúmenes: las invalidaciones de todos los resúmenes vacían la
+    // caché y se la llevan, y las de un solo proyecto la reemplazan (ver invalidarResumen). Un cálculo que empezó antes
+    // de una invalidación ya no guarda su resumen viejo
+    private static final String GENERACION = "generacion";
+
     @Autowired
     private ProyectoRepository proyectoRepository;
 
+    @Autowired
+    private GestionTiempoRepository gestionTiempoRepository;
+
+    @Autowired
+    private AcumuladoTiempoService acumuladoTiempoService;
+
+    @Autowired
+    private IndiceBusquedaService indiceBusquedaService;
+
+    @Autowired
+    private ReferenciasEntidades referenciasEntidades;
+
+    @Autowired
+    private ActualizacionParcial actualizacionParcial;
+
+    @Autowired
+    private ProcesadorLotes procesadorLotes;
+
+    @Autowired
+    private TiempoProyectoDiaRepository tiempoProyectoDiaRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private LecturaPrimaria lecturaPrimaria;
+
+    @Override
+    public List<ProyectoDTO> getAllProyectos() {
+        return proyectoRepository.findAllDTO();
+    }
+
+    // Solo se guardan resultados encontrados; las altas no necesitan invalidar nada
     @Override
-    public List<Proyecto> getAllProyectos() {
-        return proyectoRepository.findAll();
+    @Cacheable(cacheNames = CacheConfig.PROYECTOS, unless = "#result == null")
+    public Optional<ProyectoDTO> getProyectoById(Integer id) {
+        return lecturaPrimaria.leer(() -> proyectoRepository.findDTOById(id));
     }
 
     @Override
-    public Optional<Proyecto> getProyectoById(Integer id) {
-        return proyectoRepository.findById(id);
+    public Optional<Long> getVersionProyecto(Integer id) {
+        return proyectoRepository.findVersionById(id);
     }
 
     @Override
     public Proyecto createProyecto(Proyecto proyecto) {
-        return proyectoRepository.save(proyecto);
+        Proyecto guardado = proyectoRepository.save(referenciasEntidades.enlazar(proyecto));
+        indiceBusquedaService.indexarProyecto(ProyectoDTO.from(guardado));
+        return guardado;
+    }
+
+    @Override
+    public ResultadoLoteDTO createProyectos(Iterator<Proyecto> proyectos) {
+        return procesadorLotes.procesar(proyectos, this::validarProyecto, lote -> {
+            // Id y versión se limpian para que un reintento del lote (ver ProcesadorLotes) vuelva a insertar
+            lote.forEach(proyecto -> {
+                referenciasEntidades.enlazar(proyecto).setIdProyecto(null);
+                proyecto.setVersion(null);
+            });
+            List<Proyecto> guardados = proyectoRepository.saveAll(lote);
+            guardados.stream().map(ProyectoDTO::from).forEach(indiceBusquedaService::indexarProyecto);
+            return guardados.stream().map(Proyecto::getIdProyecto).toList();
+        });
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PROYECTOS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PROYECTOS_POR_TITULO, allEntries = true)
+    })
     public Proyecto updateProyecto(Integer id, Proyecto proyecto) {
-        if (proyectoRepository.existsById(id)) {
+        Optional<Long> vigente = proyectoRepository.findVersionById(id);
+        if (vigente.isPresent()) {
             proyecto.setIdProyecto(id);
-            return proyectoRepository.save(proyecto);
+            // Sin versión en el cuerpo (ni If-Match) se toma la vigente y el PUT sigue siendo incondicional
+            if (proyecto.getVersion() == null) {
+                proyecto.setVersion(vigente.get());
+            }
+            Proyecto guardado = proyectoRepository.save(referenciasEntidades.enlazar(proyecto));
+            invalidarResumen(id);
+            indiceBusquedaService.indexarProyecto(ProyectoDTO.from(guardado));
+            return guardado;
         }
         return null;
     }
 
+    // Sin transacción propia: el UPDATE se confirma dentro de aplicar y las cachés se invalidan después
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PROYECTOS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PROYECTOS_POR_TITULO, allEntries = true)
+    })
+    public boolean patchProyecto(Integer id, Long versionEsperada, ObjectNode parche) {
+        if (!actualizacionParcial.aplicar(Proyecto.class, "idProyecto", id, versionEsperada, CAMPOS_PARCHE, parche)) {
+            return false;
+        }
+        invalidarResumen(id);
+        if (parche.properties().stream().map(Map.Entry::getKey).anyMatch(CAMPOS_INDEXADOS::contains)) {
+            proyectoRepository.findDTOById(id).ifPresent(indiceBusquedaService::indexarProyecto);
+        }
+        return true;
+    }
+
+    // Las tareas y sus registros de tiempo se borran en cascada; el tiempo se descuenta de los acumulados
     @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PROYECTOS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PROYECTOS_POR_TITULO, allEntries = true)
+    })
     public void deleteProyecto(Integer id) {
+        acumuladoTiempoService.restarSesiones(gestionTiempoRepository.findIdsByProyecto(id));
         proyectoRepository.deleteById(id);
+        invalidarResumen(id);
+        indiceBusquedaService.eliminarProyecto(id);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PROYECTOS_POR_TITULO, unless = "#result == null")
+    public Optional<ProyectoDTO> getProyectoByTitulo(String titulo) {
+        return lecturaPrimaria.leer(() -> proyectoRepository.findDTOByTitulo(titulo));
     }
 
     @Override
-    public Optional<Proyecto> getProyectoByTitulo(String titulo) {
-        return proyectoRepository.findByTitulo(titulo);
+    public List<ProyectoDTO> getProyectosByFechaInicio(LocalDateTime fechaInicio) {
+        return proyectoRepository.findDTOByFechaInicio(fechaInicio);
     }
 
     @Override
-    public List<Proyecto> getProyectosByFechaInicio(LocalDateTime fechaInicio) {
-        return proyectoRepository.findByFechaInicio(fechaInicio);
+    public boolean esParticipante(Integer idProyecto, Integer idUsuario) {
+        return proyectoRepository.existsParticipante(idProyecto, idUsuario);
     }
 
     @Override
-    public List<Proyecto> getProyectosByLiderId(Integer idLider) {
-        return proyectoRepository.findByUsuario_IdUsuario(idLider);
+    public List<ProyectoDTO> getProyectosByLiderId(Integer idLider) {
+        return proyectoRepository.findDTOByLider(idLider);
     }
 
     @Override
-    public List<Proyecto> getProyectosByPeriodo(LocalDateTime startDate, LocalDateTime endDate) {
-        return proyectoRepository.findByFechaInicioBetween(startDate, endDate);
+    public List<ProyectoDTO> getProyectosByPeriodo(LocalDateTime startDate, LocalDateTime endDate) {
+        return proyectoRepository.findDTOByFechaInicioBetween(startDate, endDate);
     }
 
     @Override
-    public List<Usuario> getUsuariosAsignadosByProyectoId(Integer idProyecto) {
+    public List<UsuarioDTO> getUsuariosAsignadosByProyectoId(Integer idProyecto) {
         return proyectoRepository.findUsuariosAsignadosByProyectoId(idProyecto);
     }
+
+    @Override
+    @Transactional
+    public Optional<ResumenProyectoDTO> getResumenProyecto(Integer idProyecto) {
+        return getResumenesProyecto(List.of(idProyecto)).stream().findFirst();
+    }
+
+    // Los resúmenes guardados salen de la caché; los que faltan se calculan juntos con tres consultas agrupadas
+    // (conteos, minutos y miembros) sin importar cuántos proyectos sean. Los ids que no existen se omiten. Sin readOnly:
+    // lo calculado se guarda en caché, así que se lee de la primaria (ver LecturaPrimaria).
+    @Override
+    @Transactional
+    public List<ResumenProyectoDTO> getResumenesProyecto(Collection<Integer> idsProyecto) {
+        Set<Integer> distintos = new LinkedHashSet<>(idsProyecto);
+        if (distintos.size() > MAX_RESUMENES) {
+            throw new IllegalArgumentException("No se pueden pedir más de " + MAX_RESUMENES + " resúmenes a la vez");
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.RESUMENES_PROYECTO);
+        Object generacion = generacion(cache);
+        Map<Integer, ResumenProyectoDTO> resumenes = new LinkedHashMap<>();
+        List<Integer> faltantes = new ArrayList<>();
+        for (Integer id : distintos) {
+            ResumenProyectoDTO guardado = cache.get(id, ResumenProyectoDTO.class);
+            resumenes.put(id, guardado);
+            if (guardado == null) {
+                faltantes.add(id);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            for (ResumenProyectoDTO resumen : calcularResumenes(faltantes)) {
+                guardar(cache, resumen, generacion);
+                resumenes.put(resumen.idProyecto(), resumen);
+            }
+        }
+        return resumenes.values().stream().filter(Objects::nonNull).toList();
+    }
+
+    // Al confirmar, cambia la generación y luego saca el resumen del proyecto; los demás resúmenes siguen en la caché
+    private void invalidarResumen(Integer idProyecto) {
+        Cache cache = cacheManager.getCache(CacheConfig.RESUMENES_PROYECTO);
+        Runnable invalidar = () -> {
+            cache.put(GENERACION, new Object());
+            cache.evict(idProyecto);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidar.run();
+                }
+            });
+        } else {
+            invalidar.run();
+        }
+    }
+
+    private static Object generacion(Cache cache) {
+        Object nueva = new Object();
+        Cache.ValueWrapper vigente = cache.putIfAbsent(GENERACION, nueva);
+        return vigente != null ? vigente.get() : nueva;
+    }
+
+    // Solo se guarda si la generación sigue vigente; si una invalidación se cruza con el put, se retira lo guardado
+    private static void guardar(Cache cache, ResumenProyectoDTO resumen, Object generacion) {
+        if (esVigente(cache, generacion)) {
+            cache.put(resumen.idProyecto(), resumen);
+            if (!esVigente(cache, generacion)) {
+                cache.evict(resumen.idProyecto());
+            }
+        }
+    }
+
+    private static boolean esVigente(Cache cache, Object generacion) {
+        Cache.ValueWrapper vigente = cache.get(GENERACION);
+        return vigente != null && vigente.get() == generacion;
+    }
+
+    private String validarProyecto(Proyecto proyecto) {
+        if (proyecto.getUsuario() == null || proyecto.getTitulo() == null || proyecto.getDescripcion() == null
+                || proyecto.getFechaInicio() == null) {
+            return "El proyecto debe indicar líder, titulo, descripcion y fecha de inicio";
+        }
+        if (proyecto.getFechaFin() != null && proyecto.getFechaFin().isBefore(proyecto.getFechaInicio())) {
+            return "La fecha de fin no puede ser anterior a la fecha de inicio";
+        }
+        return null;
+    }
+
+    private List<ResumenProyectoDTO> calcularResumenes(List<Integer> ids) {
+        Map<Integer, List<ConteoTareasDTO>> conteos = proyectoRepository.findConteoTareasByIdProyectoIn(ids).stream()
+                .collect(Collectors.groupingBy(ConteoTareasDTO::idProyecto));
+        if (conteos.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Long> duraciones = tiempoProyectoDiaRepository.findDuracionByIdProyectoIn(conteos.keySet()).stream()
+                .collect(Collectors.toMap(TotalPorIdDTO::id, TotalPorIdDTO::total));
+        Map<Integer, List<UsuarioDTO>> miembros = proyectoRepository.findMiembrosByIdProyectoIn(conteos.keySet()).stream()
+                .sorted(Comparator.comparing(MiembroProyectoDTO::idUsuario))
+                .collect(Collectors.groupingBy(MiembroProyectoDTO::idProyecto,
+                        Collectors.mapping(MiembroProyectoDTO::usuario, Collectors.toList())));
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<ResumenProyectoDTO> resumenes = new ArrayList<>();
+        conteos.forEach((idProyecto, filas) -> {
+            Map<Estatus, Long> porEstatus = new EnumMap<>(Estatus.class);
+            Map<Prioridad, Long> porPrioridad = new EnumMap<>(Prioridad.class);
+            for (Estatus estatus : Estatus.values()) {
+                porEstatus.put(estatus, 0L);
+            }
+            for (Prioridad prioridad : Prioridad.values()) {
+                porPrioridad.put(prioridad, 0L);
+            }
+            long total = 0;
+            long retrasadas = 0;
+            for (ConteoTareasDTO fila : filas) {
+                if (fila.estatus() == null) {
+                    continue;
+                }
+                total += fila.tareas();
+                porEstatus.merge(fila.estatus(), fila.tareas(), Long::sum);
+                porPrioridad.merge(fila.prioridad(), fila.tareas(), Long::sum);
+                // Misma regla que la revisión programada: abiertas de un proyecto vencido cuentan aunque no se marquen aún
+                boolean vencido = fila.fechaFin() != null && fila.fechaFin().isBefore(ahora);
+                if (fila.estatus() == Estatus.Retrasada
+                        || vencido && TransicionEstatusServiceImpl.ABIERTOS.contains(fila.estatus())) {
+                    retrasadas += fila.tareas();
+                }
+            }
+            resumenes.add(new ResumenProyectoDTO(idProyecto, total, porEstatus, porPrioridad, retrasadas,
+                    duraciones.getOrDefault(idProyecto, 0L), miembros.getOrDefault(idProyecto, List.of())));
+        });
+        return resumenes;
+    }
 }
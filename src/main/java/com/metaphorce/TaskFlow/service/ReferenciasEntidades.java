@@ -0,0 +1,62 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.modelo.GestionTiempo;
+import com.metaphorce.TaskFlow.modelo.Proyecto;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+// Las relaciones llegan en el JSON solo con su id ({"idUsuario": 3}) y sin versión; con @Version Hibernate trataría
+// esos objetos como nuevos y rechazaría el guardado. Se cambian por referencias (proxies sin cargar, sin consultas).
+@Component
+public class ReferenciasEntidades {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Tareas enlazar(Tareas tarea) {
+        tarea.setCreadorTarea(usuario(tarea.getCreadorTarea()));
+        tarea.setUsuarioAsignada(usuario(tarea.getUsuarioAsignada()));
+        tarea.setProyecto(proyecto(tarea.getProyecto()));
+        return tarea;
+    }
+
+    public Proyecto enlazar(Proyecto proyecto) {
+        proyecto.setUsuario(usuario(proyecto.getUsuario()));
+        return proyecto;
+    }
+
+    public GestionTiempo enlazar(GestionTiempo gestionTiempo) {
+        gestionTiempo.setTarea(tarea(gestionTiempo.getTarea()));
+        gestionTiempo.setUsuario(usuario(gestionTiempo.getUsuario()));
+        return gestionTiempo;
+    }
+
+    private Usuario usuario(Usuario usuario) {
+        if (usuario == null || !suelto(usuario, usuario.getIdUsuario(), usuario.getVersion())) {
+            return usuario;
+        }
+        return entityManager.getReference(Usuario.class, usuario.getIdUsuario());
+    }
+
+    private Proyecto proyecto(Proyecto proyecto) {
+        if (proyecto == null || !suelto(proyecto, proyecto.getIdProyecto(), proyecto.getVersion())) {
+            return proyecto;
+        }
+        return entityManager.getReference(Proyecto.class, proyecto.getIdProyecto());
+    }
+
+    private Tareas tarea(Tareas tarea) {
+        if (tarea == null || !suelto(tarea, tarea.getIdTarea(), tarea.getVersion())) {
+            return tarea;
+        }
+        return entityManager.getReference(Tareas.class, tarea.getIdTarea());
+    }
+
+    // Objeto armado a partir del JSON: trae id pero no versión y la sesión no lo administra
+    private boolean suelto(Object entidad, Integer id, Long version) {
+        return id != null && version == null && !entityManager.contains(entidad);
+    }
+}
@@ -0,0 +1,14 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.TotalPeriodoDTO;
+import com.metaphorce.TaskFlow.enums.AgrupacionReporte;
+import com.metaphorce.TaskFlow.enums.Periodo;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReportesTiempoService {
+    List<TotalPeriodoDTO> getTotales(AgrupacionReporte agrupacion, Periodo periodo, LocalDate desde, LocalDate hasta, Integer id);
+    void invalidar(LocalDate dia);
+    void invalidarTodo();
+}
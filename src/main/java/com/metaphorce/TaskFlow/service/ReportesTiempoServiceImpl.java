@@ -0,0 +1,194 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.config.CacheConfig;
+import com.metaphorce.TaskFlow.dto.TotalDiaDTO;
+import com.metaphorce.TaskFlow.dto.TotalPeriodoDTO;
+import com.metaphorce.TaskFlow.enums.AgrupacionReporte;
+import com.metaphorce.TaskFlow.enums.Periodo;
+import com.metaphorce.TaskFlow.repository.TiempoProyectoDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoTareaDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoUsuarioDiaRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Totales por periodo calculados sobre los acumulados diarios (tiempo_*_dia), no sobre gestion_tiempo: un año son a lo
+// más 365 filas por usuario, tarea o proyecto. Los periodos ya cerrados se guardan en caché completos (todos los ids)
+// y solo se consultan los que faltan; el periodo en curso siempre se lee.
+@Service
+@Timed("taskflow.service")
+public class ReportesTiempoServiceImpl implements ReportesTiempoService {
+
+    // Evita que un reporte diario de muchos años llene la caché
+    public static final int MAX_PERIODOS = 1000;
+
+    @Autowired
+    private TiempoUsuarioDiaRepository tiempoUsuarioDiaRepository;
+
+    @Autowired
+    private TiempoTareaDiaRepository tiempoTareaDiaRepository;
+
+    @Autowired
+    private TiempoProyectoDiaRepository tiempoProyectoDiaRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Cambia con cada invalidación; un reporte solo guarda en caché lo que leyó si no hubo invalidación entre medias
+    private final AtomicLong generacion = new AtomicLong();
+
+    // Los periodos se alinean al calendario: el reporte cubre completos el periodo de desde y el de hasta. Sin readOnly:
+    // los periodos cerrados se guardan en caché, así que se leen de la primaria (ver LecturaPrimaria).
+    @Override
+    @Transactional
+    public List<TotalPeriodoDTO> getTotales(AgrupacionReporte agrupacion, Periodo periodo, LocalDate desde, LocalDate hasta, Integer id) {
+        if (hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("La fecha hasta no puede ser anterior a desde");
+        }
+        List<LocalDate> inicios = new ArrayList<>();
+        for (LocalDate inicio = periodo.inicio(desde); !inicio.isAfter(hasta); inicio = periodo.siguiente(inicio)) {
+            if (inicios.size() == MAX_PERIODOS) {
+                throw new IllegalArgumentException("El reporte no puede abarcar más de " + MAX_PERIODOS + " periodos");
+            }
+            inicios.add(inicio);
+        }
+
+        Cache cache = cache();
+        long vigente = generacion.get();
+        LocalDate hoy = LocalDate.now();
+        Map<LocalDate, List<TotalPeriodoDTO>> porPeriodo = new LinkedHashMap<>();
+        List<LocalDate> faltantes = new ArrayList<>();
+        for (LocalDate inicio : inicios) {
+            Totales guardados = cerrado(periodo, inicio, hoy) ? cache.get(new Clave(agrupacion, periodo, inicio), Totales.class) : null;
+            if (guardados != null) {
+                porPeriodo.put(inicio, guardados.filas());
+            } else {
+                faltantes.add(inicio);
+            }
+        }
+
+        // Los periodos faltantes consecutivos se leen con una sola consulta
+        int desdeFaltante = 0;
+        while (desdeFaltante < faltantes.size()) {
+            int hastaFaltante = desdeFaltante;
+            while (hastaFaltante + 1 < faltantes.size()
+                    && faltantes.get(hastaFaltante + 1).equals(periodo.siguiente(faltantes.get(hastaFaltante)))) {
+                hastaFaltante++;
+            }
+            List<LocalDate> tramo = faltantes.subList(desdeFaltante, hastaFaltante + 1);
+            Map<LocalDate, List<TotalPeriodoDTO>> leidos = leer(agrupacion, periodo, tramo);
+            for (LocalDate inicio : tramo) {
+                List<TotalPeriodoDTO> totales = leidos.getOrDefault(inicio, List.of());
+                if (cerrado(periodo, inicio, hoy)) {
+                    guardar(cache, new Clave(agrupacion, periodo, inicio), new Totales(totales), vigente);
+                }
+                porPeriodo.put(inicio, totales);
+            }
+            desdeFaltante = hastaFaltante + 1;
+        }
+
+        List<TotalPeriodoDTO> resultado = new ArrayList<>();
+        for (LocalDate inicio : inicios) {
+            for (TotalPeriodoDTO total : porPeriodo.get(inicio)) {
+                if (id == null || id.equals(total.id())) {
+                    resultado.add(total);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    // Un cambio en un día ya pasado puede alterar periodos cerrados; se vacía al confirmar la transacción y un reporte
+    // concurrente que leyó los totales anteriores ya no los guarda (ver generacion)
+    @Override
+    public void invalidar(LocalDate dia) {
+        if (dia.isBefore(LocalDate.now())) {
+            invalidarTodo();
+        }
+    }
+
+    @Override
+    public void invalidarTodo() {
+        Cache cache = cache();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    vaciar(cache);
+                }
+            });
+        } else {
+            vaciar(cache);
+        }
+    }
+
+    private void vaciar(Cache cache) {
+        generacion.incrementAndGet();
+        cache.clear();
+    }
+
+    // Si la invalidación llega entre la comprobación y el put, la segunda comprobación retira lo recién guardado
+    private void guardar(Cache cache, Clave clave, Totales totales, long vigente) {
+        if (generacion.get() == vigente) {
+            cache.put(clave, totales);
+            if (generacion.get() != vigente) {
+                cache.evict(clave);
+            }
+        }
+    }
+
+    // Suma los totales diarios del tramo por (periodo, id); cada periodo queda ordenado por id
+    private Map<LocalDate, List<TotalPeriodoDTO>> leer(AgrupacionReporte agrupacion, Periodo periodo, List<LocalDate> tramo) {
+        LocalDate desde = tramo.get(0);
+        LocalDate hasta = periodo.siguiente(tramo.get(tramo.size() - 1)).minusDays(1);
+        List<TotalDiaDTO> dias = switch (agrupacion) {
+            case Usuario -> tiempoUsuarioDiaRepository.findTotales(desde, hasta);
+            case Tarea -> tiempoTareaDiaRepository.findTotales(desde, hasta);
+            case Proyecto -> tiempoProyectoDiaRepository.findTotales(desde, hasta);
+        };
+
+        Map<LocalDate, Map<Integer, long[]>> sumas = new HashMap<>();
+        for (TotalDiaDTO dia : dias) {
+            long[] suma = sumas.computeIfAbsent(periodo.inicio(dia.dia()), inicio -> new HashMap<>())
+                    .computeIfAbsent(dia.id(), clave -> new long[2]);
+            suma[0] += dia.duracionTotal();
+            suma[1] += dia.sesiones();
+        }
+
+        Map<LocalDate, List<TotalPeriodoDTO>> totales = new HashMap<>();
+        sumas.forEach((inicio, porId) -> totales.put(inicio, porId.entrySet().stream()
+                .map(entrada -> new TotalPeriodoDTO(entrada.getKey(), inicio, entrada.getValue()[0], entrada.getValue()[1]))
+                .sorted(Comparator.comparing(TotalPeriodoDTO::id))
+                .toList()));
+        return totales;
+    }
+
+    private boolean cerrado(Periodo periodo, LocalDate inicio, LocalDate hoy) {
+        return !periodo.siguiente(inicio).isAfter(hoy);
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheConfig.REPORTES_TIEMPO);
+    }
+
+    private record Clave(AgrupacionReporte agrupacion, Periodo periodo, LocalDate inicio) {
+    }
+
+    // Envoltura tipada para leer de la caché sin un cast sin verificar
+    private record Totales(List<TotalPeriodoDTO> filas) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.metaphorce.TaskFlow.service;
+
+// El usuario ya tiene otra sesión de tiempo abierta (o reservada por el temporizador)
+public class SesionAbiertaException extends RuntimeException {
+
+    public SesionAbiertaException(Integer idUsuario) {
+        super("El usuario " + idUsuario + " ya tiene una sesión de tiempo abierta");
+    }
+}
@@ -0,0 +1,132 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.GestionTiempoDTO;
+import com.metaphorce.TaskFlow.repository.GestionTiempoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Registro en memoria de la sesión de tiempo abierta de cada usuario (a lo más una). El temporizador lo consulta en
+// lugar de la base de datos; las altas, cambios y bajas por las rutas genéricas lo actualizan al confirmarse.
+// Una reserva (idGestion null) ocupa el lugar del usuario mientras se inserta su sesión. Las lecturas no toman
+// candado; los cambios se serializan para mantener el índice por idGestion al día con el mapa por usuario.
+@Component
+public class SesionesAbiertas {
+
+    private final Map<Integer, GestionTiempoDTO> porUsuario = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> usuarioPorGestion = new ConcurrentHashMap<>();
+
+    @Autowired
+    private GestionTiempoRepository gestionTiempoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void registrarMetrica() {
+        Gauge.builder("taskflow.tiempo.sesiones.abiertas", porUsuario, Map::size)
+                .description("Sesiones de tiempo abiertas en el registro")
+                .register(meterRegistry);
+    }
+
+    // Si un usuario quedó con varias sesiones abiertas (datos anteriores al temporizador) gana la más reciente
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconstruir() {
+        porUsuario.clear();
+        usuarioPorGestion.clear();
+        gestionTiempoRepository.findAbiertas().forEach(this::ocupar);
+    }
+
+    // Solo las sesiones ya guardadas; una reserva en curso no cuenta como abierta
+    public Optional<GestionTiempoDTO> get(Integer idUsuario) {
+        return Optional.ofNullable(porUsuario.get(idUsuario)).filter(abierta -> abierta.idGestion() != null);
+    }
+
+    // false si el usuario ya tiene una sesión abierta o reservada
+    boolean reservar(GestionTiempoDTO reserva) {
+        return porUsuario.putIfAbsent(reserva.idUsuario(), reserva) == null;
+    }
+
+    synchronized void confirmar(GestionTiempoDTO reserva, GestionTiempoDTO abierta) {
+        if (porUsuario.replace(reserva.idUsuario(), reserva, abierta)) {
+            usuarioPorGestion.put(abierta.idGestion(), abierta.idUsuario());
+        }
+    }
+
+    synchronized void liberar(GestionTiempoDTO sesion) {
+        if (porUsuario.remove(sesion.idUsuario(), sesion) && sesion.idGestion() != null) {
+            usuarioPorGestion.remove(sesion.idGestion(), sesion.idUsuario());
+        }
+    }
+
+    // Las rutas genéricas pasan por aquí dentro de su transacción. Un registro abierto reserva de inmediato el lugar de
+    // su usuario, igual que el temporizador: si ya lo ocupa otra sesión lanza SesionAbiertaException y la transacción
+    // se revierte. Al confirmarse, el registro reemplaza a la reserva (y a su versión anterior, aunque haya cambiado de
+    // usuario); si se revierte, la reserva se libera.
+    void sincronizar(GestionTiempoDTO registro) {
+        if (registro.fechaFin() != null) {
+            olvidar(registro);
+            return;
+        }
+        GestionTiempoDTO reserva = new GestionTiempoDTO(null, registro.idTarea(), registro.idUsuario(), registro.fechaInicio(), null, null);
+        GestionTiempoDTO actual = porUsuario.putIfAbsent(registro.idUsuario(), reserva);
+        if (actual != null && !registro.idGestion().equals(actual.idGestion())) {
+            throw new SesionAbiertaException(registro.idUsuario());
+        }
+        alCompletar(() -> {
+            synchronized (this) {
+                olvidarAhora(registro.idGestion());
+                if (porUsuario.remove(registro.idUsuario(), reserva) || !porUsuario.containsKey(registro.idUsuario())) {
+                    ocupar(registro);
+                }
+            }
+        }, () -> liberar(reserva));
+    }
+
+    void olvidar(GestionTiempoDTO registro) {
+        alCompletar(() -> {
+            synchronized (this) {
+                olvidarAhora(registro.idGestion());
+            }
+        }, () -> {
+        });
+    }
+
+    private void ocupar(GestionTiempoDTO abierta) {
+        GestionTiempoDTO anterior = porUsuario.put(abierta.idUsuario(), abierta);
+        if (anterior != null && anterior.idGestion() != null) {
+            usuarioPorGestion.remove(anterior.idGestion(), anterior.idUsuario());
+        }
+        usuarioPorGestion.put(abierta.idGestion(), abierta.idUsuario());
+    }
+
+    private void olvidarAhora(Integer idGestion) {
+        Integer idUsuario = usuarioPorGestion.remove(idGestion);
+        if (idUsuario != null) {
+            porUsuario.computeIfPresent(idUsuario, (usuario, abierta) -> idGestion.equals(abierta.idGestion()) ? null : abierta);
+        }
+    }
+
+    private void alCompletar(Runnable alConfirmar, Runnable alRevertir) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    (estado == STATUS_COMMITTED ? alConfirmar : alRevertir).run();
+                }
+            });
+        } else {
+            alConfirmar.run();
+        }
+    }
+}
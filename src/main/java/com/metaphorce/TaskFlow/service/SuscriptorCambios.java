@@ -0,0 +1,14 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.EventoCambioDTO;
+
+import java.io.IOException;
+
+// Destino de una suscripción al feed. Se invoca desde el hilo propio de la suscripción, nunca desde el que publica;
+// si entregar o latido lanzan excepción la suscripción se cancela.
+public interface SuscriptorCambios {
+    void entregar(EventoCambioDTO evento) throws IOException;
+    void latido() throws IOException;
+    // desbordado = el cliente no leyó a tiempo y perdió eventos; debe recargar sus listas antes de volver a suscribirse
+    void terminar(boolean desbordado);
+}
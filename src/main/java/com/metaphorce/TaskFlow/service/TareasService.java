@@ -1,23 +1,45 @@
 package com.metaphorce.TaskFlow.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.dto.CursorTareaDTO;
+import com.metaphorce.TaskFlow.dto.FiltroTareasDTO;
+import com.metaphorce.TaskFlow.dto.FirmaColeccionDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoLoteDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.dto.TareaDetalleDTO;
 import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.ExpansionTarea;
+import com.metaphorce.TaskFlow.enums.OrdenTarea;
 import com.metaphorce.TaskFlow.enums.Prioridad;
 import com.metaphorce.TaskFlow.modelo.Tareas;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TareasService {
-    List<Tareas> getAllTareas();
-    Optional<Tareas> getTareaById(Integer id);
+    List<TareaDTO> getAllTareas(Integer cursor, int size);
+    void streamAllTareas(Consumer<TareaDTO> consumer);
+    Optional<TareaDTO> getTareaById(Integer id);
+    Optional<Long> getVersionTarea(Integer id);
     Tareas createTarea(Tareas tarea);
+    ResultadoLoteDTO createTareas(Iterator<Tareas> tareas);
     Tareas updateTarea(Integer id, Tareas tarea);
+    ResultadoLoteDTO updateTareas(Iterator<Tareas> tareas);
+    boolean patchTarea(Integer id, Long versionEsperada, ObjectNode parche);
+    boolean cambiarEstatus(Integer id, Estatus estatus, Long versionEsperada);
     void deleteTarea(Integer id);
 
-    List<Tareas> getTareasByCreador(Integer idUsuario);
-    List<Tareas> getTareasByUsuarioAsignado(Integer idUsuario);
-    List<Tareas> getTareasByProyecto(Integer idProyecto);
-    List<Tareas> getTareasByFechaCreacion(LocalDateTime fechaCreacion);
-    List<Tareas> getTareasByPrioridad(Prioridad prioridad);
-    List<Tareas> getTareasByEstatus(Estatus estatus);
+    List<TareaDTO> getTareasByCreador(Integer idUsuario, Integer cursor, int size);
+    List<TareaDTO> getTareasByUsuarioAsignado(Integer idUsuario, Integer cursor, int size);
+    FirmaColeccionDTO getFirmaTareasByUsuarioAsignado(Integer idUsuario);
+    List<TareaDetalleDTO> getTareasByUsuarioAsignado(Integer idUsuario, ExpansionTarea expansion, Integer cursor, int size);
+    List<TareaDTO> getTareasByProyecto(Integer idProyecto, Integer cursor, int size);
+    FirmaColeccionDTO getFirmaTareasByProyecto(Integer idProyecto);
+    List<TareaDetalleDTO> getTareasByProyecto(Integer idProyecto, ExpansionTarea expansion, Integer cursor, int size);
+    List<TareaDTO> getTareasByFechaCreacion(LocalDateTime fechaCreacion, Integer cursor, int size);
+    List<TareaDTO> getTareasByPrioridad(Prioridad prioridad, Integer cursor, int size);
+    List<TareaDTO> getTareasByEstatus(Estatus estatus, Integer cursor, int size);
+    List<TareaDTO> buscarTareas(FiltroTareasDTO filtro, OrdenTarea orden, CursorTareaDTO cursor, int size);
 }
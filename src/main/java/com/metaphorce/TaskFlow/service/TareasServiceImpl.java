@@ -1,78 +1,346 @@
 package com.metaphorce.TaskFlow.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.config.CacheConfig;
+import com.metaphorce.TaskFlow.dto.CursorTareaDTO;
+import com.metaphorce.TaskFlow.dto.FiltroTareasDTO;
+import com.metaphorce.TaskFlow.dto.FirmaColeccionDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoLoteDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.dto.TareaDetalleDTO;
 import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.ExpansionTarea;
+import com.metaphorce.TaskFlow.enums.OrdenTarea;
 import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.enums.TipoCambio;
+import com.metaphorce.TaskFlow.modelo.Proyecto;
 import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.GestionTiempoRepository;
 import com.metaphorce.TaskFlow.repository.TareasRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("taskflow.service")
 public class TareasServiceImpl implements TareasService {
 
+    // Campos que acepta el PATCH, con los nombres de TareaDTO
+    private static final Map<String, ActualizacionParcial.Campo> CAMPOS_PARCHE = Map.of(
+            "idCreadorTarea", ActualizacionParcial.Campo.relacion("creadorTarea", Usuario.class),
+            "idUsuarioAsignada", ActualizacionParcial.Campo.relacion("usuarioAsignada", Usuario.class),
+            "idProyecto", ActualizacionParcial.Campo.relacion("proyecto", Proyecto.class),
+            "fechaCreacion", ActualizacionParcial.Campo.valor("fechaCreacion", LocalDateTime.class, false),
+            "fechaTerminada", ActualizacionParcial.Campo.valor("fechaTerminada", LocalDateTime.class, true),
+            "titulo", ActualizacionParcial.Campo.valor("titulo", String.class, false),
+            "descripcion", ActualizacionParcial.Campo.valor("descripcion", String.class, false),
+            "prioridad", ActualizacionParcial.Campo.valor("prioridad", Prioridad.class, false),
+            "estatus", ActualizacionParcial.Campo.valor("estatus", Estatus.class, false));
+
+    // Campos que forman parte del documento en el índice de búsqueda
+    private static final Set<String> CAMPOS_INDEXADOS = Set.of("idCreadorTarea", "idUsuarioAsignada", "idProyecto", "titulo", "descripcion");
+
     @Autowired
     private TareasRepository tareasRepository;
 
+    @Autowired
+    private GestionTiempoRepository gestionTiempoRepository;
+
+    @Autowired
+    private AcumuladoTiempoService acumuladoTiempoService;
+
+    @Autowired
+    private ProcesadorLotes procesadorLotes;
+
+    @Autowired
+    private IndiceBusquedaService indiceBusquedaService;
+
+    @Autowired
+    private EventosCambioService eventosCambioService;
+
+    @Autowired
+    private ReferenciasEntidades referenciasEntidades;
+
+    @Autowired
+    private ActualizacionParcial actualizacionParcial;
+
     @Override
-    public List<Tareas> getAllTareas() {
-        return tareasRepository.findAll();
+    public List<TareaDTO> getAllTareas(Integer cursor, int size) {
+        return tareasRepository.findByIdTareaGreaterThanOrderByIdTareaAsc(desde(cursor), Limit.of(size));
     }
 
     @Override
-    public Optional<Tareas> getTareaById(Integer id) {
-        return tareasRepository.findById(id);
+    @Transactional(readOnly = true)
+    public void streamAllTareas(Consumer<TareaDTO> consumer) {
+        try (Stream<TareaDTO> tareas = tareasRepository.streamAll()) {
+            tareas.forEach(consumer);
+        }
     }
 
     @Override
+    public Optional<TareaDTO> getTareaById(Integer id) {
+        return tareasRepository.findDTOById(id);
+    }
+
+    @Override
+    public Optional<Long> getVersionTarea(Integer id) {
+        return tareasRepository.findVersionById(id);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
     public Tareas createTarea(Tareas tarea) {
-        return tareasRepository.save(tarea);
+        Tareas guardada = tareasRepository.save(referenciasEntidades.enlazar(tarea));
+        TareaDTO creada = TareaDTO.from(guardada);
+        indiceBusquedaService.indexarTarea(creada);
+        eventosCambioService.publicarTarea(TipoCambio.Creado, creada);
+        return guardada;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    public ResultadoLoteDTO createTareas(Iterator<Tareas> tareas) {
+        return procesadorLotes.procesar(tareas, this::validarTarea, lote -> {
+            // Id y versión se limpian para que un reintento del lote (ver ProcesadorLotes) vuelva a insertar
+            lote.forEach(tarea -> {
+                referenciasEntidades.enlazar(tarea).setIdTarea(null);
+                tarea.setVersion(null);
+            });
+            List<Tareas> guardadas = tareasRepository.saveAll(lote);
+            guardadas.stream().map(TareaDTO::from).forEach(creada -> {
+                indiceBusquedaService.indexarTarea(creada);
+                eventosCambioService.publicarTarea(TipoCambio.Creado, creada);
+            });
+            return guardadas.stream().map(Tareas::getIdTarea).toList();
+        });
     }
 
+    // Si cambia el proyecto, el tiempo de la tarea pasa del acumulado del proyecto anterior al del nuevo
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
     public Tareas updateTarea(Integer id, Tareas tarea) {
-        if (tareasRepository.existsById(id)) {
+        Optional<Long> vigente = tareasRepository.findVersionById(id);
+        if (vigente.isPresent()) {
             tarea.setIdTarea(id);
-            return tareasRepository.save(tarea);
+            // Sin versión en el cuerpo (ni If-Match) se toma la vigente y el PUT sigue siendo incondicional
+            if (tarea.getVersion() == null) {
+                tarea.setVersion(vigente.get());
+            }
+            List<Integer> movida = cambiaDeProyecto(tarea, tareasRepository.findIdProyectoById(id).orElse(null))
+                    ? List.of(id) : List.of();
+            acumuladoTiempoService.restarTiempoDeProyecto(movida);
+            Tareas guardada = tareasRepository.save(referenciasEntidades.enlazar(tarea));
+            acumuladoTiempoService.sumarTiempoAProyecto(movida);
+            TareaDTO actualizada = TareaDTO.from(guardada);
+            indiceBusquedaService.indexarTarea(actualizada);
+            eventosCambioService.publicarTarea(TipoCambio.Actualizado, actualizada);
+            return guardada;
         }
         return null;
     }
 
+    // Cada elemento se trata como un PUT. Las tareas del bloque se leen con una sola consulta, así el merge no hace un
+    // SELECT por elemento; un id inexistente solo falla su elemento y una versión vieja falla su bloque.
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    public ResultadoLoteDTO updateTareas(Iterator<Tareas> tareas) {
+        return procesadorLotes.procesar(tareas, this::validarActualizacion, lote -> {
+            Map<Integer, Tareas> vigentes = new HashMap<>();
+            tareasRepository.findAllById(lote.stream().map(Tareas::getIdTarea).toList())
+                    .forEach(vigente -> vigentes.put(vigente.getIdTarea(), vigente));
+            List<Integer> movidas = lote.stream()
+                    .filter(tarea -> vigentes.containsKey(tarea.getIdTarea()))
+                    .filter(tarea -> cambiaDeProyecto(tarea, vigentes.get(tarea.getIdTarea()).getProyecto().getIdProyecto()))
+                    .map(Tareas::getIdTarea)
+                    .distinct()
+                    .toList();
+            acumuladoTiempoService.restarTiempoDeProyecto(movidas);
+            List<Integer> ids = new ArrayList<>(lote.size());
+            List<Tareas> guardadas = new ArrayList<>(lote.size());
+            for (Tareas tarea : lote) {
+                Tareas vigente = vigentes.get(tarea.getIdTarea());
+                if (vigente == null) {
+                    ids.add(null);
+                    continue;
+                }
+                if (tarea.getVersion() == null) {
+                    tarea.setVersion(vigente.getVersion());
+                }
+                guardadas.add(tareasRepository.save(referenciasEntidades.enlazar(tarea)));
+                ids.add(tarea.getIdTarea());
+            }
+            // Tras el flush las entidades ya traen la versión nueva
+            tareasRepository.flush();
+            acumuladoTiempoService.sumarTiempoAProyecto(movidas);
+            guardadas.stream().map(TareaDTO::from).forEach(actualizada -> {
+                indiceBusquedaService.indexarTarea(actualizada);
+                eventosCambioService.publicarTarea(TipoCambio.Actualizado, actualizada);
+            });
+            return ids;
+        });
+    }
+
+    // Un solo UPDATE de las columnas del parche; la tarea solo se relee si cambia el índice o hay suscriptores al feed
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    public boolean patchTarea(Integer id, Long versionEsperada, ObjectNode parche) {
+        // Un parche de idProyecto mueve el tiempo de la tarea entre los acumulados por proyecto
+        List<Integer> movida = parche.has("idProyecto") ? List.of(id) : List.of();
+        acumuladoTiempoService.restarTiempoDeProyecto(movida);
+        if (!actualizacionParcial.aplicar(Tareas.class, "idTarea", id, versionEsperada, CAMPOS_PARCHE, parche)) {
+            return false;
+        }
+        acumuladoTiempoService.sumarTiempoAProyecto(movida);
+        boolean reindexar = parche.properties().stream().map(Map.Entry::getKey).anyMatch(CAMPOS_INDEXADOS::contains);
+        if (reindexar || eventosCambioService.getSuscripciones() > 0) {
+            tareasRepository.findDTOById(id).ifPresent(actualizada -> {
+                if (reindexar) {
+                    indiceBusquedaService.indexarTarea(actualizada);
+                }
+                eventosCambioService.publicarTarea(TipoCambio.Actualizado, actualizada);
+            });
+        }
+        return true;
+    }
+
+    // Camino directo para la transición más frecuente: Hecha fija fechaTerminada (si no la tenía), cualquier otro
+    // estatus la limpia
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    public boolean cambiarEstatus(Integer id, Estatus estatus, Long versionEsperada) {
+        LocalDateTime terminada = estatus == Estatus.Hecha ? LocalDateTime.now() : null;
+        if (tareasRepository.actualizarEstatus(id, estatus, terminada, versionEsperada) == 0) {
+            Optional<Long> vigente = tareasRepository.findVersionById(id);
+            if (vigente.isEmpty()) {
+                return false;
+            }
+            throw new ObjectOptimisticLockingFailureException(Tareas.class, id);
+        }
+        if (eventosCambioService.getSuscripciones() > 0) {
+            tareasRepository.findDTOById(id).ifPresent(actualizada -> eventosCambioService.publicarTarea(TipoCambio.Actualizado, actualizada));
+        }
+        return true;
+    }
+
+    // Sus registros de tiempo se borran en cascada y se descuentan de los acumulados
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
     public void deleteTarea(Integer id) {
+        // Se lee antes de borrar para que el evento llegue a los suscriptores del asignado, del creador y del proyecto
+        Optional<TareaDTO> eliminada = tareasRepository.findDTOById(id);
+        acumuladoTiempoService.restarSesiones(gestionTiempoRepository.findIdsByTarea(id));
         tareasRepository.deleteById(id);
+        indiceBusquedaService.eliminarTarea(id);
+        eliminada.ifPresent(tarea -> eventosCambioService.publicarTarea(TipoCambio.Eliminado, tarea));
+    }
+
+    @Override
+    public List<TareaDTO> getTareasByCreador(Integer idUsuario, Integer cursor, int size) {
+        return tareasRepository.findByCreadorTarea_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(idUsuario, desde(cursor), Limit.of(size));
+    }
+
+    @Override
+    public List<TareaDTO> getTareasByUsuarioAsignado(Integer idUsuario, Integer cursor, int size) {
+        return tareasRepository.findByUsuarioAsignada_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(idUsuario, desde(cursor), Limit.of(size));
+    }
+
+    @Override
+    public FirmaColeccionDTO getFirmaTareasByUsuarioAsignado(Integer idUsuario) {
+        return tareasRepository.findFirmaByUsuarioAsignada_IdUsuario(idUsuario);
+    }
+
+    @Override
+    public List<TareaDetalleDTO> getTareasByUsuarioAsignado(Integer idUsuario, ExpansionTarea expansion, Integer cursor, int size) {
+        List<Tareas> tareas = switch (expansion) {
+            case Proyecto -> tareasRepository.findConProyectoByUsuarioAsignada_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(idUsuario, desde(cursor), Limit.of(size));
+            case Usuarios -> tareasRepository.findConUsuariosByUsuarioAsignada_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(idUsuario, desde(cursor), Limit.of(size));
+            case Completa -> tareasRepository.findCompletaByUsuarioAsignada_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(idUsuario, desde(cursor), Limit.of(size));
+        };
+        return tareas.stream().map(TareaDetalleDTO::from).toList();
+    }
+
+    @Override
+    public List<TareaDTO> getTareasByProyecto(Integer idProyecto, Integer cursor, int size) {
+        return tareasRepository.findByProyecto_IdProyectoAndIdTareaGreaterThanOrderByIdTareaAsc(idProyecto, desde(cursor), Limit.of(size));
     }
 
     @Override
-    public List<Tareas> getTareasByCreador(Integer idUsuario) {
-        return tareasRepository.findByCreadorTarea_IdUsuario(idUsuario);
+    public FirmaColeccionDTO getFirmaTareasByProyecto(Integer idProyecto) {
+        return tareasRepository.findFirmaByProyecto_IdProyecto(idProyecto);
     }
 
     @Override
-    public List<Tareas> getTareasByUsuarioAsignado(Integer idUsuario) {
-        return tareasRepository.findByUsuarioAsignada_IdUsuario(idUsuario);
+    public List<TareaDetalleDTO> getTareasByProyecto(Integer idProyecto, ExpansionTarea expansion, Integer cursor, int size) {
+        List<Tareas> tareas = switch (expansion) {
+            case Proyecto -> tareasRepository.findConProyectoByProyecto_IdProyectoAndIdTareaGreaterThanOrderByIdTareaAsc(idProyecto, desde(cursor), Limit.of(size));
+            case Usuarios -> tareasRepository.findConUsuariosByProyecto_IdProyectoAndIdTareaGreaterThanOrderByIdTareaAsc(idProyecto, desde(cursor), Limit.of(size));
+            case Completa -> tareasRepository.findCompletaByProyecto_IdProyectoAndIdTareaGreaterThanOrderByIdTareaAsc(idProyecto, desde(cursor), Limit.of(size));
+        };
+        return tareas.stream().map(TareaDetalleDTO::from).toList();
     }
 
     @Override
-    public List<Tareas> getTareasByProyecto(Integer idProyecto) {
-        return tareasRepository.findByProyecto_IdProyecto(idProyecto);
+    public List<TareaDTO> getTareasByFechaCreacion(LocalDateTime fechaCreacion, Integer cursor, int size) {
+        return tareasRepository.findByFechaCreacionAndIdTareaGreaterThanOrderByIdTareaAsc(fechaCreacion, desde(cursor), Limit.of(size));
     }
 
     @Override
-    public List<Tareas> getTareasByFechaCreacion(LocalDateTime fechaCreacion) {
-        return tareasRepository.findByFechaCreacion(fechaCreacion);
+    public List<TareaDTO> getTareasByPrioridad(Prioridad prioridad, Integer cursor, int size) {
+        return tareasRepository.findByPrioridadAndIdTareaGreaterThanOrderByIdTareaAsc(prioridad, desde(cursor), Limit.of(size));
     }
 
     @Override
-    public List<Tareas> getTareasByPrioridad(Prioridad prioridad) {
-        return tareasRepository.findByPrioridad(prioridad);
+    public List<TareaDTO> getTareasByEstatus(Estatus estatus, Integer cursor, int size) {
+        return tareasRepository.findByEstatusAndIdTareaGreaterThanOrderByIdTareaAsc(estatus, desde(cursor), Limit.of(size));
     }
 
     @Override
-    public List<Tareas> getTareasByEstatus(Estatus estatus) {
-        return tareasRepository.findByEstatus(estatus);
+    public List<TareaDTO> buscarTareas(FiltroTareasDTO filtro, OrdenTarea orden, CursorTareaDTO cursor, int size) {
+        return tareasRepository.buscar(filtro, orden, cursor, Limit.of(size));
+    }
+
+    private static boolean cambiaDeProyecto(Tareas tarea, Integer idProyectoVigente) {
+        return tarea.getProyecto() != null && !Objects.equals(tarea.getProyecto().getIdProyecto(), idProyectoVigente);
+    }
+
+    private String validarActualizacion(Tareas tarea) {
+        return tarea.getIdTarea() == null ? "La tarea debe indicar idTarea" : validarTarea(tarea);
+    }
+
+    private String validarTarea(Tareas tarea) {
+        if (tarea.getCreadorTarea() == null || tarea.getUsuarioAsignada() == null || tarea.getProyecto() == null) {
+            return "La tarea debe indicar creador, usuario asignado y proyecto";
+        }
+        if (tarea.getTitulo() == null || tarea.getDescripcion() == null || tarea.getFechaCreacion() == null
+                || tarea.getPrioridad() == null || tarea.getEstatus() == null) {
+            return "La tarea debe indicar titulo, descripcion, fecha de creacion, prioridad y estatus";
+        }
+        return null;
+    }
+
+    // Sin cursor se empieza desde el primer id
+    private Integer desde(Integer cursor) {
+        return cursor != null ? cursor : 0;
     }
 }
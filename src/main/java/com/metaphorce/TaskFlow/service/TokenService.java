@@ -0,0 +1,11 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.SesionDTO;
+import com.metaphorce.TaskFlow.enums.Rol;
+import java.util.Optional;
+
+public interface TokenService {
+    SesionDTO emitir(Integer idUsuario, String correo, Rol rol);
+    Optional<SesionDTO> verificar(String token);
+    void revocar(String token);
+}
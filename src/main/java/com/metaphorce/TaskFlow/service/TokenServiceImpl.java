@@ -0,0 +1,147 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.metaphorce.TaskFlow.dto.SesionDTO;
+import com.metaphorce.TaskFlow.enums.Rol;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+// Tokens firmados con HMAC-SHA256: "<contenido>.<firma>", ambos en Base64 URL. El contenido lleva idUsuario, correo,
+// rol y expiración, así que autenticar y autorizar una petición no consulta la base de datos.
+@Service
+public class TokenServiceImpl implements TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenServiceImpl.class);
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${taskflow.credenciales.duracion-token:15m}")
+    private Duration duracionToken;
+
+    @Value("${taskflow.tokens.secreto:}")
+    private String secreto;
+
+    @Value("${taskflow.tokens.revocacion.casillas:16}")
+    private int casillas;
+
+    @Value("${taskflow.tokens.revocacion.bits-por-casilla:1048576}")
+    private int bitsPorCasilla;
+
+    private SecretKeySpec llave;
+    private FiltroRevocacion revocados;
+    private Cache<String, Contenido> verificados;
+
+    private record Contenido(String id, Integer idUsuario, String correo, Rol rol, long expira) {
+    }
+
+    @PostConstruct
+    void iniciar() {
+        byte[] bytes;
+        if (secreto.isBlank()) {
+            log.warn("taskflow.tokens.secreto no está configurado: se genera uno aleatorio y los tokens no sobreviven a un reinicio");
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+        } else {
+            bytes = Base64.getDecoder().decode(secreto);
+        }
+        llave = new SecretKeySpec(bytes, ALGORITMO);
+        revocados = new FiltroRevocacion(duracionToken, casillas, bitsPorCasilla);
+        // Evita repetir la firma y la lectura del JSON para un token ya verificado; la revocación se revisa siempre
+        verificados = Caffeine.newBuilder()
+                .expireAfterWrite(duracionToken)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    public SesionDTO emitir(Integer idUsuario, String correo, Rol rol) {
+        Instant expira = Instant.now().plus(duracionToken);
+        Contenido contenido = new Contenido(UUID.randomUUID().toString(), idUsuario, correo, rol, expira.getEpochSecond());
+        try {
+            String cuerpo = CODIFICADOR.encodeToString(objectMapper.writeValueAsBytes(contenido));
+            String token = cuerpo + "." + CODIFICADOR.encodeToString(firmar(cuerpo));
+            verificados.put(token, contenido);
+            return sesion(token, contenido);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo generar el token", e);
+        }
+    }
+
+    @Override
+    public Optional<SesionDTO> verificar(String token) {
+        Contenido contenido = verificados.get(token, this::leer);
+        if (contenido == null) {
+            return Optional.empty();
+        }
+        Instant expira = Instant.ofEpochSecond(contenido.expira());
+        if (expira.isBefore(Instant.now()) || revocados.revocado(contenido.id(), expira)) {
+            return Optional.empty();
+        }
+        return Optional.of(sesion(token, contenido));
+    }
+
+    @Override
+    public void revocar(String token) {
+        Contenido contenido = leer(token);
+        if (contenido != null) {
+            revocados.revocar(contenido.id(), Instant.ofEpochSecond(contenido.expira()));
+        }
+        verificados.invalidate(token);
+    }
+
+    // Devuelve null si el token está mal formado o la firma no coincide
+    private Contenido leer(String token) {
+        int punto = token.indexOf('.');
+        if (punto < 0) {
+            return null;
+        }
+        String cuerpo = token.substring(0, punto);
+        try {
+            byte[] firma = DECODIFICADOR.decode(token.substring(punto + 1));
+            if (!MessageDigest.isEqual(firma, firmar(cuerpo))) {
+                return null;
+            }
+            return objectMapper.readValue(DECODIFICADOR.decode(cuerpo), Contenido.class);
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    private byte[] firmar(String cuerpo) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(llave);
+            return mac.doFinal(cuerpo.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SesionDTO sesion(String token, Contenido contenido) {
+        return new SesionDTO(token, contenido.idUsuario(), contenido.correo(), contenido.rol(),
+                Instant.ofEpochSecond(contenido.expira()));
+    }
+}
@@ -0,0 +1,13 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.ResultadoTransicionDTO;
+import com.metaphorce.TaskFlow.enums.Estatus;
+
+import java.util.Collection;
+
+public interface TransicionEstatusService {
+    void revisarEstatus();
+    int marcarRetrasadas();
+    int sellarTerminadas();
+    ResultadoTransicionDTO transicionar(Collection<Integer> ids, Estatus estatus);
+}
@@ -0,0 +1,145 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.config.CacheConfig;
+import com.metaphorce.TaskFlow.dto.ResultadoTransicionDTO;
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.TipoCambio;
+import com.metaphorce.TaskFlow.repository.TareasRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+
+// Cambia el estatus de muchas tareas con UPDATE masivos, sin cargar entidades. Cada bloque de ids va en su propia
+// transacción para que los bloqueos duren poco; un bloque confirmado no se deshace si falla uno posterior.
+@Service
+@Timed("taskflow.service")
+public class TransicionEstatusServiceImpl implements TransicionEstatusService {
+
+    // Estatus que todavía pueden vencer
+    public static final Set<Estatus> ABIERTOS = EnumSet.of(Estatus.Asignada, Estatus.En_progreso);
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    @Autowired
+    private EventosCambioService eventosCambioService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${taskflow.estatus.lote:500}")
+    private int tamanioLote;
+
+    @Override
+    @Scheduled(fixedDelayString = "${taskflow.estatus.intervalo:5m}", initialDelayString = "${taskflow.estatus.intervalo:5m}")
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    public void revisarEstatus() {
+        marcarRetrasadas();
+        sellarTerminadas();
+    }
+
+    // Una tarea está retrasada cuando sigue abierta y la fecha de fin de su proyecto ya pasó
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    public int marcarRetrasadas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        return medir("retrasadas", () -> porBloques(
+                cursor -> tareasRepository.findIdsVencidas(ABIERTOS, ahora, cursor, Limit.of(tamanioLote)),
+                ids -> tareasRepository.findIdsTransicionables(ids, ABIERTOS),
+                ids -> tareasRepository.transicionar(ids, Estatus.Retrasada, null, ABIERTOS)));
+    }
+
+    // Tareas que llegaron a Hecha sin fechaTerminada (por ejemplo con un PUT que no la traía)
+    @Override
+    public int sellarTerminadas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        return medir("terminadas", () -> porBloques(
+                cursor -> tareasRepository.findIdsSinFechaTerminada(Estatus.Hecha, cursor, Limit.of(tamanioLote)),
+                ids -> tareasRepository.findIdsPorSellar(ids, Estatus.Hecha),
+                ids -> tareasRepository.sellarFechaTerminada(ids, Estatus.Hecha, ahora)));
+    }
+
+    // Hecha fija fechaTerminada (si no la tenía) y cualquier otro estatus la limpia, igual que el cambio individual;
+    // las tareas que ya tenían ese estatus no se tocan
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    public ResultadoTransicionDTO transicionar(Collection<Integer> ids, Estatus estatus) {
+        List<Integer> distintos = new ArrayList<>(new LinkedHashSet<>(ids));
+        LocalDateTime terminada = estatus == Estatus.Hecha ? LocalDateTime.now() : null;
+        Set<Estatus> origen = EnumSet.complementOf(EnumSet.of(estatus));
+        int actualizadas = medir("transicion", () -> {
+            int total = 0;
+            for (int desde = 0; desde < distintos.size(); desde += tamanioLote) {
+                List<Integer> bloque = distintos.subList(desde, Math.min(desde + tamanioLote, distintos.size()));
+                total += aplicarBloque(bloque, lote -> tareasRepository.findIdsTransicionables(lote, origen),
+                        lote -> tareasRepository.transicionar(lote, estatus, terminada, origen));
+            }
+            return total;
+        });
+        return new ResultadoTransicionDTO(estatus, distintos.size(), actualizadas);
+    }
+
+    // Recorre los candidatos por cursor sobre el id: cada bloque es una lectura de ids por índice y un UPDATE
+    private int porBloques(Function<Integer, List<Integer>> siguientes, Function<List<Integer>, List<Integer>> seleccionar,
+                           ToIntFunction<List<Integer>> actualizar) {
+        int total = 0;
+        Integer cursor = 0;
+        List<Integer> bloque = siguientes.apply(cursor);
+        while (!bloque.isEmpty()) {
+            total += aplicarBloque(bloque, seleccionar, actualizar);
+            if (bloque.size() < tamanioLote) {
+                break;
+            }
+            cursor = bloque.get(bloque.size() - 1);
+            bloque = siguientes.apply(cursor);
+        }
+        return total;
+    }
+
+    // seleccionar devuelve, bloqueadas, las filas del bloque que cumplen la condición del UPDATE; solo se usa si alguien
+    // escucha el feed de cambios, para publicar únicamente las tareas que el UPDATE cambió
+    private int aplicarBloque(List<Integer> bloque, Function<List<Integer>, List<Integer>> seleccionar,
+                              ToIntFunction<List<Integer>> actualizar) {
+        Integer filas = new TransactionTemplate(transactionManager).execute(status -> {
+            if (eventosCambioService.getSuscripciones() == 0) {
+                return actualizar.applyAsInt(bloque);
+            }
+            List<Integer> cambian = seleccionar.apply(bloque);
+            if (cambian.isEmpty()) {
+                return 0;
+            }
+            int actualizadas = actualizar.applyAsInt(cambian);
+            tareasRepository.findDTOByIdTareaIn(cambian)
+                    .forEach(tarea -> eventosCambioService.publicarTarea(TipoCambio.Actualizado, tarea));
+            return actualizadas;
+        });
+        return filas != null ? filas : 0;
+    }
+
+    private int medir(String operacion, IntSupplier ejecucion) {
+        int filas = meterRegistry.timer("taskflow.estatus.ejecucion", "operacion", operacion).record(ejecucion);
+        meterRegistry.counter("taskflow.estatus.filas", "operacion", operacion).increment(filas);
+        return filas;
+    }
+}
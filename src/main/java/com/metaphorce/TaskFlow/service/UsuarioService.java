@@ -1,18 +1,23 @@
 package com.metaphorce.TaskFlow.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.dto.UsuarioDTO;
 import com.metaphorce.TaskFlow.enums.Rol;
 import com.metaphorce.TaskFlow.modelo.Usuario;
 import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioService {
-    List<Usuario> getAllUsuarios();
-    Optional<Usuario> getUsuarioById(Integer id);
+    List<UsuarioDTO> getAllUsuarios();
+    Optional<UsuarioDTO> getUsuarioById(Integer id);
+    Optional<Long> getVersionUsuario(Integer id);
     Usuario createUsuario(Usuario usuario);
     Usuario updateUsuario(Integer id, Usuario usuario);
+    boolean patchUsuario(Integer id, Long versionEsperada, ObjectNode parche);
     void deleteUsuario(Integer id);
+    boolean crearLiderInicial(String nombre, String correo, String contrasenia);
 
-    Optional<Usuario> getUsuarioByCorreo(String correo);
-    List<Usuario> getUsuariosByRol(Rol rol);
-    Optional<Usuario> getUsuarioByNombre(String nombre);
+    Optional<UsuarioDTO> getUsuarioByCorreo(String correo);
+    List<UsuarioDTO> getUsuariosByRol(Rol rol);
+    Optional<UsuarioDTO> getUsuarioByNombre(String nombre);
 }
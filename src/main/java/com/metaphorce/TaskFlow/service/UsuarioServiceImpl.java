@@ -1,66 +1,189 @@
 package com.metaphorce.TaskFlow.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.config.CacheConfig;
+import com.metaphorce.TaskFlow.dto.ProyectoDTO;
+import com.metaphorce.TaskFlow.dto.UsuarioDTO;
 import com.metaphorce.TaskFlow.enums.Rol;
 import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.GestionTiempoRepository;
+import com.metaphorce.TaskFlow.repository.ProyectoRepository;
 import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
+@Timed("taskflow.service")
 public class UsuarioServiceImpl implements UsuarioService {
 
+    private static final Logger log = LoggerFactory.getLogger(UsuarioServiceImpl.class);
+
+    // Campos que acepta el PATCH, con los nombres de UsuarioDTO
+    private static final Map<String, ActualizacionParcial.Campo> CAMPOS_PARCHE = Map.of(
+            "nombre", ActualizacionParcial.Campo.valor("nombre", String.class, false),
+            "correo", ActualizacionParcial.Campo.valor("correo", String.class, false),
+            "rol", ActualizacionParcial.Campo.valor("rol", Rol.class, false));
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private GestionTiempoRepository gestionTiempoRepository;
+
+    @Autowired
+    private AcumuladoTiempoService acumuladoTiempoService;
+
+    @Autowired
+    private IndiceBusquedaService indiceBusquedaService;
+
+    @Autowired
+    private CredencialesService credencialesService;
+
+    @Autowired
+    private ActualizacionParcial actualizacionParcial;
+
+    @Autowired
+    private LecturaPrimaria lecturaPrimaria;
+
+    @Value("${taskflow.admin.nombre:Administrador}")
+    private String nombreAdmin;
+
+    @Value("${taskflow.admin.correo:}")
+    private String correoAdmin;
+
+    @Value("${taskflow.admin.contrasenia:}")
+    private String contraseniaAdmin;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (!correoAdmin.isBlank() && !contraseniaAdmin.isBlank()) {
+            crearLiderInicial(nombreAdmin, correoAdmin, contraseniaAdmin);
+        }
+    }
 
     @Override
-    public List<Usuario> getAllUsuarios() {
-        return usuarioRepository.findAll();
+    public List<UsuarioDTO> getAllUsuarios() {
+        return usuarioRepository.findAllDTO();
     }
 
+    // Solo se guardan resultados encontrados; las altas no necesitan invalidar nada
     @Override
-    public Optional<Usuario> getUsuarioById(Integer id) {
-        return usuarioRepository.findById(id);
+    @Cacheable(cacheNames = CacheConfig.USUARIOS, unless = "#result == null")
+    public Optional<UsuarioDTO> getUsuarioById(Integer id) {
+        return lecturaPrimaria.leer(() -> usuarioRepository.findDTOById(id));
     }
 
+    @Override
+    public Optional<Long> getVersionUsuario(Integer id) {
+        return usuarioRepository.findVersionById(id);
+    }
+
+    // El hash se calcula en el executor acotado de BCrypt; aquí solo se espera el resultado (en un hilo virtual)
     @Override
     public Usuario createUsuario(Usuario usuario) {
-        usuario.setContraseniaHash(passwordEncoder.encode(usuario.getContraseniaHash()));
+        usuario.setContraseniaHash(credencialesService.hashear(usuario.getContraseniaHash()).join());
         return usuarioRepository.save(usuario);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS_POR_CORREO, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    })
     public Usuario updateUsuario(Integer id, Usuario usuario) {
-        if (usuarioRepository.existsById(id)) {
+        Optional<Long> vigente = usuarioRepository.findVersionById(id);
+        if (vigente.isPresent()) {
             usuario.setIdUsuario(id);
+            // Sin versión en el cuerpo (ni If-Match) se toma la vigente y el PUT sigue siendo incondicional
+            if (usuario.getVersion() == null) {
+                usuario.setVersion(vigente.get());
+            }
             return usuarioRepository.save(usuario);
         }
         return null;
     }
 
+    // La contraseña no se modifica por aquí; el UPDATE se confirma dentro de aplicar y las cachés se invalidan después
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS_POR_CORREO, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.RESUMENES_PROYECTO, allEntries = true)
+    })
+    public boolean patchUsuario(Integer id, Long versionEsperada, ObjectNode parche) {
+        return actualizacionParcial.aplicar(Usuario.class, "idUsuario", id, versionEsperada, CAMPOS_PARCHE, parche);
+    }
+
+    // El borrado se propaga en cascada a los proyectos del usuario, a sus tareas y a los registros de tiempo de todos
+    // ellos, que se descuentan de los acumulados
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS_POR_CORREO, allEntries = true),
+            @CacheEvict(cacheNames = {CacheConfig.PROYECTOS, CacheConfig.PROYECTOS_POR_TITULO, CacheConfig.RESUMENES_PROYECTO}, allEntries = true)
+    })
     public void deleteUsuario(Integer id) {
+        List<Integer> idsProyectos = proyectoRepository.findDTOByLider(id).stream().map(ProyectoDTO::idProyecto).toList();
+        acumuladoTiempoService.restarSesiones(gestionTiempoRepository.findIdsByUsuarioEnCascada(id));
         usuarioRepository.deleteById(id);
+        indiceBusquedaService.eliminarUsuario(id, idsProyectos);
+    }
+
+    // POST /usuarios exige el rol Lider, así que el primero se da de alta desde la configuración (taskflow.admin.*).
+    // Solo actúa mientras no exista ningún Lider; si otra instancia lo crea al mismo tiempo, el correo único lo impide
+    @Override
+    public boolean crearLiderInicial(String nombre, String correo, String contrasenia) {
+        if (usuarioRepository.existsByRol(Rol.Lider)) {
+            return false;
+        }
+        Usuario lider = new Usuario();
+        lider.setNombre(nombre);
+        lider.setCorreo(correo);
+        lider.setContraseniaHash(contrasenia);
+        lider.setRol(Rol.Lider);
+        try {
+            createUsuario(lider);
+        } catch (DataIntegrityViolationException e) {
+            log.info("El Lider inicial {} ya existe", correo);
+            return false;
+        }
+        log.info("Se creó el Lider inicial {}", correo);
+        return true;
     }
 
     @Override
-    public Optional<Usuario> getUsuarioByCorreo(String correo) {
-        return usuarioRepository.findByCorreo(correo);
+    @Cacheable(cacheNames = CacheConfig.USUARIOS_POR_CORREO, unless = "#result == null")
+    public Optional<UsuarioDTO> getUsuarioByCorreo(String correo) {
+        return lecturaPrimaria.leer(() -> usuarioRepository.findDTOByCorreo(correo));
     }
 
     @Override
-    public List<Usuario> getUsuariosByRol(Rol rol) {
-        return usuarioRepository.findByRol(rol);
+    public List<UsuarioDTO> getUsuariosByRol(Rol rol) {
+        return usuarioRepository.findDTOByRol(rol);
     }
 
     @Override
-    public Optional<Usuario> getUsuarioByNombre(String nombre) {
-        return usuarioRepository.findByNombre(nombre);
+    public Optional<UsuarioDTO> getUsuarioByNombre(String nombre) {
+        return usuarioRepository.findDTOByNombre(nombre);
     }
 }
@@ -0,0 +1,78 @@
+-- Esquema completo de TaskFlow. Lo aplica Flyway al arrancar; también corre sobre una base ya existente (la línea base
+-- es la versión 0), por eso cada tabla se crea con "if not exists".
+
+create table if not exists usuario (
+    id_usuario int auto_increment,
+    nombre varchar(50) not null,
+    contrasenia_hash varchar(255) not null,
+    correo varchar(255) not null,
+    rol enum('Lider','Gerente','Miembro') not null,
+    constraint usuario_id_usuario_pk primary key(id_usuario),
+    constraint usuario_correo_uk unique(correo)
+);
+
+create table if not exists proyecto(
+    id_proyecto int auto_increment,
+    id_usuario int not null,
+    titulo varchar(50) not null,
+    descripcion text not null,
+    fecha_inicio datetime not null default current_timestamp,
+    fecha_fin datetime null, -- para que puedan cambiarlo cuando termine el proyecto
+    constraint proyecto_id_proyecto_pk primary key(id_proyecto),
+    constraint proyecto_id_usuario_fk foreign key(id_usuario) references usuario(id_usuario)
+);
+
+create table if not exists tareas(
+    id_tarea int not null,
+    id_creador_tarea int not null,
+    id_usuario_asignada int not null,
+    id_proyecto int not null,
+    fecha_creacion datetime not null default current_timestamp,
+    fecha_terminada datetime null,
+    titulo varchar(50) not null,
+    descripcion text not null,
+    prioridad enum('Alta','Media','Baja') not null,
+    estatus enum('Asignada','En_progreso','Hecha','Retrasada') not null,
+    constraint tareas_id_tarea_pk primary key(id_tarea),
+    constraint tareas_id_creador_tarea_fk foreign key(id_creador_tarea) references usuario(id_usuario),
+    constraint tareas_id_usuario_asignada_fk foreign key(id_usuario_asignada) references usuario(id_usuario),
+    constraint tareas_id_proyecto_fk foreign key(id_proyecto) references proyecto(id_proyecto)
+);
+
+-- duracion_sesion (en minutos) la calcula la base de datos a partir de las fechas de la sesión
+create table if not exists gestion_tiempo(
+    id_gestion int not null,
+    id_tarea int not null,
+    id_usuario int not null,
+    fecha_inicio datetime not null,
+    fecha_fin datetime null,
+    duracion_sesion int generated always as (timestampdiff(minute, fecha_inicio, fecha_fin)),
+    constraint gestion_tiempo_id_gestion_pk primary key(id_gestion),
+    constraint gestion_tiempo_id_tarea_fk foreign key(id_tarea) references tareas(id_tarea),
+    constraint gestion_tiempo_id_usuario_fk foreign key(id_usuario) references usuario(id_usuario)
+);
+
+-- Acumulados de tiempo, mantenidos por la aplicación en cada alta, cambio o baja de gestion_tiempo
+create table if not exists tiempo_usuario_tarea(
+    id_usuario int not null,
+    id_tarea int not null,
+    duracion_total int not null default 0,
+    sesiones int not null default 0,
+    constraint tiempo_usuario_tarea_pk primary key(id_usuario, id_tarea)
+);
+
+create table if not exists tiempo_usuario_dia(
+    id_usuario int not null,
+    dia date not null,
+    duracion_total int not null default 0,
+    sesiones int not null default 0,
+    constraint tiempo_usuario_dia_pk primary key(id_usuario, dia)
+);
+
+create table if not exists tiempo_proyecto_dia(
+    id_proyecto int not null,
+    dia date not null,
+    duracion_total int not null default 0,
+    sesiones int not null default 0,
+    constraint tiempo_proyecto_dia_pk primary key(id_proyecto, dia)
+);
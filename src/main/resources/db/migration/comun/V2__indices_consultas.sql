@@ -0,0 +1,20 @@
+-- Índices para las consultas de los repositorios. Todas paginan por cursor sobre el id, por eso el id va
+-- al final de cada índice: el filtro y el ORDER BY se resuelven con el índice, sin ordenar ni recorrer la tabla.
+
+create index tareas_estatus_idx on tareas(estatus, id_tarea);
+create index tareas_prioridad_idx on tareas(prioridad, id_tarea);
+create index tareas_fecha_creacion_idx on tareas(fecha_creacion, id_tarea);
+create index tareas_id_proyecto_idx on tareas(id_proyecto, id_tarea);
+create index tareas_id_usuario_asignada_idx on tareas(id_usuario_asignada, id_tarea);
+create index tareas_id_creador_tarea_idx on tareas(id_creador_tarea, id_tarea);
+
+create index gestion_tiempo_usuario_tarea_idx on gestion_tiempo(id_usuario, id_tarea, id_gestion);
+create index gestion_tiempo_fecha_inicio_idx on gestion_tiempo(fecha_inicio, id_gestion);
+create index gestion_tiempo_id_tarea_idx on gestion_tiempo(id_tarea);
+
+create index proyecto_id_usuario_idx on proyecto(id_usuario);
+create index proyecto_titulo_idx on proyecto(titulo);
+create index proyecto_fecha_inicio_idx on proyecto(fecha_inicio);
+
+create index usuario_rol_idx on usuario(rol);
+create index usuario_nombre_idx on usuario(nombre);
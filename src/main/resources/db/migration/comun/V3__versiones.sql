@@ -0,0 +1,5 @@
+-- Columna de versión para control de concurrencia optimista (@Version) y ETags
+alter table usuario add column version bigint not null default 0;
+alter table proyecto add column version bigint not null default 0;
+alter table tareas add column version bigint not null default 0;
+alter table gestion_tiempo add column version bigint not null default 0;
@@ -0,0 +1,17 @@
+-- Acumulado diario por tarea, para los reportes agrupados por tarea; se llena con el histórico existente
+create table if not exists tiempo_tarea_dia(
+    id_tarea int not null,
+    dia date not null,
+    duracion_total int not null default 0,
+    sesiones int not null default 0,
+    constraint tiempo_tarea_dia_pk primary key(id_tarea, dia)
+);
+
+insert into tiempo_tarea_dia (id_tarea, dia, duracion_total, sesiones)
+select g.id_tarea, cast(g.fecha_inicio as date), coalesce(sum(g.duracion_sesion), 0), count(*)
+from gestion_tiempo g group by g.id_tarea, cast(g.fecha_inicio as date);
+
+-- Los reportes leen un rango de días para todos los usuarios, tareas o proyectos
+create index tiempo_usuario_dia_dia_idx on tiempo_usuario_dia(dia);
+create index tiempo_tarea_dia_dia_idx on tiempo_tarea_dia(dia);
+create index tiempo_proyecto_dia_dia_idx on tiempo_proyecto_dia(dia);
@@ -0,0 +1,3 @@
+-- En H2 (pruebas y benchmarks) Hibernate usa secuencias nativas en lugar de tablas
+create sequence if not exists tareas_seq start with 1 increment by 50;
+create sequence if not exists gestion_tiempo_seq start with 1 increment by 50;
@@ -0,0 +1,11 @@
+-- Secuencias (emuladas con tabla, MySQL no tiene secuencias) para los ids de tareas y gestion_tiempo; Hibernate
+-- reserva bloques de 50 para poder enviar los INSERT en lotes JDBC. El valor inicial deja libres los ids ya usados.
+create table if not exists tareas_seq(
+    next_val bigint not null
+);
+insert into tareas_seq select coalesce(max(id_tarea), 0) + 51 from tareas;
+
+create table if not exists gestion_tiempo_seq(
+    next_val bigint not null
+);
+insert into gestion_tiempo_seq select coalesce(max(id_gestion), 0) + 51 from gestion_tiempo;
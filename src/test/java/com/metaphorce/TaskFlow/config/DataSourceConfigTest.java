@@ -0,0 +1,143 @@
+package com.metaphorce.TaskFlow.config;
+
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import com.metaphorce.TaskFlow.service.TareasService;
+import com.metaphorce.TaskFlow.service.UsuarioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Primaria y réplica son dos bases H2 en memoria independientes con el mismo esquema; la tabla retraso_replica
+// simula el retraso que en MySQL reporta SHOW REPLICA STATUS
+@SpringBootTest(properties = {
+        "taskflow.replicas.urls=" + DataSourceConfigTest.REPLICA,
+        "taskflow.replicas.consulta-retraso=SELECT segundos AS " + ReplicasLectura.COLUMNA_RETRASO + " FROM retraso_replica",
+        "taskflow.replicas.intervalo=1h"
+})
+class DataSourceConfigTest {
+
+    static final String REPLICA = "jdbc:h2:mem:TaskFlowReplica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA, "sa", ""));
+
+    // Antes de levantar el contexto: al iniciar ya se leen tareas en transacciones readOnly
+    static {
+        Flyway.configure().dataSource(REPLICA, "sa", "")
+                .locations("classpath:db/migration/comun", "classpath:db/migration/h2")
+                .load().migrate();
+        replica.execute("CREATE TABLE IF NOT EXISTS retraso_replica AS SELECT 0 AS segundos");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicasLectura replicasLectura;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TareasService tareasService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @BeforeEach
+    void setUp() {
+        replica.update("UPDATE retraso_replica SET segundos = 0");
+        replicasLectura.revisarRetraso();
+    }
+
+    @Test
+    void lasLecturasVanALaReplicaMientrasEsteAlDia() {
+        assertThat(baseDeDatos(true)).isEqualTo("taskflowreplica");
+        assertThat(baseDeDatos(false)).isEqualTo("taskflow");
+        assertThat(meterRegistry.get("taskflow.datasource.lecturas").tag("pool", "taskflow-replica-1").counter().count())
+                .isGreaterThanOrEqualTo(1);
+
+        // Más atrasada que retraso-maximo: las lecturas vuelven a la primaria
+        replica.update("UPDATE retraso_replica SET segundos = 30");
+        replicasLectura.revisarRetraso();
+        assertThat(baseDeDatos(true)).isEqualTo("taskflow");
+        assertThat(meterRegistry.get("taskflow.datasource.retraso").tag("pool", "taskflow-replica-1").gauge().value())
+                .isEqualTo(30);
+        assertThat(meterRegistry.get("taskflow.datasource.lecturas").tag("pool", "primaria").counter().count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    // Las consultas de los repositorios son readOnly por defecto: una lectura desde un servicio sin transacción propia
+    // también va a la réplica
+    @Test
+    void lasLecturasDeLosServiciosPorJpaVanALaReplica() {
+        double antes = lecturasReplica();
+
+        tareasService.getAllTareas(null, 10);
+        usuarioRepository.findById(-1);
+
+        assertThat(lecturasReplica() - antes).isGreaterThanOrEqualTo(2);
+    }
+
+    // Con el EntityManager de la petición abierto (open-in-view), la conexión de la lectura en la réplica no debe
+    // quedar retenida para la escritura siguiente
+    @Test
+    void unaEscrituraDespuesDeUnaLecturaEnLaMismaSesionVaALaPrimaria() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            usuarioRepository.findById(-1);
+            assertThat(baseDeDatos(false)).isEqualTo("taskflow");
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    // Un usuario que solo está en la réplica simula una fila que la primaria ya cambió: la lectura readOnly lo ve, pero
+    // no queda en la caché de segundo nivel, y la caché de Spring se llena leyendo la primaria
+    @Test
+    void loQueSeLeeDeLaReplicaNoLlenaLasCaches() {
+        replica.update("INSERT INTO usuario (id_usuario, nombre, contrasenia_hash, correo, rol) VALUES (-5, 'Vieja', 'hash', 'vieja@taskflow.com', 'Miembro')");
+        try {
+            assertThat(usuarioRepository.findById(-5)).isPresent();
+            assertThat(entityManagerFactory.getCache().contains(Usuario.class, -5)).isFalse();
+
+            assertThat(usuarioService.getUsuarioById(-5)).isEmpty();
+        } finally {
+            replica.update("DELETE FROM usuario WHERE id_usuario = -5");
+        }
+    }
+
+    private double lecturasReplica() {
+        return meterRegistry.get("taskflow.datasource.lecturas").tag("pool", "taskflow-replica-1").counter().count();
+    }
+
+    private String baseDeDatos(boolean soloLectura) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(soloLectura);
+        return transaccion.execute(estado -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class)).toLowerCase();
+    }
+}
@@ -0,0 +1,40 @@
+package com.metaphorce.TaskFlow.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@WithMockUser(roles = "Lider")
+class MetricasConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void publicaLasMetricasDeLaPeticionEnFormatoPrometheus() throws Exception {
+        mockMvc.perform(get("/TaskFlow/usuarios")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("taskflow_sql_sentencias_count{method=\"GET\",uri=\"/TaskFlow/usuarios\"}")))
+                .andExpect(content().string(containsString("taskflow_service_seconds")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")))
+                .andExpect(content().string(containsString("cache_gets_total")));
+
+        mockMvc.perform(get("/actuator/prometheus").with(anonymous())).andExpect(status().isUnauthorized());
+    }
+}
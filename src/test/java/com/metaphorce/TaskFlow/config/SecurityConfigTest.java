@@ -0,0 +1,109 @@
+package com.metaphorce.TaskFlow.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import com.metaphorce.TaskFlow.service.CredencialesService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CredencialesService credencialesService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @AfterEach
+    void tearDown() {
+        usuarioRepository.deleteAllInBatch();
+    }
+
+    // El pool de BCrypt no debe registrarse como Executor: Boot dejaría de crear el ejecutor de MVC asíncrono
+    @Test
+    void elPoolDeBcryptNoDesplazaAlEjecutorDeTareasDeLaAplicacion() {
+        assertThat(applicationContext.containsBean("applicationTaskExecutor")).isTrue();
+        assertThat(applicationContext.getBeansOfType(Executor.class)).containsKey("applicationTaskExecutor");
+    }
+
+    @Test
+    void elTokenAutorizaSinConsultarLaBaseDeDatosHastaCerrarSesion() throws Exception {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@taskflow.com");
+        usuario.setContraseniaHash(credencialesService.hashear("secreto").join());
+        usuario.setRol(Rol.Miembro);
+        usuarioRepository.save(usuario);
+
+        MvcResult login = mockMvc.perform(post("/TaskFlow/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"correo\":\"ana@taskflow.com\",\"contrasenia\":\"secreto\"}"))
+                .andReturn();
+        JsonNode sesion = objectMapper.readTree(mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        String bearer = "Bearer " + sesion.get("token").asText();
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        // La búsqueda responde desde el índice de Lucene: cualquier sentencia vendría de la autenticación
+        mockMvc.perform(get("/TaskFlow/busqueda").param("q", "reporte").header("Authorization", bearer))
+                .andExpect(status().isOk());
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+
+        mockMvc.perform(get("/TaskFlow/busqueda").param("q", "reporte"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/TaskFlow/busqueda/reconstruir").header("Authorization", bearer))
+                .andExpect(status().isForbidden());
+
+        // Un Miembro solo sigue sus propios cambios o los de sus proyectos, y siempre con algún filtro
+        mockMvc.perform(get("/TaskFlow/eventos").header("Authorization", bearer))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/TaskFlow/eventos").param("idUsuario", String.valueOf(usuario.getIdUsuario() + 1))
+                        .header("Authorization", bearer))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/TaskFlow/eventos").param("idProyecto", "1").header("Authorization", bearer))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/TaskFlow/auth/logout").header("Authorization", bearer))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/TaskFlow/busqueda").param("q", "reporte").header("Authorization", bearer))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,156 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.GestionTiempo;
+import com.metaphorce.TaskFlow.modelo.Proyecto;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.GestionTiempoRepository;
+import com.metaphorce.TaskFlow.repository.ProyectoRepository;
+import com.metaphorce.TaskFlow.repository.TareasRepository;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class GestionTiempoControllerTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    @Autowired
+    private GestionTiempoRepository gestionTiempoRepository;
+
+    private final List<Integer> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@taskflow.com");
+        usuario.setContraseniaHash("hash");
+        usuario.setRol(Rol.Miembro);
+        usuario = usuarioRepository.save(usuario);
+
+        Proyecto proyecto = new Proyecto();
+        proyecto.setUsuario(usuario);
+        proyecto.setTitulo("TaskFlow");
+        proyecto.setDescripcion("Proyecto de prueba");
+        proyecto.setFechaInicio(INICIO);
+        proyecto = proyectoRepository.save(proyecto);
+
+        Tareas tarea = new Tareas();
+        tarea.setCreadorTarea(usuario);
+        tarea.setUsuarioAsignada(usuario);
+        tarea.setProyecto(proyecto);
+        tarea.setFechaCreacion(INICIO);
+        tarea.setTitulo("Tarea");
+        tarea.setDescripcion("Descripcion");
+        tarea.setPrioridad(Prioridad.Alta);
+        tarea.setEstatus(Estatus.En_progreso);
+        tarea = tareasRepository.save(tarea);
+
+        for (int i = 0; i < 3; i++) {
+            GestionTiempo gestionTiempo = new GestionTiempo();
+            gestionTiempo.setUsuario(usuario);
+            gestionTiempo.setTarea(tarea);
+            gestionTiempo.setFechaInicio(INICIO.plusDays(i));
+            gestionTiempo.setFechaFin(i < 2 ? INICIO.plusDays(i).plusMinutes(30) : null);
+            ids.add(gestionTiempoRepository.save(gestionTiempo).getIdGestion());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        gestionTiempoRepository.deleteAllInBatch();
+        tareasRepository.deleteAllInBatch();
+        proyectoRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+    }
+
+    // Descarga en gzip y reanudación desde el primer id: llegan solo las filas posteriores
+    @Test
+    void exportaCsvComprimidoYReanudaDesdeElCursor() throws Exception {
+        MockHttpServletResponse respuesta = exportar("formato=Csv&cursor=" + ids.get(0), "gzip, deflate");
+
+        assertThat(respuesta.getContentType()).isEqualTo(Paginacion.CSV);
+        assertThat(respuesta.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        String csv = new String(descomprimir(respuesta.getContentAsByteArray()), StandardCharsets.UTF_8);
+        assertThat(csv.split("\n")).containsExactly(
+                "idGestion,idTarea,idUsuario,fechaInicio,fechaFin,duracionSesion",
+                ids.get(1) + "," + filaSinId(1),
+                ids.get(2) + "," + filaSinId(2));
+
+        // gzip con q=0 queda rechazado aunque aparezca en el encabezado
+        MockHttpServletResponse rechazado = exportar("formato=Csv", "gzip;q=0, identity");
+        assertThat(rechazado.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(rechazado.getContentAsString()).startsWith("idGestion,");
+
+        MockHttpServletResponse columnar = exportar("formato=Columnar", null);
+        assertThat(columnar.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        byte[] contenido = columnar.getContentAsByteArray();
+        assertThat(Arrays.copyOf(contenido, 4)).isEqualTo("TFC1".getBytes(StandardCharsets.US_ASCII));
+        // Termina con el bloque vacío
+        assertThat(contenido[contenido.length - 1]).isZero();
+    }
+
+    private MockHttpServletResponse exportar(String parametros, String acceptEncoding) throws Exception {
+        var peticion = get("/TaskFlow/gestion-tiempo/periodo/exportar?startDate=2025-03-01T00:00:00&endDate=2025-03-31T00:00:00&" + parametros);
+        if (acceptEncoding != null) {
+            peticion.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MvcResult resultado = mockMvc.perform(peticion).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(resultado)).andReturn().getResponse();
+    }
+
+    private String filaSinId(int i) {
+        GestionTiempo guardado = gestionTiempoRepository.findById(ids.get(i)).orElseThrow();
+        return guardado.getTarea().getIdTarea() + "," + guardado.getUsuario().getIdUsuario() + ","
+                + guardado.getFechaInicio() + "," + (guardado.getFechaFin() != null ? guardado.getFechaFin() : "") + ","
+                + (guardado.getDuracionSesion() != null ? guardado.getDuracionSesion() : "");
+    }
+
+    private byte[] descomprimir(byte[] comprimido) throws IOException {
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            return entrada.readAllBytes();
+        }
+    }
+}
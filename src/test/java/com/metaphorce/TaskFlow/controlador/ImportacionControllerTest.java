@@ -0,0 +1,123 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.GestionTiempoRepository;
+import com.metaphorce.TaskFlow.repository.ProyectoRepository;
+import com.metaphorce.TaskFlow.repository.TareasRepository;
+import com.metaphorce.TaskFlow.repository.TiempoProyectoDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoTareaDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoUsuarioDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoUsuarioTareaRepository;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "Lider")
+class ImportacionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    @Autowired
+    private GestionTiempoRepository gestionTiempoRepository;
+
+    @Autowired
+    private TiempoUsuarioTareaRepository tiempoUsuarioTareaRepository;
+
+    @Autowired
+    private TiempoUsuarioDiaRepository tiempoUsuarioDiaRepository;
+
+    @Autowired
+    private TiempoTareaDiaRepository tiempoTareaDiaRepository;
+
+    @Autowired
+    private TiempoProyectoDiaRepository tiempoProyectoDiaRepository;
+
+    @BeforeEach
+    void setUp() {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@taskflow.com");
+        usuario.setContraseniaHash("hash");
+        usuario.setRol(Rol.Lider);
+        usuarioRepository.save(usuario);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tiempoUsuarioTareaRepository.deleteAllInBatch();
+        tiempoUsuarioDiaRepository.deleteAllInBatch();
+        tiempoTareaDiaRepository.deleteAllInBatch();
+        tiempoProyectoDiaRepository.deleteAllInBatch();
+        gestionTiempoRepository.deleteAllInBatch();
+        tareasRepository.deleteAllInBatch();
+        proyectoRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+    }
+
+    // Proyectos en CSV, tareas y tiempo en NDJSON, enlazados solo por correo y títulos; cada error trae su fila
+    @Test
+    void importaPorClavesNaturalesYReportaLosErroresPorFila() throws Exception {
+        String proyectos = "correoLider,titulo,descripcion,fechaInicio,fechaFin\r\n"
+                + "ana@taskflow.com,Migracion,\"Datos del cliente, fase 1\",2025-03-01T00:00:00,\r\n"
+                + "nadie@taskflow.com,Huerfano,Sin lider,2025-03-01T00:00:00,\r\n"
+                + "ana@taskflow.com,Fechas,Al reves,2025-03-10T00:00:00,2025-03-01T00:00:00\r\n";
+        mockMvc.perform(post("/TaskFlow/importar/proyectos").contentType(Paginacion.CSV).content(proyectos))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.creados").value(1))
+                .andExpect(jsonPath("$.errores[0].indice").value(1))
+                .andExpect(jsonPath("$.errores[0].error").value("No existe el usuario con correo 'nadie@taskflow.com'"))
+                .andExpect(jsonPath("$.errores[1].indice").value(2));
+        assertThat(proyectoRepository.findDTOByTitulo("Migracion")).get()
+                .extracting("descripcion").isEqualTo("Datos del cliente, fase 1");
+
+        String tarea = "{\"tituloProyecto\":\"%s\",\"correoCreador\":\"ana@taskflow.com\",\"correoAsignado\":\"ana@taskflow.com\","
+                + "\"fechaCreacion\":\"2025-03-02T09:00:00\",\"titulo\":\"Cargar datos\",\"descripcion\":\"Importada\","
+                + "\"prioridad\":\"%s\",\"estatus\":\"Asignada\"}\n";
+        String tareas = String.format(tarea, "Migracion", "Alta") + String.format(tarea, "Migracion", "Urgente")
+                + String.format(tarea, "Otro", "Baja");
+        mockMvc.perform(post("/TaskFlow/importar/tareas").contentType(Paginacion.NDJSON).content(tareas))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.creados").value(1))
+                .andExpect(jsonPath("$.fallidos").value(2))
+                .andExpect(jsonPath("$.errores[0].indice").value(1))
+                .andExpect(jsonPath("$.errores[1].error").value("No existe el proyecto 'Otro'"));
+
+        String sesion = "{\"correoUsuario\":\"ana@taskflow.com\",\"tituloProyecto\":\"Migracion\",\"tituloTarea\":\"%s\","
+                + "\"fechaInicio\":\"2025-03-03T09:00:00\",\"fechaFin\":\"2025-03-03T10:00:00\"}\n";
+        mockMvc.perform(post("/TaskFlow/importar/gestion-tiempo").contentType(Paginacion.NDJSON)
+                        .content(String.format(sesion, "Cargar datos") + String.format(sesion, "Inexistente")
+                                + "{\"correoUsuario\":\"ana@taskflow.com\",\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.creados").value(1))
+                .andExpect(jsonPath("$.errores[0].error").value("No existe la tarea 'Inexistente'"))
+                // La línea mal formada es un error de su fila, no de toda la importación
+                .andExpect(jsonPath("$.errores[1].indice").value(2));
+        assertThat(gestionTiempoRepository.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,301 @@
+package com.metaphorce.TaskFlow.controlador;
+
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.Proyecto;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.ProyectoRepository;
+import com.metaphorce.TaskFlow.repository.TareasRepository;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import com.metaphorce.TaskFlow.service.ProcesadorLotes;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class TareasControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    private Usuario lider;
+    private Usuario miembro;
+    private Proyecto proyecto;
+
+    @BeforeEach
+    void setUp() {
+        lider = usuarioRepository.save(usuario("lider@taskflow.com", Rol.Lider));
+        miembro = usuarioRepository.save(usuario("miembro@taskflow.com", Rol.Miembro));
+
+        proyecto = new Proyecto();
+        proyecto.setUsuario(lider);
+        proyecto.setTitulo("TaskFlow");
+        proyecto.setDescripcion("Proyecto de prueba");
+        proyecto.setFechaInicio(LocalDateTime.now());
+        proyecto = proyectoRepository.save(proyecto);
+
+        for (int i = 0; i < 10; i++) {
+            Tareas tarea = new Tareas();
+            tarea.setCreadorTarea(lider);
+            tarea.setUsuarioAsignada(i % 2 == 0 ? lider : miembro);
+            tarea.setProyecto(proyecto);
+            tarea.setFechaCreacion(LocalDateTime.now());
+            tarea.setTitulo("Tarea " + i);
+            tarea.setDescripcion("Descripcion " + i);
+            tarea.setPrioridad(Prioridad.Media);
+            tarea.setEstatus(Estatus.Asignada);
+            tareasRepository.save(tarea);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        tareasRepository.deleteAllInBatch();
+        proyectoRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+    }
+
+    // Una consulta para la página y otra para la firma del ETag; al revalidar solo se calcula la firma
+    @Test
+    void listadoPorProyectoUsaUnaSolaConsultaMasSuFirma() throws Exception {
+        String[] etag = new String[1];
+        long consultas = contarConsultas(() -> etag[0] = mockMvc.perform(get("/TaskFlow/tareas/proyecto/{id}", proyecto.getIdProyecto()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(10))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+
+        long revalidacion = contarConsultas(() -> mockMvc.perform(get("/TaskFlow/tareas/proyecto/{id}", proyecto.getIdProyecto())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag[0]))
+                .andExpect(status().isNotModified()));
+
+        assertThat(consultas).isEqualTo(2);
+        assertThat(revalidacion).isEqualTo(1);
+    }
+
+    @Test
+    void porIdRespondeNoModificadoYRechazaVersionesVencidas() throws Exception {
+        Integer id = tareasRepository.findAll().get(0).getIdTarea();
+        String etag = mockMvc.perform(get("/TaskFlow/tareas/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        long consultas = contarConsultas(() -> mockMvc.perform(get("/TaskFlow/tareas/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified()));
+        assertThat(consultas).isEqualTo(1);
+
+        String cuerpo = String.format("{\"creadorTarea\":{\"idUsuario\":%d},\"usuarioAsignada\":{\"idUsuario\":%d},"
+                        + "\"proyecto\":{\"idProyecto\":%d},\"fechaCreacion\":\"2025-03-10T09:00:00\",\"titulo\":\"Editada\","
+                        + "\"descripcion\":\"Nueva\",\"prioridad\":\"Alta\",\"estatus\":\"Asignada\"}",
+                lider.getIdUsuario(), miembro.getIdUsuario(), proyecto.getIdProyecto());
+        mockMvc.perform(put("/TaskFlow/tareas/actualizar/{id}", id).with(csrf())
+                        .header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(put("/TaskFlow/tareas/actualizar/{id}", id).with(csrf())
+                        .header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/TaskFlow/tareas/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("Editada"));
+    }
+
+    @Test
+    void expansionCompletaCargaLasRelacionesEnUnaSolaConsulta() throws Exception {
+        long consultas = contarConsultas(() -> mockMvc.perform(get("/TaskFlow/tareas/proyecto/{id}", proyecto.getIdProyecto())
+                        .param("expand", "Completa"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(10))
+                .andExpect(jsonPath("$[0].creadorTarea.correo").value("lider@taskflow.com"))
+                .andExpect(jsonPath("$[0].proyecto.titulo").value("TaskFlow")));
+
+        assertThat(consultas).isEqualTo(1);
+    }
+
+    @Test
+    void expansionParcialDejaFueraLasRelacionesNoPedidas() throws Exception {
+        long consultas = contarConsultas(() -> mockMvc.perform(get("/TaskFlow/tareas/asignado/{id}", miembro.getIdUsuario())
+                        .param("expand", "Proyecto"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].proyecto.titulo").value("TaskFlow"))
+                .andExpect(jsonPath("$[0].creadorTarea").isEmpty()));
+
+        assertThat(consultas).isEqualTo(1);
+    }
+
+    @Test
+    void busquedaCombinadaPaginaPorCursorConUnaConsultaPorPagina() throws Exception {
+        String[] cursor = new String[1];
+        long primera = contarConsultas(() -> cursor[0] = mockMvc.perform(get("/TaskFlow/tareas/buscar")
+                        .param("idProyecto", proyecto.getIdProyecto().toString())
+                        .param("idAsignado", miembro.getIdUsuario().toString())
+                        .param("estatus", "Asignada", "Retrasada")
+                        .param("prioridad", "Media")
+                        .param("creadaDesde", "2000-01-01T00:00:00")
+                        .param("orden", "Fecha_creacion_desc")
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[*].idUsuarioAsignada").value(everyItem(equalTo(miembro.getIdUsuario()))))
+                .andExpect(header().exists(Paginacion.CURSOR_HEADER))
+                .andReturn().getResponse().getHeader(Paginacion.CURSOR_HEADER));
+
+        // El cursor trae la fecha y el id de la última tarea, así que borrarla no corta la paginación
+        tareasRepository.deleteById(Integer.valueOf(cursor[0].substring(cursor[0].indexOf('|') + 1)));
+
+        long segunda = contarConsultas(() -> mockMvc.perform(get("/TaskFlow/tareas/buscar")
+                        .param("idAsignado", miembro.getIdUsuario().toString())
+                        .param("orden", "Fecha_creacion_desc")
+                        .param("cursor", cursor[0])
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().doesNotExist(Paginacion.CURSOR_HEADER)));
+
+        assertThat(primera).isEqualTo(1);
+        assertThat(segunda).isEqualTo(1);
+    }
+
+    @Test
+    void parcheYCambioDeEstatusEscribenConUnSoloUpdate() throws Exception {
+        Integer id = tareasRepository.findAll().get(0).getIdTarea();
+
+        long parche = contarConsultas(() -> mockMvc.perform(patch("/TaskFlow/tareas/actualizar/{id}", id).with(csrf())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(Condicional.MERGE_PATCH)
+                        .content("{\"prioridad\":\"Alta\",\"fechaTerminada\":null}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\"")));
+
+        long estatus = contarConsultas(() -> mockMvc.perform(patch("/TaskFlow/tareas/actualizar/{id}/estatus/{estatus}", id, Estatus.Hecha).with(csrf()))
+                .andExpect(status().isNoContent()));
+
+        mockMvc.perform(get("/TaskFlow/tareas/{id}", id))
+                .andExpect(jsonPath("$.prioridad").value("Alta"))
+                .andExpect(jsonPath("$.estatus").value("Hecha"))
+                .andExpect(jsonPath("$.fechaTerminada").isNotEmpty())
+                .andExpect(jsonPath("$.titulo").value("Tarea 0"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+        mockMvc.perform(patch("/TaskFlow/tareas/actualizar/{id}", id).with(csrf())
+                        .contentType(Condicional.MERGE_PATCH)
+                        .content("{\"idTarea\":5}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(parche).isEqualTo(1);
+        assertThat(estatus).isEqualTo(1);
+    }
+
+    @Test
+    void cargaMasivaNdjsonDevuelveElResultadoDeCadaLinea() throws Exception {
+        String tarea = "{\"creadorTarea\":{\"idUsuario\":%d},\"usuarioAsignada\":{\"idUsuario\":%d},\"proyecto\":{\"idProyecto\":%d},"
+                + "\"fechaCreacion\":\"2025-03-10T09:00:00\",\"titulo\":\"Importada\",\"descripcion\":\"Desde NDJSON\","
+                + "\"prioridad\":\"Baja\",\"estatus\":\"Asignada\"}";
+        String valida = String.format(tarea, lider.getIdUsuario(), miembro.getIdUsuario(), proyecto.getIdProyecto());
+        String cuerpo = valida + "\n{\"titulo\":\"Incompleta\"}\n" + valida + "\n";
+
+        mockMvc.perform(post("/TaskFlow/tareas/lote").with(csrf())
+                        .contentType(Paginacion.NDJSON)
+                        .content(cuerpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.creados").value(2))
+                .andExpect(jsonPath("$.resultados[0].id").isNumber())
+                .andExpect(jsonPath("$.resultados[1].error").isString());
+
+        assertThat(tareasRepository.count()).isEqualTo(12);
+    }
+
+    @Test
+    void actualizacionMasivaMarcaSoloLosIdsInexistentes() throws Exception {
+        String tarea = "{\"idTarea\":%d,\"creadorTarea\":{\"idUsuario\":%d},\"usuarioAsignada\":{\"idUsuario\":%d},"
+                + "\"proyecto\":{\"idProyecto\":%d},\"fechaCreacion\":\"2025-03-10T09:00:00\",\"titulo\":\"Actualizada\","
+                + "\"descripcion\":\"Desde el lote\",\"prioridad\":\"Alta\",\"estatus\":\"En_progreso\"}";
+        Integer idTarea = tareasRepository.findAll().get(0).getIdTarea();
+        String cuerpo = "[" + String.format(tarea, idTarea, lider.getIdUsuario(), miembro.getIdUsuario(), proyecto.getIdProyecto())
+                + "," + String.format(tarea, Integer.MAX_VALUE, lider.getIdUsuario(), miembro.getIdUsuario(), proyecto.getIdProyecto())
+                + ",{\"titulo\":\"Sin id\"}]";
+
+        mockMvc.perform(put("/TaskFlow/tareas/lote").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(cuerpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.creados").value(1))
+                .andExpect(jsonPath("$.resultados[0].id").value(idTarea))
+                .andExpect(jsonPath("$.resultados[1].error").value("No existe el registro"))
+                .andExpect(jsonPath("$.resultados[2].error").isString());
+
+        Tareas actualizada = tareasRepository.findById(idTarea).orElseThrow();
+        assertThat(actualizada.getTitulo()).isEqualTo("Actualizada");
+        assertThat(actualizada.getEstatus()).isEqualTo(Estatus.En_progreso);
+        assertThat(tareasRepository.count()).isEqualTo(10);
+
+        String excedido = "[" + "{\"titulo\":\"Sin id\"},".repeat(ProcesadorLotes.MAX_ARREGLO) + "{\"titulo\":\"Sin id\"}]";
+        mockMvc.perform(put("/TaskFlow/tareas/lote").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(excedido))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long contarConsultas(Peticion peticion) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        peticion.ejecutar();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static Usuario usuario(String correo, Rol rol) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre(correo);
+        usuario.setCorreo(correo);
+        usuario.setContraseniaHash("hash");
+        usuario.setRol(rol);
+        return usuario;
+    }
+
+    @FunctionalInterface
+    private interface Peticion {
+        void ejecutar() throws Exception;
+    }
+}
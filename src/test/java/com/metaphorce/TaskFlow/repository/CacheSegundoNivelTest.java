@@ -0,0 +1,66 @@
+package com.metaphorce.TaskFlow.repository;
+
+import com.metaphorce.TaskFlow.config.CacheConfig;
+import com.metaphorce.TaskFlow.dto.EstadisticasRegionDTO;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.service.EstadisticasCacheService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EstadisticasCacheService estadisticasCacheService;
+
+    @AfterEach
+    void tearDown() {
+        usuarioRepository.deleteAllInBatch();
+    }
+
+    // Sin transacción cada llamada abre su propia sesión: la segunda lectura solo puede venir de la caché
+    @Test
+    void laSegundaLecturaNoConsultaLaBaseDeDatos() {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@taskflow.com");
+        usuario.setContraseniaHash("hash");
+        usuario.setRol(Rol.Lider);
+        Integer id = usuarioRepository.save(usuario).getIdUsuario();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        usuarioRepository.findById(id).orElseThrow();
+        usuarioRepository.findDTOByRol(Rol.Lider);
+        long sentencias = statistics.getPrepareStatementCount();
+        assertThat(usuarioRepository.findById(id)).get().extracting(Usuario::getNombre).isEqualTo("Ana");
+        assertThat(usuarioRepository.findDTOByRol(Rol.Lider)).hasSize(1);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(sentencias);
+        assertThat(statistics.getCacheRegionStatistics(CacheConfig.REGION_USUARIO).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getQueryRegionStatistics(CacheConfig.REGION_CONSULTAS_USUARIO).getHitCount()).isEqualTo(1);
+        assertThat(estadisticasCacheService.getEstadisticasRegiones())
+                .filteredOn(region -> region.region().equals(CacheConfig.REGION_CONSULTAS_USUARIO))
+                .singleElement().extracting(EstadisticasRegionDTO::aciertos).isEqualTo(1L);
+
+        // Una escritura en usuario invalida el resultado guardado
+        usuario = usuarioRepository.findById(id).orElseThrow();
+        usuario.setRol(Rol.Miembro);
+        usuarioRepository.save(usuario);
+        assertThat(usuarioRepository.findDTOByRol(Rol.Lider)).isEmpty();
+    }
+}
@@ -0,0 +1,113 @@
+package com.metaphorce.TaskFlow.repository;
+
+import com.metaphorce.TaskFlow.dto.CursorTareaDTO;
+import com.metaphorce.TaskFlow.dto.FiltroTareasDTO;
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.OrdenTarea;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.enums.Rol;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Ejecuta cada consulta caliente de los repositorios, captura el SQL que genera Hibernate y revisa su EXPLAIN:
+// ninguna debe recorrer la tabla completa (en H2 el plan lo marca como "tableScan"). Solo revisa el plan de H2;
+// el optimizador de MySQL puede elegir otro, así que el plan en MySQL no queda verificado por esta prueba
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.metaphorce.TaskFlow.repository.ConsultasIndexadasTest$CapturaSentencias")
+class ConsultasIndexadasTest {
+
+    private static final LocalDateTime FECHA = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    @Autowired
+    private GestionTiempoRepository gestionTiempoRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void ningunaConsultaCalienteRecorreLaTablaCompleta() throws SQLException {
+        Map<String, Runnable> consultas = new LinkedHashMap<>();
+        consultas.put("tareas por estatus", () -> tareasRepository.findByEstatusAndIdTareaGreaterThanOrderByIdTareaAsc(Estatus.Asignada, 0, Limit.of(50)));
+        consultas.put("tareas por prioridad", () -> tareasRepository.findByPrioridadAndIdTareaGreaterThanOrderByIdTareaAsc(Prioridad.Alta, 0, Limit.of(50)));
+        consultas.put("tareas por fecha de creacion", () -> tareasRepository.findByFechaCreacionAndIdTareaGreaterThanOrderByIdTareaAsc(FECHA, 0, Limit.of(50)));
+        consultas.put("tareas por proyecto", () -> tareasRepository.findByProyecto_IdProyectoAndIdTareaGreaterThanOrderByIdTareaAsc(1, 0, Limit.of(50)));
+        consultas.put("tareas por asignado", () -> tareasRepository.findByUsuarioAsignada_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(1, 0, Limit.of(50)));
+        consultas.put("tareas por creador", () -> tareasRepository.findByCreadorTarea_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(1, 0, Limit.of(50)));
+        consultas.put("busqueda combinada", () -> tareasRepository.buscar(new FiltroTareasDTO(List.of(Estatus.Asignada, Estatus.Retrasada),
+                List.of(Prioridad.Alta), 1, 1, null, FECHA, null, null, null), OrdenTarea.Fecha_creacion_desc, new CursorTareaDTO(FECHA, 1), Limit.of(50)));
+        consultas.put("sesiones por rango de fechas", () -> gestionTiempoRepository.findByFechaInicioBetweenAndIdGestionGreaterThanOrderByIdGestionAsc(FECHA, FECHA.plusDays(7), 0, Limit.of(50)));
+        consultas.put("sesiones por usuario", () -> gestionTiempoRepository.findByUsuario_IdUsuarioAndIdGestionGreaterThanOrderByIdGestionAsc(1, 0, Limit.of(50)));
+        consultas.put("sesiones por usuario y tarea", () -> gestionTiempoRepository.findByUsuario_IdUsuarioAndTarea_IdTareaAndIdGestionGreaterThanOrderByIdGestionAsc(1, 1, 0, Limit.of(50)));
+        consultas.put("proyecto por titulo", () -> proyectoRepository.findDTOByTitulo("TaskFlow"));
+        consultas.put("proyectos por usuario", () -> proyectoRepository.findDTOByLider(1));
+        consultas.put("usuario por correo", () -> usuarioRepository.findDTOByCorreo("ana@taskflow.com"));
+        consultas.put("usuarios por rol", () -> usuarioRepository.findDTOByRol(Rol.Lider));
+
+        Map<String, String> recorridosCompletos = new LinkedHashMap<>();
+        for (Map.Entry<String, Runnable> consulta : consultas.entrySet()) {
+            CapturaSentencias.SENTENCIAS.clear();
+            consulta.getValue().run();
+            assertThat(CapturaSentencias.SENTENCIAS).as(consulta.getKey()).isNotEmpty();
+            for (String sql : CapturaSentencias.SENTENCIAS) {
+                String plan = explicar(sql);
+                if (plan.contains("tableScan")) {
+                    recorridosCompletos.put(consulta.getKey(), plan);
+                }
+            }
+        }
+
+        assertThat(recorridosCompletos).isEmpty();
+    }
+
+    private String explicar(String sql) throws SQLException {
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 1; i <= explain.getParameterMetaData().getParameterCount(); i++) {
+                explain.setObject(i, null);
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                StringBuilder texto = new StringBuilder();
+                while (plan.next()) {
+                    texto.append(plan.getString(1));
+                }
+                return texto.toString();
+            }
+        }
+    }
+
+    public static class CapturaSentencias implements StatementInspector {
+
+        static final List<String> SENTENCIAS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.metaphorce.TaskFlow.repository;
+
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.Proyecto;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class TareasRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@taskflow.com");
+        usuario.setContraseniaHash("hash");
+        usuario.setRol(Rol.Lider);
+        entityManager.persist(usuario);
+
+        Proyecto proyecto = new Proyecto();
+        proyecto.setUsuario(usuario);
+        proyecto.setTitulo("TaskFlow");
+        proyecto.setDescripcion("Proyecto de prueba");
+        proyecto.setFechaInicio(LocalDateTime.now());
+        entityManager.persist(proyecto);
+
+        for (int i = 0; i < 5; i++) {
+            Tareas tarea = new Tareas();
+            tarea.setCreadorTarea(usuario);
+            tarea.setUsuarioAsignada(usuario);
+            tarea.setProyecto(proyecto);
+            tarea.setFechaCreacion(LocalDateTime.now());
+            tarea.setTitulo("Tarea " + i);
+            tarea.setDescripcion("Descripcion " + i);
+            tarea.setPrioridad(i % 2 == 0 ? Prioridad.Alta : Prioridad.Baja);
+            tarea.setEstatus(Estatus.Asignada);
+            entityManager.persist(tarea);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void paginaPorCursorSinRepetirNiSaltarFilas() {
+        List<TareaDTO> primera = tareasRepository.findByIdTareaGreaterThanOrderByIdTareaAsc(0, Limit.of(2));
+        Integer cursor = primera.get(primera.size() - 1).idTarea();
+        List<TareaDTO> segunda = tareasRepository.findByIdTareaGreaterThanOrderByIdTareaAsc(cursor, Limit.of(2));
+        Integer ultimo = segunda.get(segunda.size() - 1).idTarea();
+        List<TareaDTO> tercera = tareasRepository.findByIdTareaGreaterThanOrderByIdTareaAsc(ultimo, Limit.of(2));
+
+        assertThat(primera).hasSize(2);
+        assertThat(segunda).hasSize(2).allMatch(t -> t.idTarea() > cursor);
+        assertThat(tercera).hasSize(1);
+    }
+
+    @Test
+    void paginaPorCursorConFiltro() {
+        List<TareaDTO> altas = tareasRepository.findByPrioridadAndIdTareaGreaterThanOrderByIdTareaAsc(Prioridad.Alta, 0, Limit.of(10));
+
+        assertThat(altas).hasSize(3).allMatch(t -> t.prioridad() == Prioridad.Alta);
+    }
+
+    @Test
+    void streamRecorreTodasLasFilas() {
+        try (Stream<TareaDTO> tareas = tareasRepository.streamAll()) {
+            assertThat(tareas.count()).isEqualTo(5);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaphorce.TaskFlow.dto.GestionTiempoDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoLoteDTO;
+import com.metaphorce.TaskFlow.dto.TotalPeriodoDTO;
+import com.metaphorce.TaskFlow.enums.AgrupacionReporte;
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Periodo;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.GestionTiempo;
+import com.metaphorce.TaskFlow.modelo.Proyecto;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.TiempoUsuarioTarea;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.GestionTiempoRepository;
+import com.metaphorce.TaskFlow.repository.ProyectoRepository;
+import com.metaphorce.TaskFlow.repository.TareasRepository;
+import com.metaphorce.TaskFlow.repository.TiempoProyectoDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoTareaDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoUsuarioDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoUsuarioTareaRepository;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AcumuladoTiempoServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+    @Autowired
+    private GestionTiempoService gestionTiempoService;
+
+    @Autowired
+    private AcumuladoTiempoService acumuladoTiempoService;
+
+    @Autowired
+    private SesionesAbiertas sesionesAbiertas;
+
+    @Autowired
+    private ReportesTiempoService reportesTiempoService;
+
+    @Autowired
+    private TareasService tareasService;
+
+    @Autowired
+    private ProyectoService proyectoService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    @Autowired
+    private GestionTiempoRepository gestionTiempoRepository;
+
+    @Autowired
+    private TiempoUsuarioTareaRepository tiempoUsuarioTareaRepository;
+
+    @Autowired
+    private TiempoUsuarioDiaRepository tiempoUsuarioDiaRepository;
+
+    @Autowired
+    private TiempoTareaDiaRepository tiempoTareaDiaRepository;
+
+    @Autowired
+    private TiempoProyectoDiaRepository tiempoProyectoDiaRepository;
+
+    private Usuario usuario;
+    private Proyecto proyecto;
+    private Tareas tarea;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@taskflow.com");
+        usuario.setContraseniaHash("hash");
+        usuario.setRol(Rol.Miembro);
+        usuario = usuarioRepository.save(usuario);
+
+        proyecto = new Proyecto();
+        proyecto.setUsuario(usuario);
+        proyecto.setTitulo("TaskFlow");
+        proyecto.setDescripcion("Proyecto de prueba");
+        proyecto.setFechaInicio(INICIO);
+        proyecto = proyectoRepository.save(proyecto);
+
+        tarea = new Tareas();
+        tarea.setCreadorTarea(usuario);
+        tarea.setUsuarioAsignada(usuario);
+        tarea.setProyecto(proyecto);
+        tarea.setFechaCreacion(INICIO);
+        tarea.setTitulo("Tarea");
+        tarea.setDescripcion("Descripcion");
+        tarea.setPrioridad(Prioridad.Alta);
+        tarea.setEstatus(Estatus.En_progreso);
+        tarea = tareasRepository.save(tarea);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tiempoUsuarioTareaRepository.deleteAllInBatch();
+        tiempoUsuarioDiaRepository.deleteAllInBatch();
+        tiempoTareaDiaRepository.deleteAllInBatch();
+        tiempoProyectoDiaRepository.deleteAllInBatch();
+        gestionTiempoRepository.deleteAllInBatch();
+        tareasRepository.deleteAllInBatch();
+        proyectoRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void mantieneLosAcumuladosEnAltasCambiosYBajas() {
+        GestionTiempo primera = gestionTiempoService.createGestionTiempo(sesion(30));
+        GestionTiempo segunda = gestionTiempoService.createGestionTiempo(sesion(45));
+        assertThat(totalUsuarioTarea()).isEqualTo(75);
+
+        gestionTiempoService.updateGestionTiempo(primera.getIdGestion(), sesion(60));
+        assertThat(totalUsuarioTarea()).isEqualTo(105);
+        assertThat(acumuladoTiempoService.getDuracionTotalUsuarioDia(usuario.getIdUsuario(), LocalDate.of(2025, 3, 10))).isEqualTo(105);
+        assertThat(acumuladoTiempoService.getDuracionTotalProyectoDia(proyecto.getIdProyecto(), LocalDate.of(2025, 3, 10))).isEqualTo(105);
+
+        gestionTiempoService.deleteGestionTiempo(segunda.getIdGestion());
+        gestionTiempoService.deleteGestionTiempo(primera.getIdGestion());
+        assertThat(totalUsuarioTarea()).isNull();
+    }
+
+    @Test
+    void elTemporizadorAbreUnaSolaSesionYAlDetenerSoloSumaSuDuracion() {
+        Integer idUsuario = usuario.getIdUsuario();
+        GestionTiempoDTO abierta = gestionTiempoService.iniciarSesion(idUsuario, tarea.getIdTarea()).orElseThrow();
+        assertThat(gestionTiempoService.iniciarSesion(idUsuario, tarea.getIdTarea())).isEmpty();
+        // Tampoco por la ruta genérica: un alta abierta se rechaza y no deja rastro en los acumulados
+        GestionTiempo otraAbierta = sesion(0);
+        otraAbierta.setFechaFin(null);
+        assertThatThrownBy(() -> gestionTiempoService.createGestionTiempo(otraAbierta)).isInstanceOf(SesionAbiertaException.class);
+        assertThat(gestionTiempoService.getSesionAbierta(idUsuario)).contains(abierta);
+
+        // Un cambio por la ruta genérica también llega al registro en memoria
+        ObjectNode parche = JsonNodeFactory.instance.objectNode().put("fechaInicio", abierta.fechaInicio().minusMinutes(30).toString());
+        gestionTiempoService.patchGestionTiempo(abierta.idGestion(), null, parche);
+
+        GestionTiempoDTO cerrada = gestionTiempoService.detenerSesion(idUsuario).orElseThrow();
+        assertThat(cerrada.duracionSesion()).isEqualTo(30);
+        assertThat(gestionTiempoService.getGestionTiempoById(abierta.idGestion()).orElseThrow()).isEqualTo(cerrada);
+        assertThat(totalUsuarioTarea()).isEqualTo(30);
+        assertThat(tiempoUsuarioTareaRepository.findById(new TiempoUsuarioTarea.Clave(idUsuario, tarea.getIdTarea()))
+                .orElseThrow().getSesiones()).isEqualTo(1);
+        assertThat(gestionTiempoService.detenerSesion(idUsuario)).isEmpty();
+
+        // Al arrancar el registro se reconstruye con las filas sin fecha de fin
+        GestionTiempo sinFin = sesion(0);
+        sinFin.setFechaFin(null);
+        Integer idSinFin = gestionTiempoRepository.save(sinFin).getIdGestion();
+        sesionesAbiertas.reconstruir();
+        assertThat(gestionTiempoService.getSesionAbierta(idUsuario)).map(GestionTiempoDTO::idGestion).contains(idSinFin);
+    }
+
+    @Test
+    void reportePorPeriodoSumaLosAcumuladosYSeInvalidaAlCorregirUnPeriodoCerrado() {
+        GestionTiempo marzo = gestionTiempoService.createGestionTiempo(sesion(30));
+        GestionTiempo abril = sesion(45);
+        abril.setFechaInicio(INICIO.plusDays(23));
+        abril.setFechaFin(abril.getFechaInicio().plusMinutes(45));
+        gestionTiempoService.createGestionTiempo(abril);
+        LocalDate desde = LocalDate.of(2025, 3, 15);
+        LocalDate hasta = LocalDate.of(2025, 4, 30);
+
+        assertThat(reportesTiempoService.getTotales(AgrupacionReporte.Tarea, Periodo.Mes, desde, hasta, null)).containsExactly(
+                new TotalPeriodoDTO(tarea.getIdTarea(), LocalDate.of(2025, 3, 1), 30, 1),
+                new TotalPeriodoDTO(tarea.getIdTarea(), LocalDate.of(2025, 4, 1), 45, 1));
+        // La semana de desde se incluye completa: empieza el lunes 10 de marzo
+        assertThat(reportesTiempoService.getTotales(AgrupacionReporte.Usuario, Periodo.Semana, desde, hasta, usuario.getIdUsuario()))
+                .extracting(TotalPeriodoDTO::inicio).containsExactly(INICIO.toLocalDate(), LocalDate.of(2025, 4, 2).with(DayOfWeek.MONDAY));
+
+        gestionTiempoService.updateGestionTiempo(marzo.getIdGestion(), sesion(60));
+
+        assertThat(reportesTiempoService.getTotales(AgrupacionReporte.Proyecto, Periodo.Mes, desde, hasta, proyecto.getIdProyecto()))
+                .extracting(TotalPeriodoDTO::duracionTotal).containsExactly(60L, 45L);
+        assertThat(reportesTiempoService.getTotales(AgrupacionReporte.Tarea, Periodo.Mes, desde, hasta, null))
+                .extracting(TotalPeriodoDTO::duracionTotal).containsExactly(60L, 45L);
+    }
+
+    @Test
+    void reconstruirCoincideConLaSumaSobreLaTabla() {
+        gestionTiempoService.createGestionTiempo(sesion(20));
+        gestionTiempoService.createGestionTiempo(sesion(40));
+        tiempoUsuarioTareaRepository.deleteAllInBatch();
+
+        acumuladoTiempoService.reconstruir();
+
+        assertThat(totalUsuarioTarea())
+                .isEqualTo(gestionTiempoRepository.sumDuracionSesionByUsuarioAndTarea(usuario.getIdUsuario(), tarea.getIdTarea()))
+                .isEqualTo(60);
+    }
+
+    @Test
+    void cargaMasivaSumaTodoElLoteALosAcumulados() {
+        ResultadoLoteDTO resultado = gestionTiempoService.createGestionesTiempo(
+                List.of(sesion(10), sesion(20), new GestionTiempo(), sesion(30)).iterator());
+
+        assertThat(resultado.creados()).isEqualTo(3);
+        assertThat(resultado.resultados().get(2).error()).isNotNull();
+        assertThat(totalUsuarioTarea()).isEqualTo(60);
+
+        GestionTiempo corregida = sesion(40);
+        corregida.setIdGestion(resultado.resultados().get(0).id());
+        GestionTiempo inexistente = sesion(90);
+        inexistente.setIdGestion(Integer.MAX_VALUE);
+        resultado = gestionTiempoService.updateGestionesTiempo(List.of(corregida, inexistente).iterator());
+
+        assertThat(resultado.creados()).isEqualTo(1);
+        assertThat(resultado.resultados().get(1).error()).isNotNull();
+        assertThat(totalUsuarioTarea()).isEqualTo(90);
+    }
+
+    // Los acumulados no tienen llaves foráneas: el tiempo borrado en cascada se descuenta al borrar tarea, proyecto o usuario
+    @Test
+    void losBorradosEnCascadaDescuentanElTiempoDeLosAcumulados() {
+        gestionTiempoService.createGestionTiempo(sesion(30));
+        gestionTiempoService.createGestionTiempo(sesion(15));
+        LocalDate dia = INICIO.toLocalDate();
+        assertThat(reportesTiempoService.getTotales(AgrupacionReporte.Proyecto, Periodo.Mes, dia, dia, null))
+                .extracting(TotalPeriodoDTO::duracionTotal).containsExactly(45L);
+
+        tareasService.deleteTarea(tarea.getIdTarea());
+        assertThat(totalUsuarioTarea()).isNull();
+        assertThat(acumuladoTiempoService.getDuracionTotalUsuarioDia(usuario.getIdUsuario(), dia)).isNull();
+        assertThat(acumuladoTiempoService.getDuracionTotalProyectoDia(proyecto.getIdProyecto(), dia)).isNull();
+        assertThat(reportesTiempoService.getTotales(AgrupacionReporte.Proyecto, Periodo.Mes, dia, dia, null)).isEmpty();
+
+        tarea = otraTarea();
+        gestionTiempoService.createGestionTiempo(sesion(20));
+        proyectoService.deleteProyecto(proyecto.getIdProyecto());
+        assertThat(acumuladoTiempoService.getDuracionTotalUsuarioDia(usuario.getIdUsuario(), dia)).isNull();
+
+        proyecto = proyectoRepository.save(copiaProyecto());
+        tarea = otraTarea();
+        gestionTiempoService.createGestionTiempo(sesion(10));
+        usuarioService.deleteUsuario(usuario.getIdUsuario());
+        assertThat(acumuladoTiempoService.getDuracionTotalProyectoDia(proyecto.getIdProyecto(), dia)).isNull();
+        assertThat(tiempoTareaDiaRepository.findAll()).allSatisfy(acumulado -> assertThat(acumulado.getSesiones()).isZero());
+    }
+
+    // El acumulado por proyecto sigue a la tarea: moverla por PUT o PATCH pasa su tiempo al proyecto nuevo
+    @Test
+    void moverUnaTareaDeProyectoMueveSuTiempo() {
+        GestionTiempo sesion = gestionTiempoService.createGestionTiempo(sesion(30));
+        LocalDate dia = INICIO.toLocalDate();
+        Proyecto destino = proyectoRepository.save(copiaProyecto());
+
+        Tareas movida = new Tareas();
+        movida.setCreadorTarea(usuario);
+        movida.setUsuarioAsignada(usuario);
+        movida.setProyecto(destino);
+        movida.setFechaCreacion(INICIO);
+        movida.setTitulo("Tarea");
+        movida.setDescripcion("Descripcion");
+        movida.setPrioridad(Prioridad.Alta);
+        movida.setEstatus(Estatus.En_progreso);
+        tareasService.updateTarea(tarea.getIdTarea(), movida);
+        assertThat(acumuladoTiempoService.getDuracionTotalProyectoDia(proyecto.getIdProyecto(), dia)).isNull();
+        assertThat(acumuladoTiempoService.getDuracionTotalProyectoDia(destino.getIdProyecto(), dia)).isEqualTo(30);
+
+        gestionTiempoService.updateGestionTiempo(sesion.getIdGestion(), sesion(45));
+        assertThat(acumuladoTiempoService.getDuracionTotalProyectoDia(destino.getIdProyecto(), dia)).isEqualTo(45);
+
+        ObjectNode parche = JsonNodeFactory.instance.objectNode().put("idProyecto", proyecto.getIdProyecto());
+        assertThat(tareasService.patchTarea(tarea.getIdTarea(), null, parche)).isTrue();
+        assertThat(acumuladoTiempoService.getDuracionTotalProyectoDia(destino.getIdProyecto(), dia)).isNull();
+        assertThat(acumuladoTiempoService.getDuracionTotalProyectoDia(proyecto.getIdProyecto(), dia)).isEqualTo(45);
+
+        gestionTiempoService.deleteGestionTiempo(sesion.getIdGestion());
+        assertThat(tiempoProyectoDiaRepository.findAll())
+                .allSatisfy(acumulado -> assertThat(acumulado.getDuracionTotal()).isZero());
+    }
+
+    private Tareas otraTarea() {
+        Tareas nueva = new Tareas();
+        nueva.setCreadorTarea(usuario);
+        nueva.setUsuarioAsignada(usuario);
+        nueva.setProyecto(proyecto);
+        nueva.setFechaCreacion(INICIO);
+        nueva.setTitulo("Otra tarea");
+        nueva.setDescripcion("Descripcion");
+        nueva.setPrioridad(Prioridad.Baja);
+        nueva.setEstatus(Estatus.Asignada);
+        return tareasRepository.save(nueva);
+    }
+
+    private Proyecto copiaProyecto() {
+        Proyecto nuevo = new Proyecto();
+        nuevo.setUsuario(usuario);
+        nuevo.setTitulo("TaskFlow 2");
+        nuevo.setDescripcion("Proyecto de prueba");
+        nuevo.setFechaInicio(INICIO);
+        return nuevo;
+    }
+
+    private Integer totalUsuarioTarea() {
+        return gestionTiempoService.getDuracionTotalSesion(usuario.getIdUsuario(), tarea.getIdTarea());
+    }
+
+    private GestionTiempo sesion(int minutos) {
+        GestionTiempo gestionTiempo = new GestionTiempo();
+        gestionTiempo.setUsuario(usuario);
+        gestionTiempo.setTarea(tarea);
+        gestionTiempo.setFechaInicio(INICIO);
+        gestionTiempo.setFechaFin(INICIO.plusMinutes(minutos));
+        return gestionTiempo;
+    }
+}
@@ -0,0 +1,75 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.SesionDTO;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CredencialesServiceTest {
+
+    @Autowired
+    private CredencialesService credencialesService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @AfterEach
+    void tearDown() {
+        usuarioRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void elTokenDelLoginSeVerificaSinVolverAHashear() {
+        usuarioService.createUsuario(usuario("secreto"));
+
+        Optional<SesionDTO> sesion = credencialesService.login("ana@taskflow.com", "secreto").join();
+
+        assertThat(sesion).isPresent();
+        assertThat(credencialesService.verificarToken(sesion.get().token())).contains(sesion.get());
+        assertThat(credencialesService.login("ana@taskflow.com", "otra").join()).isEmpty();
+        assertThat(credencialesService.login("nadie@taskflow.com", "secreto").join()).isEmpty();
+
+        credencialesService.cerrarSesion(sesion.get().token());
+
+        assertThat(credencialesService.verificarToken(sesion.get().token())).isEmpty();
+    }
+
+    // En pruebas el costo configurado es 5; un hash con costo 4 se reemplaza al iniciar sesión
+    @Test
+    void rehasheaConElCostoNuevoAlIniciarSesion() throws InterruptedException {
+        Usuario usuario = usuario(new BCryptPasswordEncoder(4).encode("secreto"));
+        usuario = usuarioRepository.save(usuario);
+
+        assertThat(credencialesService.login("ana@taskflow.com", "secreto").join()).isPresent();
+
+        String hash = usuario.getContraseniaHash();
+        for (int intento = 0; intento < 50 && hash.startsWith("$2a$04$"); intento++) {
+            Thread.sleep(100);
+            hash = usuarioRepository.findConHashByCorreo("ana@taskflow.com").orElseThrow().getContraseniaHash();
+        }
+        assertThat(hash).startsWith("$2a$05$");
+        assertThat(credencialesService.login("ana@taskflow.com", "secreto").join()).isPresent();
+    }
+
+    private static Usuario usuario(String contrasenia) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@taskflow.com");
+        usuario.setContraseniaHash(contrasenia);
+        usuario.setRol(Rol.Miembro);
+        return usuario;
+    }
+}
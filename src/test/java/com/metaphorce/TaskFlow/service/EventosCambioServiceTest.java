@@ -0,0 +1,160 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.EventoCambioDTO;
+import com.metaphorce.TaskFlow.dto.TareaDTO;
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.enums.RecursoCambio;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.enums.TipoCambio;
+import com.metaphorce.TaskFlow.modelo.Proyecto;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.ProyectoRepository;
+import com.metaphorce.TaskFlow.repository.TareasRepository;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EventosCambioServiceTest {
+
+    @Autowired
+    private EventosCambioService eventosCambioService;
+
+    @Autowired
+    private TareasService tareasService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    @AfterEach
+    void tearDown() {
+        tareasRepository.deleteAllInBatch();
+        proyectoRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void entregaSoloLosCambiosDelUsuarioSuscrito() throws InterruptedException {
+        Usuario ana = usuario("ana@taskflow.com");
+        Usuario luis = usuario("luis@taskflow.com");
+        Proyecto proyecto = new Proyecto();
+        proyecto.setUsuario(ana);
+        proyecto.setTitulo("Portal");
+        proyecto.setDescripcion("Portal de clientes");
+        proyecto.setFechaInicio(LocalDateTime.now());
+        proyecto = proyectoRepository.save(proyecto);
+
+        BlockingQueue<EventoCambioDTO> recibidos = new LinkedBlockingQueue<>();
+        Runnable cancelar = eventosCambioService.suscribir(luis.getIdUsuario(), null, new Recolector(recibidos, null));
+
+        tareasService.createTarea(tarea(ana, ana, proyecto));
+        Tareas deLuis = tareasService.createTarea(tarea(ana, luis, proyecto));
+        tareasService.deleteTarea(deLuis.getIdTarea());
+
+        EventoCambioDTO creada = recibidos.poll(5, TimeUnit.SECONDS);
+        EventoCambioDTO eliminada = recibidos.poll(5, TimeUnit.SECONDS);
+        cancelar.run();
+
+        assertThat(creada.tipo()).isEqualTo(TipoCambio.Creado);
+        assertThat(creada.recurso()).isEqualTo(RecursoCambio.Tarea);
+        assertThat(creada.id()).isEqualTo(deLuis.getIdTarea());
+        assertThat(eliminada.tipo()).isEqualTo(TipoCambio.Eliminado);
+        assertThat(eliminada.id()).isEqualTo(deLuis.getIdTarea());
+        assertThat(recibidos).isEmpty();
+    }
+
+    // Un cliente que no lee pierde su suscripción en cuanto llena el buffer, sin frenar a quien publica
+    @Test
+    void terminaLaSuscripcionDeUnClienteLento() throws Exception {
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        CompletableFuture<Boolean> desbordado = new CompletableFuture<>();
+        eventosCambioService.suscribir(null, null, new Recolector(null, desbordado) {
+            @Override
+            public void entregar(EventoCambioDTO evento) throws IOException {
+                try {
+                    bloqueo.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+        });
+
+        for (int i = 1; i <= 1000; i++) {
+            eventosCambioService.publicarTarea(TipoCambio.Actualizado, new TareaDTO(i, 1, 1, 1, null, null, "Tarea", "", Prioridad.Baja, Estatus.Asignada));
+        }
+
+        assertThat(desbordado.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(eventosCambioService.getSuscripciones()).isZero();
+        bloqueo.countDown();
+    }
+
+    private Usuario usuario(String correo) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre(correo);
+        usuario.setCorreo(correo);
+        usuario.setContraseniaHash("hash");
+        usuario.setRol(Rol.Miembro);
+        return usuarioRepository.save(usuario);
+    }
+
+    private static Tareas tarea(Usuario creador, Usuario asignado, Proyecto proyecto) {
+        Tareas tarea = new Tareas();
+        tarea.setCreadorTarea(creador);
+        tarea.setUsuarioAsignada(asignado);
+        tarea.setProyecto(proyecto);
+        tarea.setFechaCreacion(LocalDateTime.now());
+        tarea.setTitulo("Revisar reportes");
+        tarea.setDescripcion("Reportes mensuales");
+        tarea.setPrioridad(Prioridad.Media);
+        tarea.setEstatus(Estatus.Asignada);
+        return tarea;
+    }
+
+    private static class Recolector implements SuscriptorCambios {
+
+        private final BlockingQueue<EventoCambioDTO> recibidos;
+        private final CompletableFuture<Boolean> terminado;
+
+        Recolector(BlockingQueue<EventoCambioDTO> recibidos, CompletableFuture<Boolean> terminado) {
+            this.recibidos = recibidos;
+            this.terminado = terminado;
+        }
+
+        @Override
+        public void entregar(EventoCambioDTO evento) throws IOException {
+            recibidos.add(evento);
+        }
+
+        @Override
+        public void latido() {
+        }
+
+        @Override
+        public void terminar(boolean desbordado) {
+            if (terminado != null) {
+                terminado.complete(desbordado);
+            }
+        }
+    }
+}
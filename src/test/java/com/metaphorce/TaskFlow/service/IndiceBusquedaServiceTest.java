@@ -0,0 +1,130 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.ResultadoBusquedaDTO;
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.enums.TipoDocumento;
+import com.metaphorce.TaskFlow.modelo.Proyecto;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.ProyectoRepository;
+import com.metaphorce.TaskFlow.repository.TareasRepository;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class IndiceBusquedaServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+    @Autowired
+    private IndiceBusquedaService indiceBusquedaService;
+
+    @Autowired
+    private TareasService tareasService;
+
+    @Autowired
+    private ProyectoService proyectoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    private Usuario usuario;
+    private Proyecto proyecto;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@taskflow.com");
+        usuario.setContraseniaHash("hash");
+        usuario.setRol(Rol.Lider);
+        usuario = usuarioRepository.save(usuario);
+
+        proyecto = new Proyecto();
+        proyecto.setUsuario(usuario);
+        proyecto.setTitulo("Portal de clientes");
+        proyecto.setDescripcion("Rediseño del portal y sus reportes");
+        proyecto.setFechaInicio(INICIO);
+        proyecto = proyectoService.createProyecto(proyecto);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tareasRepository.deleteAllInBatch();
+        proyectoRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+        indiceBusquedaService.reconstruir();
+    }
+
+    @Test
+    void ordenaPorRelevanciaYReconoceVariantesDeLaPalabra() {
+        Tareas enDescripcion = tareasService.createTarea(tarea("Ajustar estilos", "Revisar los reportes mensuales"));
+        Tareas enTitulo = tareasService.createTarea(tarea("Reporte mensual de ventas", "Consolidar cifras"));
+        tareasService.createTarea(tarea("Configurar servidor", "Instalar dependencias"));
+
+        List<ResultadoBusquedaDTO> resultados = indiceBusquedaService.buscar("reportes mensuales", TipoDocumento.Tarea, 0, 10);
+
+        assertThat(resultados).extracting(ResultadoBusquedaDTO::id)
+                .containsExactly(enTitulo.getIdTarea(), enDescripcion.getIdTarea());
+    }
+
+    @Test
+    void seMantieneAlDiaConLasActualizacionesYBorrados() {
+        Tareas tarea = tareasService.createTarea(tarea("Migrar base de datos", "Scripts de migracion"));
+
+        tarea.setTitulo("Documentar API");
+        tarea.setDescripcion("Endpoints publicos");
+        tareasService.updateTarea(tarea.getIdTarea(), tarea);
+
+        assertThat(indiceBusquedaService.buscar("migrar", null, 0, 10)).isEmpty();
+        assertThat(indiceBusquedaService.buscar("documentar", null, 0, 10))
+                .extracting(ResultadoBusquedaDTO::id).containsExactly(tarea.getIdTarea());
+
+        proyectoService.deleteProyecto(proyecto.getIdProyecto());
+
+        assertThat(indiceBusquedaService.buscar("documentar", null, 0, 10)).isEmpty();
+        assertThat(indiceBusquedaService.buscar("portal", TipoDocumento.Proyecto, 0, 10)).isEmpty();
+    }
+
+    @Test
+    void reconstruirReemplazaLosDocumentosSinDuplicarNiDejarHuerfanos() {
+        Tareas vigente = tareasService.createTarea(tarea("Migrar base de datos", "Scripts de migracion"));
+        Tareas borrada = tareasService.createTarea(tarea("Migrar reportes", "Sin respaldo"));
+        tareasRepository.deleteById(borrada.getIdTarea());
+
+        assertThat(indiceBusquedaService.reconstruir()).isEqualTo(2);
+
+        assertThat(indiceBusquedaService.buscar("migrar", null, 0, 10))
+                .extracting(ResultadoBusquedaDTO::id).containsExactly(vigente.getIdTarea());
+    }
+
+    private Tareas tarea(String titulo, String descripcion) {
+        Tareas tarea = new Tareas();
+        tarea.setCreadorTarea(usuario);
+        tarea.setUsuarioAsignada(usuario);
+        tarea.setProyecto(proyecto);
+        tarea.setFechaCreacion(INICIO);
+        tarea.setTitulo(titulo);
+        tarea.setDescripcion(descripcion);
+        tarea.setPrioridad(Prioridad.Media);
+        tarea.setEstatus(Estatus.Asignada);
+        return tarea;
+    }
+}
@@ -0,0 +1,200 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.config.CacheConfig;
+import com.metaphorce.TaskFlow.dto.ResumenProyectoDTO;
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.GestionTiempo;
+import com.metaphorce.TaskFlow.modelo.Proyecto;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.GestionTiempoRepository;
+import com.metaphorce.TaskFlow.repository.ProyectoRepository;
+import com.metaphorce.TaskFlow.repository.TareasRepository;
+import com.metaphorce.TaskFlow.repository.TiempoProyectoDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoTareaDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoUsuarioDiaRepository;
+import com.metaphorce.TaskFlow.repository.TiempoUsuarioTareaRepository;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProyectoServiceImplTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+    @Autowired
+    private ProyectoService proyectoService;
+
+    @Autowired
+    private TransicionEstatusService transicionEstatusService;
+
+    @Autowired
+    private GestionTiempoService gestionTiempoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    @Autowired
+    private GestionTiempoRepository gestionTiempoRepository;
+
+    @Autowired
+    private TiempoUsuarioTareaRepository tiempoUsuarioTareaRepository;
+
+    @Autowired
+    private TiempoUsuarioDiaRepository tiempoUsuarioDiaRepository;
+
+    @Autowired
+    private TiempoTareaDiaRepository tiempoTareaDiaRepository;
+
+    @Autowired
+    private TiempoProyectoDiaRepository tiempoProyectoDiaRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@taskflow.com");
+        usuario.setContraseniaHash("hash");
+        usuario.setRol(Rol.Miembro);
+        usuario = usuarioRepository.save(usuario);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tiempoUsuarioTareaRepository.deleteAllInBatch();
+        tiempoUsuarioDiaRepository.deleteAllInBatch();
+        tiempoTareaDiaRepository.deleteAllInBatch();
+        tiempoProyectoDiaRepository.deleteAllInBatch();
+        gestionTiempoRepository.deleteAllInBatch();
+        tareasRepository.deleteAllInBatch();
+        proyectoRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+        cacheManager.getCache(CacheConfig.RESUMENES_PROYECTO).clear();
+    }
+
+    // Las abiertas de un proyecto vencido cuentan como retrasadas antes de la revisión; la transición invalida la caché
+    @Test
+    void resumenCuentaRetrasadasYSeInvalidaConLaTransicion() {
+        Proyecto vencido = proyecto(LocalDateTime.now().minusDays(1));
+        Proyecto vacio = proyecto(null);
+        Tareas asignada = tarea(vencido, Estatus.Asignada);
+        tarea(vencido, Estatus.Hecha);
+
+        List<ResumenProyectoDTO> resumenes = proyectoService.getResumenesProyecto(
+                List.of(vacio.getIdProyecto(), vencido.getIdProyecto(), -1));
+
+        assertThat(resumenes).extracting(ResumenProyectoDTO::idProyecto).containsExactly(vacio.getIdProyecto(), vencido.getIdProyecto());
+        assertThat(resumenes.get(0).totalTareas()).isZero();
+        assertThat(resumenes.get(0).tareasPorEstatus()).containsEntry(Estatus.Retrasada, 0L);
+        ResumenProyectoDTO resumen = resumenes.get(1);
+        assertThat(resumen.totalTareas()).isEqualTo(2);
+        assertThat(resumen.tareasPorPrioridad()).containsEntry(Prioridad.Media, 2L).containsEntry(Prioridad.Alta, 0L);
+        assertThat(resumen.tareasRetrasadas()).isEqualTo(1);
+        assertThat(resumen.miembros()).singleElement().extracting("idUsuario").isEqualTo(usuario.getIdUsuario());
+
+        transicionEstatusService.transicionar(List.of(asignada.getIdTarea()), Estatus.Hecha);
+
+        ResumenProyectoDTO actualizado = proyectoService.getResumenProyecto(vencido.getIdProyecto()).orElseThrow();
+        assertThat(actualizado.tareasPorEstatus()).containsEntry(Estatus.Hecha, 2L).containsEntry(Estatus.Asignada, 0L);
+        assertThat(actualizado.tareasRetrasadas()).isZero();
+        assertThat(proyectoService.getResumenProyecto(-1)).isEmpty();
+    }
+
+    @Test
+    void resumenSeInvalidaAlRegistrarTiempo() {
+        Proyecto proyecto = proyecto(null);
+        Tareas tarea = tarea(proyecto, Estatus.En_progreso);
+        assertThat(proyectoService.getResumenProyecto(proyecto.getIdProyecto()).orElseThrow().duracionTotal()).isZero();
+
+        GestionTiempo sesion = gestionTiempoService.createGestionTiempo(sesion(tarea, 30));
+        assertThat(proyectoService.getResumenProyecto(proyecto.getIdProyecto()).orElseThrow().duracionTotal()).isEqualTo(30);
+
+        gestionTiempoService.updateGestionTiempo(sesion.getIdGestion(), sesion(tarea, 45));
+        assertThat(proyectoService.getResumenProyecto(proyecto.getIdProyecto()).orElseThrow().duracionTotal()).isEqualTo(45);
+
+        gestionTiempoService.deleteGestionTiempo(sesion.getIdGestion());
+        assertThat(proyectoService.getResumenProyecto(proyecto.getIdProyecto()).orElseThrow().duracionTotal()).isZero();
+    }
+
+    // Editar o borrar un proyecto solo saca de la caché su propio resumen
+    @Test
+    void actualizarOBorrarUnProyectoSoloInvalidaSuResumen() {
+        Proyecto editado = proyecto(null);
+        Proyecto otro = proyecto(null);
+        proyectoService.getResumenesProyecto(List.of(editado.getIdProyecto(), otro.getIdProyecto()));
+        Cache cache = cacheManager.getCache(CacheConfig.RESUMENES_PROYECTO);
+
+        Proyecto cambios = proyecto(editado.getIdProyecto(), "TaskFlow renombrado");
+        assertThat(proyectoService.updateProyecto(editado.getIdProyecto(), cambios)).isNotNull();
+        assertThat(cache.get(editado.getIdProyecto())).isNull();
+        assertThat(cache.get(otro.getIdProyecto())).isNotNull();
+
+        proyectoService.getResumenProyecto(editado.getIdProyecto());
+        proyectoService.deleteProyecto(editado.getIdProyecto());
+        assertThat(cache.get(editado.getIdProyecto())).isNull();
+        assertThat(cache.get(otro.getIdProyecto())).isNotNull();
+        assertThat(proyectoService.getResumenProyecto(editado.getIdProyecto())).isEmpty();
+    }
+
+    private Proyecto proyecto(LocalDateTime fechaFin) {
+        Proyecto proyecto = proyecto(null, "TaskFlow");
+        proyecto.setFechaFin(fechaFin);
+        return proyectoRepository.save(proyecto);
+    }
+
+    private Proyecto proyecto(Integer idProyecto, String titulo) {
+        Proyecto proyecto = new Proyecto();
+        proyecto.setIdProyecto(idProyecto);
+        proyecto.setUsuario(usuario);
+        proyecto.setTitulo(titulo);
+        proyecto.setDescripcion("Proyecto de prueba");
+        proyecto.setFechaInicio(INICIO);
+        return proyecto;
+    }
+
+    private Tareas tarea(Proyecto proyecto, Estatus estatus) {
+        Tareas tarea = new Tareas();
+        tarea.setCreadorTarea(usuario);
+        tarea.setUsuarioAsignada(usuario);
+        tarea.setProyecto(proyecto);
+        tarea.setFechaCreacion(INICIO);
+        tarea.setTitulo("Tarea");
+        tarea.setDescripcion("Descripcion");
+        tarea.setPrioridad(Prioridad.Media);
+        tarea.setEstatus(estatus);
+        return tareasRepository.save(tarea);
+    }
+
+    private GestionTiempo sesion(Tareas tarea, int minutos) {
+        GestionTiempo gestionTiempo = new GestionTiempo();
+        gestionTiempo.setUsuario(usuario);
+        gestionTiempo.setTarea(tarea);
+        gestionTiempo.setFechaInicio(INICIO);
+        gestionTiempo.setFechaFin(INICIO.plusMinutes(minutos));
+        return gestionTiempo;
+    }
+}
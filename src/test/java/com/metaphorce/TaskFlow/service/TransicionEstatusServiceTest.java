@@ -0,0 +1,178 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.dto.EventoCambioDTO;
+import com.metaphorce.TaskFlow.dto.ResultadoTransicionDTO;
+import com.metaphorce.TaskFlow.enums.Estatus;
+import com.metaphorce.TaskFlow.enums.Prioridad;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.Proyecto;
+import com.metaphorce.TaskFlow.modelo.Tareas;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.ProyectoRepository;
+import com.metaphorce.TaskFlow.repository.TareasRepository;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// El lote de prueba es de 2 filas para que cada operación recorra varios bloques
+@SpringBootTest(properties = "taskflow.estatus.lote=2")
+class TransicionEstatusServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+    @Autowired
+    private TransicionEstatusService transicionEstatusService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private TareasRepository tareasRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EventosCambioService eventosCambioService;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@taskflow.com");
+        usuario.setContraseniaHash("hash");
+        usuario.setRol(Rol.Miembro);
+        usuario = usuarioRepository.save(usuario);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tareasRepository.deleteAllInBatch();
+        proyectoRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void marcaRetrasadasLasAbiertasDeProyectosVencidosYSellaLasHechas() {
+        Proyecto vencido = proyecto(LocalDateTime.now().minusDays(1));
+        Proyecto vigente = proyecto(LocalDateTime.now().plusDays(30));
+        Tareas asignada = tarea(vencido, Estatus.Asignada);
+        Tareas enProgreso = tarea(vencido, Estatus.En_progreso);
+        Tareas otraAsignada = tarea(vencido, Estatus.Asignada);
+        Tareas hecha = tarea(vencido, Estatus.Hecha);
+        Tareas aTiempo = tarea(vigente, Estatus.Asignada);
+        double filasAntes = filas("retrasadas");
+
+        transicionEstatusService.revisarEstatus();
+
+        assertThat(estatus(asignada)).isEqualTo(Estatus.Retrasada);
+        assertThat(estatus(enProgreso)).isEqualTo(Estatus.Retrasada);
+        assertThat(estatus(otraAsignada)).isEqualTo(Estatus.Retrasada);
+        assertThat(estatus(aTiempo)).isEqualTo(Estatus.Asignada);
+        Tareas sellada = tareasRepository.findById(hecha.getIdTarea()).orElseThrow();
+        assertThat(sellada.getEstatus()).isEqualTo(Estatus.Hecha);
+        assertThat(sellada.getFechaTerminada()).isNotNull();
+        assertThat(sellada.getVersion()).isEqualTo(1L);
+        assertThat(filas("retrasadas") - filasAntes).isEqualTo(3);
+
+        // Una segunda pasada no encuentra nada que cambiar
+        assertThat(transicionEstatusService.marcarRetrasadas()).isZero();
+        assertThat(transicionEstatusService.sellarTerminadas()).isZero();
+    }
+
+    @Test
+    void transicionMasivaSoloCuentaLasFilasQueCambian() {
+        Proyecto proyecto = proyecto(null);
+        Tareas primera = tarea(proyecto, Estatus.Asignada);
+        Tareas segunda = tarea(proyecto, Estatus.En_progreso);
+        Tareas yaHecha = tarea(proyecto, Estatus.Hecha);
+
+        ResultadoTransicionDTO resultado = transicionEstatusService.transicionar(
+                List.of(primera.getIdTarea(), segunda.getIdTarea(), yaHecha.getIdTarea(), primera.getIdTarea(), -1), Estatus.Hecha);
+
+        assertThat(resultado).isEqualTo(new ResultadoTransicionDTO(Estatus.Hecha, 4, 2));
+        assertThat(tareasRepository.findById(primera.getIdTarea()).orElseThrow().getFechaTerminada()).isNotNull();
+        assertThat(tareasRepository.findById(yaHecha.getIdTarea()).orElseThrow().getVersion()).isZero();
+    }
+
+    // El feed solo anuncia las tareas que el UPDATE cambió, no todo el bloque
+    @Test
+    void transicionMasivaSoloPublicaLasTareasQueCambian() throws InterruptedException {
+        Proyecto proyecto = proyecto(null);
+        Tareas asignada = tarea(proyecto, Estatus.Asignada);
+        Tareas yaHecha = tarea(proyecto, Estatus.Hecha);
+        BlockingQueue<EventoCambioDTO> eventos = new LinkedBlockingQueue<>();
+        Runnable cancelar = eventosCambioService.suscribir(null, null, new SuscriptorCambios() {
+            @Override
+            public void entregar(EventoCambioDTO evento) {
+                eventos.add(evento);
+            }
+
+            @Override
+            public void latido() {
+            }
+
+            @Override
+            public void terminar(boolean desbordado) {
+            }
+        });
+        try {
+            transicionEstatusService.transicionar(List.of(asignada.getIdTarea(), yaHecha.getIdTarea()), Estatus.Hecha);
+
+            EventoCambioDTO evento = eventos.poll(5, TimeUnit.SECONDS);
+            assertThat(evento).isNotNull();
+            assertThat(evento.id()).isEqualTo(asignada.getIdTarea());
+            assertThat(eventos.poll(500, TimeUnit.MILLISECONDS)).isNull();
+        } finally {
+            cancelar.run();
+        }
+    }
+
+    private Proyecto proyecto(LocalDateTime fechaFin) {
+        Proyecto proyecto = new Proyecto();
+        proyecto.setUsuario(usuario);
+        proyecto.setTitulo("TaskFlow");
+        proyecto.setDescripcion("Proyecto de prueba");
+        proyecto.setFechaInicio(INICIO);
+        proyecto.setFechaFin(fechaFin);
+        return proyectoRepository.save(proyecto);
+    }
+
+    private Tareas tarea(Proyecto proyecto, Estatus estatus) {
+        Tareas tarea = new Tareas();
+        tarea.setCreadorTarea(usuario);
+        tarea.setUsuarioAsignada(usuario);
+        tarea.setProyecto(proyecto);
+        tarea.setFechaCreacion(INICIO);
+        tarea.setTitulo("Tarea");
+        tarea.setDescripcion("Descripcion");
+        tarea.setPrioridad(Prioridad.Media);
+        tarea.setEstatus(estatus);
+        return tareasRepository.save(tarea);
+    }
+
+    private Estatus estatus(Tareas tarea) {
+        return tareasRepository.findById(tarea.getIdTarea()).orElseThrow().getEstatus();
+    }
+
+    private double filas(String operacion) {
+        return meterRegistry.counter("taskflow.estatus.filas", "operacion", operacion).count();
+    }
+}
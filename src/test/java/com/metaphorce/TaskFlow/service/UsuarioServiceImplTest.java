@@ -0,0 +1,74 @@
+package com.metaphorce.TaskFlow.service;
+
+import com.metaphorce.TaskFlow.config.CacheConfig;
+import com.metaphorce.TaskFlow.enums.Rol;
+import com.metaphorce.TaskFlow.modelo.Usuario;
+import com.metaphorce.TaskFlow.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UsuarioServiceImplTest {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        usuarioRepository.deleteAllInBatch();
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+    }
+
+    @Test
+    void cacheaLaBusquedaPorIdEInvalidaAlActualizar() {
+        Usuario usuario = usuarioService.createUsuario(usuario("Ana"));
+        Integer id = usuario.getIdUsuario();
+
+        assertThat(usuarioService.getUsuarioById(id)).get().extracting("nombre").isEqualTo("Ana");
+        assertThat(cacheManager.getCache(CacheConfig.USUARIOS).get(id)).isNotNull();
+
+        Usuario cambio = usuario("Ana Maria");
+        cambio.setContraseniaHash(usuario.getContraseniaHash());
+        usuarioService.updateUsuario(id, cambio);
+
+        assertThat(cacheManager.getCache(CacheConfig.USUARIOS).get(id)).isNull();
+        assertThat(usuarioService.getUsuarioById(id)).get().extracting("nombre").isEqualTo("Ana Maria");
+    }
+
+    @Test
+    void noGuardaBusquedasSinResultado() {
+        assertThat(usuarioService.getUsuarioByCorreo("nadie@taskflow.com")).isEmpty();
+
+        usuarioService.createUsuario(usuario("Nadie"));
+
+        assertThat(usuarioService.getUsuarioByCorreo("nadie@taskflow.com")).isPresent();
+    }
+
+    @Test
+    void creaAlLiderInicialSoloSiNoHayNinguno() {
+        assertThat(usuarioService.crearLiderInicial("Admin", "admin@taskflow.com", "secreto")).isTrue();
+        assertThat(usuarioService.crearLiderInicial("Otro", "otro@taskflow.com", "secreto")).isFalse();
+
+        assertThat(usuarioService.getUsuariosByRol(Rol.Lider)).extracting("correo").containsExactly("admin@taskflow.com");
+    }
+
+    private static Usuario usuario(String nombre) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre(nombre);
+        usuario.setCorreo("nadie@taskflow.com");
+        usuario.setContraseniaHash("secreto");
+        usuario.setRol(Rol.Miembro);
+        return usuario;
+    }
+}